@@ -0,0 +1,44 @@
+package com.coursework.story.benchmark;
+
+import com.coursework.story.model.Battle;
+import com.coursework.story.repository.BattleRepository;
+import com.coursework.story.service.BattleService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BattleBenchmark {
+
+    private BattleService battleService;
+    private Battle battle;
+
+    @Setup
+    public void setUp() {
+        BattleRepository battleRepository = mock(BattleRepository.class, withSettings().stubOnly());
+        when(battleRepository.save(any(Battle.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        battleService = new BattleService(battleRepository, new SimpleMeterRegistry());
+
+        battle = new Battle();
+        battle.setEnemyName("Goblin");
+        battle.setEnemySkill(7);
+        battle.setEnemyStamina(8);
+        battle.setPlayerSkill(9);
+        battle.setPlayerStamina(20);
+        battle.setPlayerLuck(10);
+    }
+
+    @Benchmark
+    public Battle resolveRound() {
+        return battleService.resolveRound(battle);
+    }
+}
@@ -0,0 +1,40 @@
+package com.coursework.story.benchmark;
+
+import com.coursework.story.dto.PageDTO;
+import com.coursework.story.dto.StoryDTO;
+import com.coursework.story.model.Page;
+import com.coursework.story.model.Story;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoBenchmark {
+
+    @Param({"100", "1000"})
+    int pages;
+
+    private Story story;
+    private Page page;
+
+    @Setup
+    public void setUp() {
+        story = SyntheticStories.branching(pages, 3, 50, 42);
+        page = story.getPages().getFirst();
+    }
+
+    @Benchmark
+    public StoryDTO storyWithPages() {
+        return new StoryDTO(story, story.getPages());
+    }
+
+    @Benchmark
+    public PageDTO page() {
+        return new PageDTO(page);
+    }
+}
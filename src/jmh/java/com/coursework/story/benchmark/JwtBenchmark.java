@@ -0,0 +1,37 @@
+package com.coursework.story.benchmark;
+
+import com.coursework.story.security.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    // 0 disables the verified-token cache, so every call pays for parsing and the HMAC check
+    @Param({"0", "10000"})
+    public long maxCachedTokens;
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(new SimpleMeterRegistry(), maxCachedTokens);
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", "benchmark-secret-key-that-is-long-enough-for-hs256");
+        jwtUtil.init();
+        token = jwtUtil.generateAccessToken("reader");
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+}
@@ -0,0 +1,104 @@
+package com.coursework.story.benchmark;
+
+import com.coursework.story.dto.PlaythroughDTO;
+import com.coursework.story.model.*;
+import com.coursework.story.repository.*;
+import com.coursework.story.service.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+// Repositories are stub-only Mockito mocks, so the numbers cover the service logic and DTO assembly, not the database
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaythroughBenchmark {
+
+    @Param({"1000"})
+    int pages;
+
+    @Param({"3"})
+    int choicesPerPage;
+
+    private Story story;
+    private StoryRuntime runtime;
+    private PlaythroughService playthroughService;
+    private Playthrough playthrough;
+    private Map<Long, Page> pagesById;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        story = SyntheticStories.branching(pages, choicesPerPage, 50, 42);
+        runtime = StoryRuntime.compile(story.getId(), story.getPages());
+        pagesById = story.getPages().stream().collect(Collectors.toMap(Page::getId, Function.identity()));
+        Map<Long, Item> itemsById = story.getItems().stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        PlaythroughRepository playthroughRepository = mock(PlaythroughRepository.class, withSettings().stubOnly());
+        PageRepository pageRepository = mock(PageRepository.class, withSettings().stubOnly());
+        ItemRepository itemRepository = mock(ItemRepository.class, withSettings().stubOnly());
+        AuthService authService = mock(AuthService.class, withSettings().stubOnly());
+        StoryRuntimeService storyRuntimeService = mock(StoryRuntimeService.class, withSettings().stubOnly());
+
+        playthrough = new Playthrough();
+        playthrough.setId(1L);
+        playthrough.setUser(story.getUser());
+        playthrough.setStory(story);
+        playthrough.setStats(new PlayerStats(10, 20, 10));
+        playthrough.setInventory(new HashSet<>());
+        restart();
+
+        when(playthroughRepository.findById(anyLong())).thenReturn(Optional.of(playthrough));
+        when(playthroughRepository.save(any(Playthrough.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(pageRepository.getReferenceById(anyLong())).thenAnswer(invocation -> pagesById.get(invocation.<Long>getArgument(0)));
+        when(itemRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<Item> found = new ArrayList<>();
+            invocation.<Iterable<Long>>getArgument(0).forEach(id -> found.add(itemsById.get(id)));
+            return found;
+        });
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(story.getUser());
+        when(storyRuntimeService.getRuntime(anyLong())).thenReturn(runtime);
+
+        playthroughService = new PlaythroughService(playthroughRepository, mock(StoryRepository.class), pageRepository,
+                itemRepository, mock(BattleService.class), authService, storyRuntimeService,
+                mock(StoryCounterService.class), mock(ApproximateCountService.class), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public PlaythroughDTO resolveChoice() {
+        Page current = playthrough.getCurrentPage();
+        if (current.isEndPage()) {
+            restart();
+            current = playthrough.getCurrentPage();
+        }
+        PlaythroughDTO result = playthroughService.resolveChoice(playthrough.getId(),
+                current.getChoices().getFirst().getId());
+        playthrough.setBattlePending(false);
+        playthrough.setLuckRequired(false);
+        return result;
+    }
+
+    @Benchmark
+    public StoryRuntime compileRuntime() {
+        return StoryRuntime.compile(story.getId(), story.getPages());
+    }
+
+    private void restart() {
+        playthrough.setCurrentPage(pagesById.get(1L));
+        playthrough.setPath(new ArrayList<>(List.of(1)));
+        playthrough.setCompleted(false);
+        playthrough.getInventory().clear();
+    }
+}
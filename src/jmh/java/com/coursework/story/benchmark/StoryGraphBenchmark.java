@@ -0,0 +1,48 @@
+package com.coursework.story.benchmark;
+
+import com.coursework.story.model.Story;
+import com.coursework.story.repository.PageEdgeRow;
+import com.coursework.story.service.StoryGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// What StoryService.validateStoryBeforePublish does per publish: build the graph from edge rows and analyze it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StoryGraphBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int pages;
+
+    @Param({"3"})
+    int choicesPerPage;
+
+    private List<PageEdgeRow> rows;
+    private StoryGraph graph;
+    private int editedPage;
+
+    @Setup
+    public void setUp() {
+        Story story = SyntheticStories.branching(pages, choicesPerPage, 50, 42);
+        rows = SyntheticStories.edgeRows(story);
+        graph = StoryGraph.load(rows);
+    }
+
+    @Benchmark
+    public StoryGraph.Report validateFresh() {
+        return StoryGraph.load(rows).analyze(1);
+    }
+
+    @Benchmark
+    public StoryGraph.Report editThenValidate() {
+        editedPage = editedPage % (pages - 1) + 1;
+        graph.putPage((long) editedPage, editedPage, List.of(editedPage + 1));
+        return graph.analyze(1);
+    }
+}
@@ -0,0 +1,111 @@
+package com.coursework.story.benchmark;
+
+import com.coursework.story.model.*;
+import com.coursework.story.repository.PageEdgeRow;
+
+import java.util.*;
+
+// Deterministic story generator: every non-ending page links forward, and its first choice never needs an item
+// or a luck check, so a playthrough can always follow it to an ending.
+final class SyntheticStories {
+
+    private SyntheticStories() {
+    }
+
+    static Story branching(int pageCount, int choicesPerPage, int itemCount, long seed) {
+        Random random = new Random(seed);
+        User author = new User();
+        author.setId(1L);
+        author.setUsername("author");
+
+        Story story = new Story();
+        story.setId(1L);
+        story.setTitle("Synthetic story");
+        story.setDescription("Generated for benchmarks");
+        story.setUser(author);
+        story.setStatus(StoryStatus.PUBLISHED);
+        story.setStartPageNumber(1);
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 1; i <= itemCount; i++) {
+            Item item = new Item();
+            item.setId((long) i);
+            item.setName("Item " + i);
+            item.setDescription("A generated item");
+            item.setStatModifiers(modifiers(random));
+            item.setStory(story);
+            items.add(item);
+        }
+
+        int endings = Math.max(1, pageCount / 20);
+        long choiceId = 1;
+        List<Page> pages = new ArrayList<>();
+        for (int number = 1; number <= pageCount; number++) {
+            Page page = new Page();
+            page.setId((long) number);
+            page.setPageNumber(number);
+            page.setTitle("Page " + number);
+            page.setParagraphs(List.of(
+                    "You stand at crossroads number " + number + ".",
+                    "The wind carries the smell of rain and old stone.",
+                    "Somewhere ahead, something is waiting for you."));
+            page.setStory(story);
+
+            if (number <= pageCount - endings) {
+                List<Choice> choices = new ArrayList<>();
+                for (int c = 0; c < choicesPerPage; c++) {
+                    int target = number + 1 + random.nextInt(Math.min(pageCount - number, 10));
+                    Choice choice = new Choice("Go to " + target, target);
+                    choice.setId(choiceId++);
+                    if (c > 0 && !items.isEmpty() && random.nextInt(4) == 0) {
+                        choice.setRequiredItems(new HashSet<>(Set.of(items.get(random.nextInt(items.size())))));
+                    }
+                    choice.setRequiresLuckCheck(c > 0 && random.nextInt(8) == 0);
+                    choices.add(choice);
+                }
+                page.setChoices(choices);
+            }
+            if (random.nextInt(10) == 0) {
+                Enemy enemy = new Enemy();
+                enemy.setEnemyName("Goblin");
+                enemy.setEnemySkill(5 + random.nextInt(4));
+                enemy.setEnemyStamina(4 + random.nextInt(6));
+                page.setEnemy(enemy);
+            }
+            if (random.nextInt(3) == 0) {
+                page.setStatModifiers(modifiers(random));
+            }
+            if (!items.isEmpty() && random.nextInt(5) == 0) {
+                page.setItemsGranted(new HashSet<>(Set.of(items.get(random.nextInt(items.size())))));
+            }
+            if (!items.isEmpty() && random.nextInt(12) == 0) {
+                page.setItemsRemoved(new HashSet<>(Set.of(items.get(random.nextInt(items.size())))));
+            }
+            pages.add(page);
+        }
+
+        story.setPages(pages);
+        story.setItems(items);
+        return story;
+    }
+
+    static List<PageEdgeRow> edgeRows(Story story) {
+        List<PageEdgeRow> rows = new ArrayList<>();
+        for (Page page : story.getPages()) {
+            if (page.getChoices().isEmpty()) {
+                rows.add(new PageEdgeRow(page.getId(), page.getPageNumber(), null));
+            }
+            for (Choice choice : page.getChoices()) {
+                rows.add(new PageEdgeRow(page.getId(), page.getPageNumber(), choice.getTargetPage()));
+            }
+        }
+        return rows;
+    }
+
+    private static StatModifiers modifiers(Random random) {
+        StatModifiers modifiers = new StatModifiers();
+        modifiers.setSkill(random.nextInt(3) - 1);
+        modifiers.setStamina(random.nextInt(5) - 2);
+        return modifiers;
+    }
+}
@@ -0,0 +1,65 @@
+package com.coursework.story.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class LatencyStats {
+
+    private final Map<String, Recorder> routes = new ConcurrentHashMap<>();
+
+    // error is null for successful requests
+    public void record(String route, long nanos, String error) {
+        routes.computeIfAbsent(route, key -> new Recorder()).add(nanos, error);
+    }
+
+    public Map<String, Summary> summarize(double seconds) {
+        Map<String, Summary> summaries = new TreeMap<>();
+        routes.forEach((route, recorder) -> summaries.put(route, recorder.summarize(seconds)));
+        return summaries;
+    }
+
+    public void reset() {
+        routes.clear();
+    }
+
+    public record Summary(int requests, int errors, double throughput, double p50Millis, double p99Millis,
+                          double maxMillis, String firstError) {
+    }
+
+    private static final class Recorder {
+        private long[] samples = new long[1024];
+        private int size;
+        private int errors;
+        private String firstError;
+
+        synchronized void add(long nanos, String error) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+            if (error != null) {
+                errors++;
+                if (firstError == null) {
+                    firstError = error;
+                }
+            }
+        }
+
+        synchronized Summary summarize(double seconds) {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            return new Summary(size, errors, size / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    size == 0 ? 0 : sorted[size - 1] / 1e6, firstError);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
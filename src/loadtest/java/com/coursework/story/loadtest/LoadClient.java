@@ -0,0 +1,88 @@
+package com.coursework.story.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+// One instance per virtual user; the route names match the server-side handler patterns
+public class LoadClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final LatencyStats stats;
+    private final String baseUrl;
+    private String token;
+
+    public LoadClient(HttpClient httpClient, ObjectMapper objectMapper, LatencyStats stats, String baseUrl) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.stats = stats;
+        this.baseUrl = baseUrl;
+    }
+
+    public void login(String username, String password) {
+        JsonNode response = send("POST /api/auth/login", "/api/auth/login", json(HttpRequest.newBuilder(),
+                "POST", objectMapper.createObjectNode().put("username", username).put("password", password)));
+        token = response == null ? null : response.path("token").asText(null);
+        if (token == null) {
+            throw new IllegalStateException("Login failed for " + username);
+        }
+    }
+
+    public JsonNode get(String route, String path) {
+        return send(route, path, HttpRequest.newBuilder().GET());
+    }
+
+    public JsonNode post(String route, String path) {
+        return send(route, path, HttpRequest.newBuilder().POST(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    public JsonNode post(String route, String path, String contentType, byte[] body) {
+        return send(route, path, HttpRequest.newBuilder()
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body)));
+    }
+
+    public JsonNode put(String route, String path) {
+        return send(route, path, HttpRequest.newBuilder().PUT(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    private HttpRequest.Builder json(HttpRequest.Builder builder, String method, Object body) {
+        try {
+            return builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Returns null for failed requests; they are counted as errors for the route
+    private JsonNode send(String route, String path, HttpRequest.Builder builder) {
+        builder.uri(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() >= 400) {
+                stats.record(route, System.nanoTime() - start, response.statusCode() + " " + new String(response.body()));
+                return null;
+            }
+            stats.record(route, System.nanoTime() - start, null);
+            return response.body().length == 0 ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            stats.record(route, System.nanoTime() - start, e.toString());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
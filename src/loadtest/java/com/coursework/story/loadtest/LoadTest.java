@@ -0,0 +1,198 @@
+package com.coursework.story.loadtest;
+
+import com.coursework.story.StoryApplication;
+import com.coursework.story.model.User;
+import com.coursework.story.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.http.HttpClient;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+// Boots the app on H2 with stubbed storage and mail, seeds authors' stories, then drives
+// reader and author traffic and prints latency, throughput and JDBC statements per route.
+// Arguments are key=value: readers, authors, stories, pages, warmup, duration (seconds),
+// think (mean reader pause in ms) and authorPause (ms between author publishes).
+public class LoadTest {
+
+    private static final String PASSWORD = "loadtest-password";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, Integer> options = new HashMap<>(Map.of("readers", 1000, "authors", 20, "stories", 50,
+                "pages", 200, "warmup", 15, "duration", 60, "think", 500, "authorPause", 5000));
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2 || !options.containsKey(option[0])) {
+                throw new IllegalArgumentException("Unknown option " + arg + ", expected one of " + options.keySet());
+            }
+            options.put(option[0], Integer.parseInt(option[1]));
+        }
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(StoryApplication.class)
+                .profiles("loadtest")
+                .run();
+        try {
+            new LoadTest(context, options).run();
+        } finally {
+            context.close();
+        }
+        System.exit(0);
+    }
+
+    private final ConfigurableApplicationContext context;
+    private final Map<String, Integer> options;
+    private final LatencyStats latencyStats = new LatencyStats();
+    private final RouteStatements routeStatements;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final List<Long> storyIds = new CopyOnWriteArrayList<>();
+    private final TrafficModel trafficModel;
+    private volatile boolean running = true;
+
+    private LoadTest(ConfigurableApplicationContext context, Map<String, Integer> options) {
+        this.context = context;
+        this.options = options;
+        this.routeStatements = context.getBean(RouteStatements.class);
+        this.objectMapper = context.getBean(ObjectMapper.class);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        this.trafficModel = new TrafficModel(storyIds, new StoryBundles(objectMapper), options.get("pages"));
+    }
+
+    private void run() throws InterruptedException {
+        int readers = options.get("readers");
+        int authors = options.get("authors");
+        seedUsers("reader", readers);
+        seedUsers("author", authors);
+
+        List<LoadClient> authorClients = login("author", authors);
+        AtomicInteger published = new AtomicInteger();
+        inParallel(options.get("stories"), i -> trafficModel.publish(authorClients.get(i % authors),
+                "Seed story " + published.incrementAndGet()), storyId -> {
+            if (storyId != null) {
+                storyIds.add(storyId);
+            }
+        });
+        if (storyIds.isEmpty()) {
+            throw new IllegalStateException("No stories could be published, see the server log");
+        }
+        List<LoadClient> readerClients = login("reader", readers);
+        System.out.printf("Seeded %d readers, %d authors and %d stories of %d pages%n",
+                readers, authors, storyIds.size(), options.get("pages"));
+
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            int think = options.get("think");
+            int authorPause = options.get("authorPause");
+            for (LoadClient reader : readerClients) {
+                users.submit(() -> loop(() -> trafficModel.reader(reader), think));
+            }
+            for (LoadClient author : authorClients) {
+                users.submit(() -> loop(() -> trafficModel.author(author,
+                        "Story " + published.incrementAndGet()), authorPause));
+            }
+
+            Thread.sleep(options.get("warmup") * 1000L);
+            latencyStats.reset();
+            routeStatements.reset();
+            long start = System.nanoTime();
+            Thread.sleep(options.get("duration") * 1000L);
+            report((System.nanoTime() - start) / 1e9);
+            running = false;
+        }
+    }
+
+    private void seedUsers(String prefix, int count) {
+        String password = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        List<User> users = IntStream.rangeClosed(1, count).mapToObj(i -> {
+            User user = new User();
+            user.setUsername(prefix + i);
+            user.setEmail(prefix + i + "@loadtest.local");
+            user.setPassword(password);
+            user.setEmailVerified(true);
+            user.setRoles(new HashSet<>(Set.of("USER")));
+            return user;
+        }).toList();
+        context.getBean(UserRepository.class).saveAll(users);
+    }
+
+    private List<LoadClient> login(String prefix, int count) throws InterruptedException {
+        LoadClient[] clients = new LoadClient[count];
+        inParallel(count, i -> {
+            LoadClient client = new LoadClient(httpClient, objectMapper, latencyStats, baseUrl);
+            client.login(prefix + (i + 1), PASSWORD);
+            clients[i] = client;
+            return client;
+        }, client -> {
+        });
+        return List.of(clients);
+    }
+
+    private <T> void inParallel(int count, IntFunction<T> task,
+                                Consumer<T> onResult) throws InterruptedException {
+        try (ExecutorService executor = Executors.newFixedThreadPool(32, Thread.ofVirtual().factory())) {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> task.apply(index)));
+            }
+            for (Future<T> future : futures) {
+                try {
+                    onResult.accept(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        }
+    }
+
+    private void loop(Runnable action, int meanPauseMillis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            Thread.sleep(random.nextInt(Math.max(1, meanPauseMillis)));
+            while (running) {
+                action.run();
+                Thread.sleep((long) (-meanPauseMillis * Math.log(1 - random.nextDouble())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            if (running) {
+                System.err.println("Virtual user stopped: " + e);
+            }
+        }
+    }
+
+    private void report(double seconds) {
+        Map<String, LatencyStats.Summary> summaries = latencyStats.summarize(seconds);
+        int width = summaries.keySet().stream().mapToInt(String::length).max().orElse(5);
+        String row = "%-" + width + "s %9s %7s %9s %9s %9s %9s %10s%n";
+        System.out.printf("%nMeasured %.1f s%n", seconds);
+        System.out.printf(row, "Route", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "Max ms", "Stmts/req");
+        int requests = 0;
+        for (Map.Entry<String, LatencyStats.Summary> entry : summaries.entrySet()) {
+            LatencyStats.Summary summary = entry.getValue();
+            requests += summary.requests();
+            System.out.printf(row, entry.getKey(), summary.requests(), summary.errors(),
+                    String.format("%.1f", summary.throughput()), String.format("%.1f", summary.p50Millis()),
+                    String.format("%.1f", summary.p99Millis()), String.format("%.1f", summary.maxMillis()),
+                    String.format("%.1f", routeStatements.statementsPerRequest(entry.getKey())));
+        }
+        System.out.printf("Total %d requests, %.1f req/s%n", requests, requests / seconds);
+        summaries.forEach((route, summary) -> {
+            if (summary.firstError() != null) {
+                System.out.printf("First error for %s: %s%n", route, summary.firstError());
+            }
+        });
+    }
+}
@@ -0,0 +1,53 @@
+package com.coursework.story.loadtest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// JDBC statements prepared while serving each route, counted on the request thread
+public class RouteStatements {
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Counts> routes = new ConcurrentHashMap<>();
+
+    static void begin() {
+        CURRENT.set(new int[1]);
+    }
+
+    static void increment() {
+        int[] count = CURRENT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    static int end() {
+        int[] count = CURRENT.get();
+        CURRENT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    void record(String route, int statements) {
+        Counts counts = routes.computeIfAbsent(route, key -> new Counts());
+        counts.requests.increment();
+        counts.statements.add(statements);
+    }
+
+    public double statementsPerRequest(String route) {
+        Counts counts = routes.get(route);
+        if (counts == null || counts.requests.sum() == 0) {
+            return Double.NaN;
+        }
+        return (double) counts.statements.sum() / counts.requests.sum();
+    }
+
+    public void reset() {
+        routes.clear();
+    }
+
+    private static final class Counts {
+        final LongAdder requests = new LongAdder();
+        final LongAdder statements = new LongAdder();
+    }
+}
@@ -0,0 +1,93 @@
+package com.coursework.story.loadtest;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Set;
+
+// Counts at the DataSource so both Hibernate and JdbcTemplate statements are included
+@Configuration
+@Profile("loadtest")
+public class StatementCountingConfig {
+
+    private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+    @Bean
+    public RouteStatements routeStatements() {
+        return new RouteStatements();
+    }
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                        forwarding(dataSource, (method, result) -> method.equals("getConnection")
+                                ? Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                                        new Class<?>[]{Connection.class}, forwarding(result, (inner, statement) -> {
+                                            if (STATEMENT_METHODS.contains(inner)) {
+                                                RouteStatements.increment();
+                                            }
+                                            return statement;
+                                        }))
+                                : result));
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> routeStatementsFilter(RouteStatements routeStatements) {
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain chain) throws ServletException, IOException {
+                RouteStatements.begin();
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    int statements = RouteStatements.end();
+                    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    if (pattern != null) {
+                        routeStatements.record(request.getMethod() + " " + pattern, statements);
+                    }
+                }
+            }
+        });
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    private static InvocationHandler forwarding(Object target, ResultMapper mapper) {
+        return (proxy, method, args) -> {
+            try {
+                return mapper.map(method.getName(), method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private interface ResultMapper {
+        Object map(String method, Object result);
+    }
+}
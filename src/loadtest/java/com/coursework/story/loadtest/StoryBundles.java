@@ -0,0 +1,113 @@
+package com.coursework.story.loadtest;
+
+import com.coursework.story.model.Genre;
+import com.coursework.story.service.StoryBundle;
+import com.coursework.story.service.StoryBundle.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+// Publishable synthetic stories: pages only link forward and the first choice never needs an item or luck
+public class StoryBundles {
+
+    private static final String[] TAGS = {"dragons", "dungeon", "mystery", "space", "pirates", "horror", "quest"};
+
+    private final ObjectMapper objectMapper;
+
+    public StoryBundles(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public byte[] generate(String title, int pageCount, Random random) {
+        List<StoryBundle.Record> records = new ArrayList<>();
+        Genre[] genres = Genre.values();
+        records.add(new Header(StoryBundle.FORMAT, title, "A generated story for load testing", null,
+                List.of(genres[random.nextInt(genres.length)]), Set.of(TAGS[random.nextInt(TAGS.length)]), 1));
+
+        int itemCount = Math.max(1, pageCount / 10);
+        for (long item = 1; item <= itemCount; item++) {
+            records.add(new ItemRecord(item, "Item " + item, "A generated item", null, random.nextInt(3) - 1,
+                    random.nextInt(5) - 2, null));
+        }
+
+        int endings = Math.max(1, pageCount / 20);
+        long choiceId = 1;
+        for (int number = 1; number <= pageCount; number++) {
+            boolean enemy = number > 1 && random.nextInt(8) == 0;
+            records.add(new PageRecord(number, number, "Page " + number, enemy ? "Goblin" : null,
+                    enemy ? 5 + random.nextInt(3) : null, enemy ? 4 + random.nextInt(4) : null, null,
+                    random.nextInt(4) == 0 ? 1 : null, null, number * 120.0, 0.0));
+            records.add(new ParagraphRecord(number, "You reach crossroads number " + number + "."));
+            records.add(new ParagraphRecord(number, "The wind carries the smell of rain and old stone."));
+            if (random.nextInt(6) == 0) {
+                records.add(new GrantedItemRecord(number, 1 + random.nextInt(itemCount)));
+            }
+            if (number > pageCount - endings) {
+                continue;
+            }
+            List<Integer> targets = targets(number, pageCount - endings, pageCount, random);
+            for (int c = 0; c < targets.size(); c++) {
+                int target = targets.get(c);
+                long choice = choiceId++;
+                records.add(new ChoiceRecord(choice, number, "Go to " + target, target,
+                        c > 0 && random.nextInt(6) == 0));
+                if (c > 0 && random.nextInt(5) == 0) {
+                    records.add(new RequiredItemRecord(number, choice, 1 + random.nextInt(itemCount)));
+                }
+            }
+        }
+        return write(sorted(records));
+    }
+
+    // Every page stays reachable: one choice always leads to the next page and the last branching page
+    // leads to every ending
+    private List<Integer> targets(int number, int lastBranching, int pageCount, Random random) {
+        if (number == lastBranching) {
+            return IntStream.rangeClosed(number + 1, pageCount).boxed().toList();
+        }
+        return List.of(number + 1 + random.nextInt(Math.min(lastBranching - number, 10)), number + 1,
+                number + 1 + random.nextInt(Math.min(lastBranching - number, 10)));
+    }
+
+    // Parents first, as the importer expects
+    private List<StoryBundle.Record> sorted(List<StoryBundle.Record> records) {
+        List<StoryBundle.Record> sorted = new ArrayList<>(records);
+        sorted.sort((a, b) -> Integer.compare(rank(a), rank(b)));
+        return sorted;
+    }
+
+    private int rank(StoryBundle.Record record) {
+        return switch (record) {
+            case Header header -> 0;
+            case ItemRecord item -> 1;
+            case PageRecord page -> 2;
+            case ParagraphRecord paragraph -> 3;
+            case ChoiceRecord choice -> 4;
+            case RequiredItemRecord required -> 5;
+            case GrantedItemRecord granted -> 6;
+            case RemovedItemRecord removed -> 7;
+        };
+    }
+
+    private byte[] write(List<StoryBundle.Record> records) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SequenceWriter writer = objectMapper.writerFor(StoryBundle.Record.class)
+                .withRootValueSeparator("\n")
+                .writeValues(new GZIPOutputStream(out))) {
+            for (StoryBundle.Record record : records) {
+                writer.write(record);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,125 @@
+package com.coursework.story.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Weighted reader actions, plus an author loop that imports and publishes new stories
+public class TrafficModel {
+
+    enum ReaderAction {
+        BROWSE_FEED(30), TRENDING(10), READ_STORY(15), PLAY(33), LIKE(6), COMMENT(6);
+
+        final int weight;
+
+        ReaderAction(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final int TOTAL_WEIGHT = 100;
+    private static final int MAX_STEPS_PER_SESSION = 30;
+    private static final int MAX_BATTLE_ROUNDS = 40;
+
+    private final List<Long> storyIds;
+    private final StoryBundles storyBundles;
+    private final int pagesPerStory;
+
+    public TrafficModel(List<Long> storyIds, StoryBundles storyBundles, int pagesPerStory) {
+        this.storyIds = storyIds;
+        this.storyBundles = storyBundles;
+        this.pagesPerStory = pagesPerStory;
+    }
+
+    public void reader(LoadClient client) {
+        int roll = ThreadLocalRandom.current().nextInt(TOTAL_WEIGHT);
+        for (ReaderAction action : ReaderAction.values()) {
+            roll -= action.weight;
+            if (roll < 0) {
+                perform(client, action);
+                return;
+            }
+        }
+    }
+
+    public void author(LoadClient client, String title) {
+        Long storyId = publish(client, title);
+        if (storyId != null) {
+            client.get("GET /api/story/{storyId}/validation", "/api/story/" + storyId + "/validation");
+            storyIds.add(storyId);
+        }
+        client.get("GET /api/story/mine", "/api/story/mine?page=0&size=10");
+    }
+
+    public Long publish(LoadClient client, String title) {
+        byte[] bundle = storyBundles.generate(title, pagesPerStory, new Random(title.hashCode()));
+        JsonNode report = client.post("POST /api/story/bundle", "/api/story/bundle", "application/gzip", bundle);
+        if (report == null) {
+            return null;
+        }
+        long storyId = report.path("storyId").asLong();
+        return client.put("PUT /api/story/publish/{storyId}", "/api/story/publish/" + storyId) == null
+                ? null
+                : storyId;
+    }
+
+    private void perform(LoadClient client, ReaderAction action) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long storyId = storyIds.get(random.nextInt(storyIds.size()));
+        switch (action) {
+            case BROWSE_FEED -> client.get("GET /api/story", "/api/story?page=" + random.nextInt(5) + "&size=20");
+            case TRENDING -> client.get("GET /api/story/trending", "/api/story/trending?page=0&size=20");
+            case READ_STORY -> {
+                client.get("GET /api/story/{storyId}", "/api/story/" + storyId);
+                client.get("GET /api/page/story/{storyId}", "/api/page/story/" + storyId);
+                client.get("GET /api/comments/story/{storyId}", "/api/comments/story/" + storyId + "?page=0&size=10");
+            }
+            case PLAY -> play(client, storyId);
+            case LIKE -> client.post("POST /api/story/like/{storyId}", "/api/story/like/" + storyId);
+            case COMMENT -> {
+                client.post("POST /api/comments/story/{storyId}", "/api/comments/story/" + storyId, "text/plain",
+                        ("Comment " + random.nextInt(1_000_000)).getBytes());
+                client.get("GET /api/comments/story/{storyId}", "/api/comments/story/" + storyId + "?page=0&size=10");
+            }
+        }
+    }
+
+    private void play(LoadClient client, long storyId) {
+        JsonNode playthrough = client.post("POST /api/playthrough/start/{storyId}", "/api/playthrough/start/" + storyId);
+        if (playthrough == null) {
+            return;
+        }
+        long id = playthrough.path("id").asLong();
+        String base = "/api/playthrough/" + id;
+        JsonNode page = client.get("GET /api/playthrough/{playthroughId}/currentPage", base + "/currentPage");
+
+        for (int step = 0; step < MAX_STEPS_PER_SESSION && page != null; step++) {
+            if (playthrough.path("battlePending").asBoolean() && !battle(client, base)) {
+                return;
+            }
+            if (playthrough.path("luckRequired").asBoolean()) {
+                client.get("GET /api/playthrough/{playthroughId}/testLuck", base + "/testLuck");
+            }
+            JsonNode choices = page.path("choices");
+            if (playthrough.path("completed").asBoolean() || choices.isEmpty()) {
+                return;
+            }
+            playthrough = client.post("POST /api/playthrough/{playthroughId}/choice/{choiceId}",
+                    base + "/choice/" + choices.get(0).path("id").asLong());
+            page = playthrough == null ? null : playthrough.path("page");
+        }
+    }
+
+    // Returns false when the reader lost and the playthrough is over
+    private boolean battle(LoadClient client, String base) {
+        JsonNode battle = client.post("POST /api/playthrough/{playthroughId}/battle/start", base + "/battle/start");
+        for (int round = 0; round < MAX_BATTLE_ROUNDS && battle != null && !battle.path("completed").asBoolean(); round++) {
+            client.post("POST /api/playthrough/{playthroughId}/battle/play", base + "/battle/play");
+            battle = client.post("POST /api/playthrough/{playthroughId}/battle/continue", base + "/battle/continue");
+        }
+        JsonNode result = client.post("POST /api/playthrough/{playthroughId}/battle/finish", base + "/battle/finish");
+        return result != null && !result.path("completed").asBoolean();
+    }
+}
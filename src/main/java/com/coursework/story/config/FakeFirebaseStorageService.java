@@ -0,0 +1,31 @@
+package com.coursework.story.config;
+
+import com.coursework.story.service.FirebaseStorageService;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class FakeFirebaseStorageService extends FirebaseStorageService {
+
+    private final Map<String, byte[]> blobs = new ConcurrentHashMap<>();
+
+    @Override
+    public String uploadFile(MultipartFile file, String path) throws IOException {
+        String blobPath = path + "/" + UUID.randomUUID() + "-" + file.getOriginalFilename();
+        blobs.put(blobPath, file.getBytes());
+        return String.format("https://storage.googleapis.com/%s/%s", getBucketName(), blobPath);
+    }
+
+    @Override
+    public void deleteFile(String blobPath) {
+        blobs.remove(blobPath);
+    }
+
+    public Set<String> getBlobPaths() {
+        return Set.copyOf(blobs.keySet());
+    }
+}
@@ -0,0 +1,62 @@
+package com.coursework.story.config;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+public class FakeMailSender extends JavaMailSenderImpl {
+
+    private final Deque<SentMail> sent = new ConcurrentLinkedDeque<>();
+    private final int capacity;
+
+    public FakeMailSender(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+        for (int i = 0; i < mimeMessages.length; i++) {
+            Object original = originalMessages != null ? originalMessages[i] : null;
+            sent.addLast(original instanceof SimpleMailMessage simple ? SentMail.of(simple) : SentMail.of(mimeMessages[i]));
+            while (sent.size() > capacity) {
+                sent.pollFirst();
+            }
+        }
+    }
+
+    public List<SentMail> getSentMessages() {
+        return new ArrayList<>(sent);
+    }
+
+    public void clear() {
+        sent.clear();
+    }
+
+    public record SentMail(List<String> to, String subject, String text) {
+
+        static SentMail of(SimpleMailMessage message) {
+            return new SentMail(message.getTo() == null ? List.of() : Arrays.asList(message.getTo()),
+                    message.getSubject(), message.getText());
+        }
+
+        static SentMail of(MimeMessage message) {
+            try {
+                List<String> to = message.getAllRecipients() == null ? List.of()
+                        : Arrays.stream(message.getAllRecipients()).map(Object::toString).toList();
+                Object content = message.getContent();
+                return new SentMail(to, message.getSubject(), content instanceof String text ? text : null);
+            } catch (MessagingException | IOException e) {
+                throw new MailParseException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.coursework.story.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Counts the SQL statements Hibernate prepares while serving an HTTP request and records them per route
+// when the request completes; requests that never touch Hibernate are not recorded.
+// A sample of requests also keeps per-statement counts: the same SQL prepared many times in one request
+// is an N+1 whose count grows with the size of the result being rendered.
+@Component
+public class HibernateStatementMetrics implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final Logger log = LoggerFactory.getLogger(HibernateStatementMetrics.class);
+    private static final String STATEMENTS_ATTRIBUTE = HibernateStatementMetrics.class.getName() + ".statements";
+    private static final int MAX_REPORTED = 1000;
+
+    private final MeterRegistry meterRegistry;
+    private final double sampleRate;
+    private final int repeatThreshold;
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    public HibernateStatementMetrics(MeterRegistry meterRegistry,
+                                     @Value("${story.app.statements.sampleRate:0.01}") double sampleRate,
+                                     @Value("${story.app.statements.repeatThreshold:10}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = sampleRate;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return sql;
+        }
+
+        RequestStatements statements = (RequestStatements) attributes.getAttribute(STATEMENTS_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (statements == null) {
+            RequestStatements created = new RequestStatements(
+                    sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+            attributes.setAttribute(STATEMENTS_ATTRIBUTE, created, RequestAttributes.SCOPE_REQUEST);
+            attributes.registerDestructionCallback(STATEMENTS_ATTRIBUTE,
+                    () -> record(attributes, created), RequestAttributes.SCOPE_REQUEST);
+            statements = created;
+        }
+        statements.count++;
+        if (statements.repeats != null) {
+            statements.repeats.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    private void record(RequestAttributes attributes, RequestStatements statements) {
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder("story.hibernate.statements")
+                .description("SQL statements prepared by Hibernate per HTTP request")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.count);
+
+        if (statements.repeats == null) {
+            return;
+        }
+        statements.repeats.forEach((sql, times) -> {
+            if (times < repeatThreshold) {
+                return;
+            }
+            meterRegistry.counter("story.hibernate.repeatedStatements", "uri", uri).increment();
+            if (reported.size() < MAX_REPORTED && reported.add(uri + " " + sql)) {
+                log.warn("Possible N+1 on {}: statement prepared {} times out of {} in one request: {}",
+                        uri, times, statements.count, sql);
+            }
+        });
+    }
+
+    private static final class RequestStatements {
+        private final Map<String, Integer> repeats;
+        private int count;
+
+        private RequestStatements(boolean sampled) {
+            this.repeats = sampled ? new HashMap<>() : null;
+        }
+    }
+}
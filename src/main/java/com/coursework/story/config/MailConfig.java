@@ -0,0 +1,16 @@
+package com.coursework.story.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MailConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "story.app.mail.fake", havingValue = "true")
+    public FakeMailSender fakeMailSender(@Value("${story.app.mail.fakeCapacity:100}") int capacity) {
+        return new FakeMailSender(capacity);
+    }
+}
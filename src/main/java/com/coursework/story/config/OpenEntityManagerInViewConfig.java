@@ -0,0 +1,28 @@
+package com.coursework.story.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Replaces Spring Boot's open-in-view (spring.jpa.open-in-view=false) so long-lived async requests can opt out:
+// the interceptor keeps its EntityManager, and the JDBC connection behind it, until an async request completes,
+// which for an SSE stream is the lifetime of the emitter.
+@Configuration
+public class OpenEntityManagerInViewConfig implements WebMvcConfigurer {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public OpenEntityManagerInViewConfig(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(interceptor)
+                .excludePathPatterns("/api/notifications/stream");
+    }
+}
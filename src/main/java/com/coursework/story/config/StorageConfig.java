@@ -0,0 +1,17 @@
+package com.coursework.story.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class StorageConfig {
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "story.app.firebase.fake", havingValue = "true")
+    public FakeFirebaseStorageService fakeFirebaseStorageService() {
+        return new FakeFirebaseStorageService();
+    }
+}
@@ -1,6 +1,7 @@
 package com.coursework.story.controller;
 
 import com.coursework.story.dto.CommentDTO;
+import com.coursework.story.dto.CursorPage;
 import com.coursework.story.dto.PaginatedResponse;
 import com.coursework.story.service.CommentService;
 import org.springframework.data.domain.Page;
@@ -39,6 +40,15 @@ public class CommentController {
         return ResponseEntity.ok(PaginatedResponse.fromPage(page));
     }
 
+    @GetMapping(value = "/story/{storyId}", params = "cursor")
+    public ResponseEntity<CursorPage<CommentDTO>> getCommentsByCursor(
+            @PathVariable Long storyId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "false") boolean approximateCount,
+            Pageable pageable) {
+        return ResponseEntity.ok(commentService.getCommentsByStoryCursor(storyId, cursor, pageable.getPageSize(), approximateCount));
+    }
+
     @GetMapping("/mine")
     public ResponseEntity<PaginatedResponse<CommentDTO>> getUserComments(Pageable pageable) {
         Page<CommentDTO> page = commentService.getUserComments(pageable);
@@ -1,9 +1,13 @@
 package com.coursework.story.controller;
 
 import com.coursework.story.dto.NotificationDTO;
+import com.coursework.story.dto.PaginatedResponse;
 import com.coursework.story.service.NotificationService;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -21,6 +25,21 @@ public class NotificationController {
         return ResponseEntity.ok(notificationService.getNotifications());
     }
 
+    @GetMapping("/history")
+    public PaginatedResponse<NotificationDTO> getNotificationHistory(Pageable pageable) {
+        return PaginatedResponse.fromPage(notificationService.getNotificationHistory(pageable));
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<Long> getUnreadCount() {
+        return ResponseEntity.ok(notificationService.getUnreadCount());
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications() {
+        return notificationService.subscribe();
+    }
+
     @PutMapping("/read")
     public void markReadNotifications(@RequestBody List<Long> notificationIds) {
         notificationService.markAsRead(notificationIds);
@@ -1,11 +1,15 @@
 package com.coursework.story.controller;
 
+import com.coursework.story.dto.PageBatchResult;
 import com.coursework.story.dto.PageDTO;
+import com.coursework.story.dto.PageDiffDTO;
 import com.coursework.story.model.Page;
 import com.coursework.story.service.PageService;
+import com.coursework.story.service.StoryRevisionService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -14,9 +18,11 @@ import java.util.List;
 public class PageController {
 
     private final PageService pageService;
+    private final StoryRevisionService storyRevisionService;
 
-    public PageController(PageService pageService) {
+    public PageController(PageService pageService, StoryRevisionService storyRevisionService) {
         this.pageService = pageService;
+        this.storyRevisionService = storyRevisionService;
     }
 
     @GetMapping("/{pageId}")
@@ -25,13 +31,15 @@ public class PageController {
     }
 
     @GetMapping("/{storyId}/page/{pageNumber}")
-    public ResponseEntity<PageDTO> getPageByStoryAndNumber(@PathVariable Long storyId, @PathVariable int pageNumber) {
-        return ResponseEntity.ok(pageService.getPageByStoryAndNumber(storyId, pageNumber));
+    public ResponseEntity<PageDTO> getPageByStoryAndNumber(@PathVariable Long storyId, @PathVariable int pageNumber,
+                                                           WebRequest request) {
+        return storyRevisionService.content(storyId, request,
+                () -> pageService.getPageByStoryAndNumber(storyId, pageNumber));
     }
 
     @GetMapping("/story/{storyId}")
-    public ResponseEntity<List<PageDTO>> getPagesByStory(@PathVariable Long storyId) {
-        return ResponseEntity.ok(pageService.getPagesByStoryId(storyId));
+    public ResponseEntity<List<PageDTO>> getPagesByStory(@PathVariable Long storyId, WebRequest request) {
+        return storyRevisionService.content(storyId, request, () -> pageService.getPagesByStoryId(storyId));
     }
 
     @GetMapping("/story/{storyId}/map")
@@ -50,6 +58,17 @@ public class PageController {
         return ResponseEntity.status(HttpStatus.CREATED).body(savedPage);
     }
 
+    @PutMapping("/story/{storyId}")
+    public ResponseEntity<List<PageDTO>> savePages(@PathVariable Long storyId, @RequestBody List<PageDTO> pages) {
+        return ResponseEntity.ok(pageService.savePages(storyId, pages));
+    }
+
+    @PatchMapping("/story/{storyId}")
+    public ResponseEntity<PageBatchResult> applyPageDiffs(@PathVariable Long storyId,
+                                                          @RequestBody List<PageDiffDTO> diffs) {
+        return ResponseEntity.ok(pageService.applyPageDiffs(storyId, diffs));
+    }
+
     @DeleteMapping("/{pageId}")
     public ResponseEntity<Void> deletePage(@PathVariable Long pageId) {
         pageService.deletePage(pageId);
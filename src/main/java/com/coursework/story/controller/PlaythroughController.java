@@ -1,5 +1,6 @@
 package com.coursework.story.controller;
 
+import com.coursework.story.dto.CursorPage;
 import com.coursework.story.dto.PageDTO;
 import com.coursework.story.dto.PaginatedResponse;
 import com.coursework.story.dto.PlaythroughDTO;
@@ -77,6 +78,11 @@ public class PlaythroughController {
         return ResponseEntity.ok(playthroughService.getPlaythroughById(playthroughId));
     }
 
+    @GetMapping("/{playthroughId}/path")
+    public ResponseEntity<List<Integer>> getPlaythroughPath(@PathVariable Long playthroughId) {
+        return ResponseEntity.ok(playthroughService.getPlaythroughPath(playthroughId));
+    }
+
     @GetMapping("/story/{storyId}")
     public ResponseEntity<List<PlaythroughDTO>> getUserPlaythroughsForStory(@PathVariable Long storyId) {
         return ResponseEntity.ok(playthroughService.getPlaythroughsForUserAndStory(storyId));
@@ -102,6 +108,16 @@ public class PlaythroughController {
         return PaginatedResponse.fromPage(page);
     }
 
+    @GetMapping(params = "cursor")
+    public CursorPage<PlaythroughDTO> getUserPlaythroughsByCursor(
+            @RequestParam(required = false) String q,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "false") boolean approximateCount,
+            Pageable pageable
+    ) {
+        return playthroughService.getPlaythroughsForUserByCursor(q, cursor, pageable.getPageSize(), approximateCount);
+    }
+
     @DeleteMapping("/{playthroughId}")
     public ResponseEntity<Void> deletePlaythrough(@PathVariable Long playthroughId) {
         playthroughService.deletePlaythrough(playthroughId);
@@ -1,20 +1,29 @@
 package com.coursework.story.controller;
 
 import com.coursework.story.dto.*;
+import com.coursework.story.exception.BadRequestException;
 import com.coursework.story.model.Genre;
 import com.coursework.story.model.Story;
+import com.coursework.story.service.StoryBundleService;
+import com.coursework.story.service.StoryGraph;
+import com.coursework.story.service.StoryRevisionService;
 import com.coursework.story.service.StoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -24,6 +33,12 @@ public class StoryController {
     @Autowired
     StoryService storyService;
 
+    @Autowired
+    StoryRevisionService storyRevisionService;
+
+    @Autowired
+    StoryBundleService storyBundleService;
+
     @GetMapping
     public PaginatedResponse<StoryDTO> searchStories(
             @RequestParam(value = "q", required = false) String query,
@@ -35,6 +50,18 @@ public class StoryController {
         return PaginatedResponse.fromPage(result);
     }
 
+    @GetMapping(params = "cursor")
+    public CursorPage<StoryDTO> getStoriesByCursor(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "false") boolean approximateCount,
+            Pageable pageable) {
+        if (query != null && !query.isBlank()) {
+            throw new BadRequestException("Cursor pagination is not supported for search");
+        }
+        return storyService.getStoriesByCursor(cursor, pageable.getPageSize(), approximateCount);
+    }
+
     @GetMapping("/liked")
     public PaginatedResponse<StoryDTO> getLikedStories(Pageable pageable) {
         Page<StoryDTO> page = storyService.getLikedStories(pageable);
@@ -60,8 +87,8 @@ public class StoryController {
     }
 
     @GetMapping("/{storyId}")
-    public StoryDTO getStoryById(@PathVariable Long storyId) {
-        return storyService.getStoryById(storyId);
+    public ResponseEntity<StoryDTO> getStoryById(@PathVariable Long storyId, WebRequest request) {
+        return storyRevisionService.story(storyId, request, () -> storyService.getStoryById(storyId));
     }
 
     @GetMapping("/preview/{storyId}")
@@ -117,6 +144,11 @@ public class StoryController {
         return storyService.copyStoryAsDraft(storyId);
     }
 
+    @GetMapping("/{storyId}/validation")
+    public StoryGraph.Report getStoryValidation(@PathVariable Long storyId) {
+        return storyService.getStoryValidation(storyId);
+    }
+
     @PutMapping("/publish/{storyId}")
     public ResponseEntity<StoryDTO> publishStory(@PathVariable Long storyId) {
         StoryDTO publishedStory = storyService.publishStory(storyId);
@@ -140,6 +172,23 @@ public class StoryController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/{storyId}/bundle")
+    public ResponseEntity<StreamingResponseBody> exportStoryBundle(@PathVariable Long storyId) {
+        StreamingResponseBody bundle = storyBundleService.exportBundle(storyId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("story-" + storyId + ".jsonl.gz")
+                        .build()
+                        .toString())
+                .body(bundle);
+    }
+
+    @PostMapping(value = "/bundle", consumes = {"application/gzip", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<StoryBundleService.ImportReport> importStoryBundle(InputStream bundle) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(storyBundleService.importBundle(bundle));
+    }
+
     @PostMapping("/like/{storyId}")
     public ResponseEntity<LikeResponse> likeStory(@PathVariable Long storyId) {
         return ResponseEntity.ok(storyService.toggleLikeStory(storyId));
@@ -0,0 +1,70 @@
+package com.coursework.story.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+    private Long approximateTotal;
+
+    public CursorPage() {}
+
+    public CursorPage(List<T> content, int size, String nextCursor, boolean hasNext, Long approximateTotal) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+        this.approximateTotal = approximateTotal;
+    }
+
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, PageCursor> cursorOf,
+                                          Function<List<E>, List<T>> mapper, Long approximateTotal) {
+        boolean hasNext = rows.size() > size;
+        List<E> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+        return new CursorPage<>(mapper.apply(content), size, nextCursor, hasNext, approximateTotal);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public Long getApproximateTotal() {
+        return approximateTotal;
+    }
+
+    public void setApproximateTotal(Long approximateTotal) {
+        this.approximateTotal = approximateTotal;
+    }
+}
@@ -0,0 +1,29 @@
+package com.coursework.story.dto;
+
+public class PageBatchResult {
+    private int updated;
+    private int moved;
+
+    public PageBatchResult() {}
+
+    public PageBatchResult(int updated, int moved) {
+        this.updated = updated;
+        this.moved = moved;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public int getMoved() {
+        return moved;
+    }
+
+    public void setMoved(int moved) {
+        this.moved = moved;
+    }
+}
@@ -0,0 +1,83 @@
+package com.coursework.story.dto;
+
+import com.coursework.story.model.Choice;
+
+import java.util.List;
+import java.util.Set;
+
+public class PageDiffDTO {
+    private Long id;
+    private String title;
+    private List<String> paragraphs;
+    private List<Choice> choices;
+    private Set<Long> itemsGranted;
+    private Set<Long> itemsRemoved;
+    private Double positionX;
+    private Double positionY;
+
+    public PageDiffDTO() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public List<String> getParagraphs() {
+        return paragraphs;
+    }
+
+    public void setParagraphs(List<String> paragraphs) {
+        this.paragraphs = paragraphs;
+    }
+
+    public List<Choice> getChoices() {
+        return choices;
+    }
+
+    public void setChoices(List<Choice> choices) {
+        this.choices = choices;
+    }
+
+    public Set<Long> getItemsGranted() {
+        return itemsGranted;
+    }
+
+    public void setItemsGranted(Set<Long> itemsGranted) {
+        this.itemsGranted = itemsGranted;
+    }
+
+    public Set<Long> getItemsRemoved() {
+        return itemsRemoved;
+    }
+
+    public void setItemsRemoved(Set<Long> itemsRemoved) {
+        this.itemsRemoved = itemsRemoved;
+    }
+
+    public Double getPositionX() {
+        return positionX;
+    }
+
+    public void setPositionX(Double positionX) {
+        this.positionX = positionX;
+    }
+
+    public Double getPositionY() {
+        return positionY;
+    }
+
+    public void setPositionY(Double positionY) {
+        this.positionY = positionY;
+    }
+}
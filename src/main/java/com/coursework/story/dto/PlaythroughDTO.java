@@ -16,6 +16,7 @@ public class PlaythroughDTO {
     private Long storyId;
     private Integer currentPage;
     private List<Integer> path;
+    private int pathLength;
     private LocalDateTime lastVisited;
     private LocalDateTime startedAt;
     private PageDTO page;
@@ -32,7 +33,7 @@ public class PlaythroughDTO {
     public PlaythroughDTO(Playthrough playthrough) {
         id = playthrough.getId();
         currentPage = playthrough.getCurrentPage().getPageNumber();
-        path = playthrough.getPath();
+        pathLength = playthrough.getPathLength();
         lastVisited = playthrough.getLastVisited();
         startedAt = playthrough.getStartedAt();
         completed = playthrough.isCompleted();
@@ -53,7 +54,7 @@ public class PlaythroughDTO {
     public PlaythroughDTO(Playthrough playthrough, Page page) {
         id = playthrough.getId();
         currentPage = playthrough.getCurrentPage().getPageNumber();
-        path = playthrough.getPath();
+        pathLength = playthrough.getPathLength();
         lastVisited = playthrough.getLastVisited();
         startedAt = playthrough.getStartedAt();
         completed = playthrough.isCompleted();
@@ -72,6 +73,28 @@ public class PlaythroughDTO {
         this.page = new PageDTO(page);
     }
 
+    public PlaythroughDTO(Playthrough playthrough, int currentPageNumber, int pageCount, PageDTO page) {
+        id = playthrough.getId();
+        currentPage = currentPageNumber;
+        pathLength = playthrough.getPathLength();
+        lastVisited = playthrough.getLastVisited();
+        startedAt = playthrough.getStartedAt();
+        completed = playthrough.isCompleted();
+        active = playthrough.isActive();
+        stats = playthrough.getStats();
+        luckRequired = playthrough.isLuckRequired();
+        luckPassed = playthrough.isLuckPassed();
+        inventory = playthrough.getInventory().stream().map(ItemDTO::new).collect(Collectors.toSet());
+        battlePending = playthrough.isBattlePending();
+        battle = playthrough.getBattle();
+        story = new StoryDTO();
+        story.setId(playthrough.getStory().getId());
+        story.setTitle(playthrough.getStory().getTitle());
+        story.setPageCount(pageCount);
+        story.setCoverImageUrl(playthrough.getStory().getCoverImageUrl());
+        this.page = page;
+    }
+
     public Long getId() {
         return id;
     }
@@ -104,6 +127,14 @@ public class PlaythroughDTO {
         this.path = path;
     }
 
+    public int getPathLength() {
+        return pathLength;
+    }
+
+    public void setPathLength(int pathLength) {
+        this.pathLength = pathLength;
+    }
+
     public LocalDateTime getLastVisited() {
         return lastVisited;
     }
@@ -56,6 +56,29 @@ public class StoryDTO {
         reads = story.getReads();
     }
 
+    public StoryDTO(StoryDTO other) {
+        id = other.id;
+        title = other.title;
+        pages = other.pages;
+        user = other.user;
+        coverImageUrl = other.coverImageUrl;
+        genres = other.genres;
+        tags = other.tags;
+        description = other.description;
+        pageCount = other.pageCount;
+        startPageNumber = other.startPageNumber;
+        status = other.status;
+        version = other.version;
+        originalStoryId = other.originalStoryId;
+        isLiked = other.isLiked;
+        isFavorite = other.isFavorite;
+        createdAt = other.createdAt;
+        updatedAt = other.updatedAt;
+        likes = other.likes;
+        favorites = other.favorites;
+        reads = other.reads;
+    }
+
     public StoryDTO(Story story, boolean isLiked, boolean isFavorite) {
         id = story.getId();
         title = story.getTitle();
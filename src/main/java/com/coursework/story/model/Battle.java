@@ -28,6 +28,7 @@ public class Battle {
     private boolean lastRoundLuckUsed;
     private boolean completed;
     private boolean playerWon;
+    private int rounds;
 
     @OneToOne
     @JoinColumn(name = "playthrough_id", nullable = false, unique = true)
@@ -163,6 +164,14 @@ public class Battle {
         this.playerWon = playerWon;
     }
 
+    public int getRounds() {
+        return rounds;
+    }
+
+    public void setRounds(int rounds) {
+        this.rounds = rounds;
+    }
+
     public Playthrough getPlaythrough() {
         return playthrough;
     }
@@ -2,11 +2,19 @@ package com.coursework.story.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity(name = "choices")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "choice")
+@Table(indexes = {
+        @Index(name = "idx_choices_page_source", columnList = "page_id, source_id"),
+        @Index(name = "idx_choices_target_page", columnList = "target_page, page_id")
+})
 public class Choice {
 
     @Id
@@ -27,10 +35,14 @@ public class Choice {
             joinColumns = @JoinColumn(name = "choice_id"),
             inverseJoinColumns = @JoinColumn(name = "item_id")
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "choice-required-items")
     private Set<Item> requiredItems = new HashSet<>();
 
     private boolean requiresLuckCheck;
 
+    @Column(name = "source_id")
+    private Long sourceId;
+
     public Choice() {}
 
     public Choice(String text, Integer targetPage) {
@@ -91,4 +103,12 @@ public class Choice {
     public void setRequiresLuckCheck(boolean requiresLuckCheck) {
         this.requiresLuckCheck = requiresLuckCheck;
     }
-}
\ No newline at end of file
+
+    public Long getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(Long sourceId) {
+        this.sourceId = sourceId;
+    }
+}
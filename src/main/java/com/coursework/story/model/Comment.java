@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_comment_story_created", columnList = "story_id, created_at, id"))
 public class Comment {
 
     @Id
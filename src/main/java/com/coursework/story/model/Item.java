@@ -2,10 +2,15 @@ package com.coursework.story.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Objects;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item")
+@Table(indexes = @Index(name = "idx_item_story_source", columnList = "story_id, source_id"))
 public class Item {
 
     @Id
@@ -24,6 +29,9 @@ public class Item {
     @JsonBackReference
     private Story story;
 
+    @Column(name = "source_id")
+    private Long sourceId;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -84,4 +92,12 @@ public class Item {
     public void setStory(Story story) {
         this.story = story;
     }
-}
\ No newline at end of file
+
+    public Long getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(Long sourceId) {
+        this.sourceId = sourceId;
+    }
+}
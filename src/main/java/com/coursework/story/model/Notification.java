@@ -5,7 +5,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_recipient_timestamp", columnList = "recipient_id, timestamp"),
+        @Index(name = "idx_notifications_recipient_read", columnList = "recipient_id, read")
+})
 public class Notification {
 
     @Id
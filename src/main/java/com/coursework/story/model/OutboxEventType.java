@@ -0,0 +1,7 @@
+package com.coursework.story.model;
+
+public enum OutboxEventType {
+    NOTIFICATION,
+    VERIFICATION_EMAIL,
+    PASSWORD_RESET_EMAIL
+}
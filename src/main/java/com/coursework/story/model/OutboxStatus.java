@@ -0,0 +1,5 @@
+package com.coursework.story.model;
+
+public enum OutboxStatus {
+    PENDING, PROCESSING, FAILED
+}
@@ -3,6 +3,8 @@ package com.coursework.story.model;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -10,6 +12,9 @@ import java.util.List;
 import java.util.Set;
 
 @Entity(name = "pages")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "page")
+@Table(indexes = @Index(name = "idx_pages_story_source", columnList = "story_id, source_id"))
 public class Page {
 
     @Id
@@ -28,23 +33,28 @@ public class Page {
 
     @ElementCollection
     @CollectionTable(name = "page_paragraphs", joinColumns = @JoinColumn(name = "page_id"))
+    @OrderColumn(name = "paragraph_order")
     @Column(name = "paragraph", length = 2000)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "page-paragraphs")
     private List<String> paragraphs;
 
     @OneToMany(mappedBy = "page", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "page-choices")
     private List<Choice> choices = new ArrayList<>();
 
     @ManyToMany
     @JoinTable(name = "page_granted_items",
             joinColumns = @JoinColumn(name = "page_id"),
             inverseJoinColumns = @JoinColumn(name = "item_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "page-items-granted")
     private Set<Item> itemsGranted = new HashSet<>();
 
     @ManyToMany
     @JoinTable(name = "page_removed_items",
             joinColumns = @JoinColumn(name = "page_id"),
             inverseJoinColumns = @JoinColumn(name = "item_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "page-items-removed")
     private Set<Item> itemsRemoved = new HashSet<>();
 
     @Embedded
@@ -59,6 +69,9 @@ public class Page {
     @Column(name = "position_y")
     private Double positionY;
 
+    @Column(name = "source_id")
+    private Long sourceId;
+
     public Long getId() {
         return id;
     }
@@ -169,4 +182,12 @@ public class Page {
     public void setStatModifiers(StatModifiers statModifiers) {
         this.statModifiers = statModifiers;
     }
+
+    public Long getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(Long sourceId) {
+        this.sourceId = sourceId;
+    }
 }
@@ -0,0 +1,68 @@
+package com.coursework.story.model;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public final class PathCodec {
+
+    private PathCodec() {
+    }
+
+    public static byte[] encode(List<Integer> pages) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(pages.size() * 2);
+        int previous = 0;
+        for (int page : pages) {
+            writeVarint(out, zigzag(page - previous));
+            previous = page;
+        }
+        return out.toByteArray();
+    }
+
+    public static byte[] append(byte[] data, int previous, int page) {
+        ByteArrayOutputStream step = new ByteArrayOutputStream(5);
+        writeVarint(step, zigzag(page - previous));
+        byte[] encoded = step.toByteArray();
+
+        byte[] base = data == null ? new byte[0] : data;
+        byte[] result = Arrays.copyOf(base, base.length + encoded.length);
+        System.arraycopy(encoded, 0, result, base.length, encoded.length);
+        return result;
+    }
+
+    public static List<Integer> decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            return Collections.emptyList();
+        }
+        List<Integer> pages = new ArrayList<>(data.length);
+        int previous = 0;
+        int value = 0;
+        int shift = 0;
+        for (byte b : data) {
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) != 0) {
+                shift += 7;
+                continue;
+            }
+            previous += (value >>> 1) ^ -(value & 1);
+            pages.add(previous);
+            value = 0;
+            shift = 0;
+        }
+        return Collections.unmodifiableList(pages);
+    }
+
+    private static int zigzag(int delta) {
+        return (delta << 1) ^ (delta >> 31);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
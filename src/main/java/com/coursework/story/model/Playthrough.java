@@ -4,13 +4,21 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 @Entity
+@Table(indexes = @Index(name = "idx_playthrough_user_visited", columnList = "user_id, last_visited, id"))
 public class Playthrough {
 
+    // MEDIUMBLOB capacity; a longer length would map path_data to LONGBLOB
+    public static final int MAX_PATH_BYTES = 16_777_215;
+
+    // Longest varint a single path step can encode to
+    private static final int MAX_STEP_BYTES = 5;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -27,8 +35,20 @@ public class Playthrough {
     @JoinColumn(name = "current_page_id")
     private Page currentPage;
 
-    @ElementCollection
-    private List<Integer> path;
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "playthrough_path", joinColumns = @JoinColumn(name = "playthrough_id"))
+    @Column(name = "path")
+    private List<Integer> legacyPath = new ArrayList<>();
+
+    @Lob
+    @Column(name = "path_data", length = MAX_PATH_BYTES)
+    private byte[] pathData;
+
+    @Column(name = "path_length", nullable = false)
+    private int pathLength;
+
+    @Column(name = "path_last_page")
+    private Integer pathLastPage;
 
     private LocalDateTime lastVisited;
 
@@ -88,11 +108,38 @@ public class Playthrough {
     }
 
     public List<Integer> getPath() {
-        return path;
+        if (pathData == null) {
+            return List.copyOf(legacyPath);
+        }
+        return PathCodec.decode(pathData);
     }
 
     public void setPath(List<Integer> path) {
-        this.path = path;
+        this.pathData = PathCodec.encode(path);
+        this.pathLength = path.size();
+        this.pathLastPage = path.isEmpty() ? null : path.getLast();
+        this.legacyPath.clear();
+    }
+
+    public void appendToPath(int pageNumber) {
+        if (pathData == null) {
+            setPath(List.copyOf(legacyPath));
+        }
+        byte[] appended = PathCodec.append(pathData, pathLastPage == null ? 0 : pathLastPage, pageNumber);
+        if (appended.length > MAX_PATH_BYTES) {
+            throw new IllegalStateException("Playthrough path exceeds " + MAX_PATH_BYTES + " bytes");
+        }
+        pathData = appended;
+        pathLength++;
+        pathLastPage = pageNumber;
+    }
+
+    public boolean isPathFull() {
+        return pathData != null && pathData.length > MAX_PATH_BYTES - MAX_STEP_BYTES;
+    }
+
+    public int getPathLength() {
+        return pathData == null ? legacyPath.size() : pathLength;
     }
 
     public LocalDateTime getLastVisited() {
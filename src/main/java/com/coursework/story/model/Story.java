@@ -2,6 +2,8 @@ package com.coursework.story.model;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -9,6 +11,9 @@ import java.time.LocalDateTime;
 import java.util.*;
 
 @Entity(name = "stories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "story")
+@Table(indexes = @Index(name = "idx_stories_status_created", columnList = "status, created_at, id"))
 public class Story {
 
     @Id
@@ -23,20 +28,24 @@ public class Story {
 
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "story", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "story-pages")
     private List<Page> pages = new ArrayList<>();
 
     private String coverImageUrl;
 
     @ElementCollection(fetch = FetchType.EAGER)
     @Enumerated(EnumType.STRING)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "story-genres")
     private List<Genre> genres = new ArrayList<>();
 
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "story_tags", joinColumns = @JoinColumn(name = "story_id"))
     @Column(name = "tag")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "story-tags")
     private Set<String> tags = new HashSet<>();
 
     @OneToMany(mappedBy = "story", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "story-items")
     private List<Item> items = new ArrayList<>();
 
     @Column(length = 1000)
@@ -67,10 +76,13 @@ public class Story {
     @OneToMany(mappedBy = "story", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> comments = new ArrayList<>();
 
+    @Column(updatable = false)
     private int likes;
 
+    @Column(updatable = false)
     private int favorites;
 
+    @Column(updatable = false)
     private int reads;
 
     @CreationTimestamp
@@ -97,26 +109,6 @@ public class Story {
         return pageNumber;
     }
 
-    public void incrementLikes() {
-        this.likes++;
-    }
-
-    public void decrementLikes() {
-        this.likes = Math.max(0, this.likes - 1);
-    }
-
-    public void incrementFavorites() {
-        this.favorites++;
-    }
-
-    public void decrementFavorites() {
-        this.favorites = Math.max(0, this.favorites - 1);
-    }
-
-    public void incrementReads() {
-        this.reads++;
-    }
-
     public String getTitle() {
         return title;
     }
@@ -2,10 +2,49 @@ package com.coursework.story.repository;
 
 import com.coursework.story.model.Choice;
 import com.coursework.story.model.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface ChoiceRepository extends JpaRepository<Choice, Long> {
     Optional<Choice> findByIdAndPage(Long choiceId, Page page);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "`choice_required_items`"))
+    @Query(value = "DELETE cri FROM choice_required_items cri " +
+            "JOIN choices c ON c.id = cri.choice_id " +
+            "JOIN pages p ON p.id = c.page_id " +
+            "WHERE c.target_page = :targetPage AND p.story_id = :storyId", nativeQuery = true)
+    int deleteRequiredItemsTargeting(@Param("storyId") Long storyId, @Param("targetPage") int targetPage);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "`choices`"))
+    @Query(value = "DELETE c FROM choices c " +
+            "JOIN pages p ON p.id = c.page_id " +
+            "WHERE c.target_page = :targetPage AND p.story_id = :storyId", nativeQuery = true)
+    int deleteTargeting(@Param("storyId") Long storyId, @Param("targetPage") int targetPage);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "`choices`"))
+    @Query(value = "INSERT INTO choices (text, target_page, requires_luck_check, page_id, source_id) " +
+            "SELECT c.text, c.target_page, c.requires_luck_check, np.id, c.id FROM pages np " +
+            "JOIN choices c ON c.page_id = np.source_id " +
+            "WHERE np.story_id = :targetStoryId ORDER BY c.id", nativeQuery = true)
+    int cloneChoices(@Param("targetStoryId") Long targetStoryId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "`choice_required_items`"))
+    @Query(value = "INSERT INTO choice_required_items (choice_id, item_id) " +
+            "SELECT nc.id, ni.id FROM pages np " +
+            "JOIN choices nc ON nc.page_id = np.id " +
+            "JOIN choice_required_items cri ON cri.choice_id = nc.source_id " +
+            "JOIN item ni ON ni.source_id = cri.item_id AND ni.story_id = :targetStoryId " +
+            "WHERE np.story_id = :targetStoryId", nativeQuery = true)
+    int cloneRequiredItems(@Param("targetStoryId") Long targetStoryId);
 }
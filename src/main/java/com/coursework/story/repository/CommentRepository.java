@@ -1,9 +1,14 @@
 package com.coursework.story.repository;
 
 import com.coursework.story.model.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
@@ -11,4 +16,14 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     Page<Comment> findByStoryIdOrderByCreatedAt(Long storyId, Pageable pageable);
     Page<Comment> findByUserId(Long userId, Pageable pageable);
-}
\ No newline at end of file
+    long countByStoryId(Long storyId);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.story.id = :storyId ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findByStoryIdSeek(@Param("storyId") Long storyId, Limit limit);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.story.id = :storyId " +
+            "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) " +
+            "ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findByStoryIdSeekAfter(@Param("storyId") Long storyId, @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id, Limit limit);
+}
@@ -1,24 +1,39 @@
 package com.coursework.story.repository;
 
 import com.coursework.story.model.Item;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByStoryId(Long id);
 
+    List<Item> findAllByStoryIdAndIdIn(Long storyId, Collection<Long> ids);
+
     @Modifying
     @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "`page_granted_items`"))
     @Query(value = "DELETE FROM page_granted_items WHERE item_id = :itemId", nativeQuery = true)
     void removeFromGrantedPages(@Param("itemId") Long itemId);
 
     @Modifying
     @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "`page_removed_items`"))
     @Query(value = "DELETE FROM page_removed_items WHERE item_id = :itemId", nativeQuery = true)
     void removeFromRemovedPages(@Param("itemId") Long itemId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "`item`"))
+    @Query(value = "INSERT INTO item (name, description, icon, skill, stamina, luck, story_id, source_id) " +
+            "SELECT i.name, i.description, i.icon, i.skill, i.stamina, i.luck, :targetStoryId, i.id " +
+            "FROM item i WHERE i.story_id = :sourceStoryId ORDER BY i.id", nativeQuery = true)
+    int cloneItems(@Param("sourceStoryId") Long sourceStoryId, @Param("targetStoryId") Long targetStoryId);
 }
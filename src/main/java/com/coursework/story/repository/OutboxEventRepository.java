@@ -0,0 +1,33 @@
+package com.coursework.story.repository;
+
+import com.coursework.story.model.OutboxEvent;
+import com.coursework.story.model.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query(value = "SELECT * FROM outbox_events " +
+            "WHERE status IN ('PENDING', 'PROCESSING') AND available_at <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> findDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'PROCESSING', e.attempts = e.attempts + 1, e.availableAt = :leaseUntil " +
+            "WHERE e.id IN :ids")
+    void markProcessing(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.availableAt = :availableAt, e.lastError = :error " +
+            "WHERE e.id = :id")
+    void reschedule(@Param("id") Long id, @Param("status") OutboxStatus status,
+                    @Param("availableAt") LocalDateTime availableAt, @Param("error") String error);
+
+    long countByStatus(OutboxStatus status);
+}
@@ -0,0 +1,4 @@
+package com.coursework.story.repository;
+
+public record PageEdgeRow(Long pageId, int pageNumber, Integer targetPage) {
+}
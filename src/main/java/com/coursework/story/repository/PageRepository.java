@@ -1,20 +1,70 @@
 package com.coursework.story.repository;
 
 import com.coursework.story.model.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface PageRepository extends JpaRepository<Page, Long> {
     List<Page> findByStoryId(Long storyId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Page> findByStoryIdAndPageNumber(Long storyId, int pageNumber);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Page> findAllByStoryIdOrderByPageNumber(Long storyId);
 
     List<Page> findAllByStoryId(Long storyId);
 
     boolean existsByStoryIdAndPageNumber(Long storyId, int pageNumber);
 
+    long countByStoryIdAndIdIn(Long storyId, Collection<Long> ids);
+
+    @Query("SELECT new com.coursework.story.repository.PageEdgeRow(p.id, p.pageNumber, c.targetPage) " +
+            "FROM pages p LEFT JOIN p.choices c WHERE p.story.id = :storyId")
+    List<PageEdgeRow> findEdgeRowsByStoryId(@Param("storyId") Long storyId);
+
+    // Native spaces must match Hibernate's table names as quoted for MySQL, or the update evicts no cache region
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "`pages`"))
+    @Query(value = "INSERT INTO pages (title, page_number, story_id, enemy_name, enemy_skill, enemy_stamina, " +
+            "skill, stamina, luck, position_x, position_y, source_id) " +
+            "SELECT p.title, p.page_number, :targetStoryId, p.enemy_name, p.enemy_skill, p.enemy_stamina, " +
+            "p.skill, p.stamina, p.luck, p.position_x, p.position_y, p.id " +
+            "FROM pages p WHERE p.story_id = :sourceStoryId ORDER BY p.id", nativeQuery = true)
+    int clonePages(@Param("sourceStoryId") Long sourceStoryId, @Param("targetStoryId") Long targetStoryId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "`page_paragraphs`"))
+    @Query(value = "INSERT INTO page_paragraphs (page_id, paragraph, paragraph_order) " +
+            "SELECT np.id, pp.paragraph, pp.paragraph_order FROM pages np " +
+            "JOIN page_paragraphs pp ON pp.page_id = np.source_id " +
+            "WHERE np.story_id = :targetStoryId", nativeQuery = true)
+    int cloneParagraphs(@Param("targetStoryId") Long targetStoryId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "`page_granted_items`"))
+    @Query(value = "INSERT INTO page_granted_items (page_id, item_id) " +
+            "SELECT np.id, ni.id FROM pages np " +
+            "JOIN page_granted_items pgi ON pgi.page_id = np.source_id " +
+            "JOIN item ni ON ni.source_id = pgi.item_id AND ni.story_id = :targetStoryId " +
+            "WHERE np.story_id = :targetStoryId", nativeQuery = true)
+    int cloneGrantedItems(@Param("targetStoryId") Long targetStoryId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "`page_removed_items`"))
+    @Query(value = "INSERT INTO page_removed_items (page_id, item_id) " +
+            "SELECT np.id, ni.id FROM pages np " +
+            "JOIN page_removed_items pri ON pri.page_id = np.source_id " +
+            "JOIN item ni ON ni.source_id = pri.item_id AND ni.story_id = :targetStoryId " +
+            "WHERE np.story_id = :targetStoryId", nativeQuery = true)
+    int cloneRemovedItems(@Param("targetStoryId") Long targetStoryId);
 }
@@ -3,6 +3,7 @@ package com.coursework.story.repository;
 import com.coursework.story.model.Playthrough;
 import com.coursework.story.model.Story;
 import com.coursework.story.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,12 +11,18 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface PlaythroughRepository extends JpaRepository<Playthrough, Long> {
     List<Playthrough> findByUserAndStory(User user, Story story);
     List<Playthrough> findByUserAndStoryOrderByLastVisitedDesc(User user, Story story);
-    Page<Playthrough> findByUser(User user, Pageable pageable);
+
+    // battle is the inverse side of a one-to-one and cannot be proxied, so list queries fetch it in the same join
+    @Query(value = "SELECT p FROM Playthrough p LEFT JOIN FETCH p.battle WHERE p.user = :user",
+            countQuery = "SELECT COUNT(p) FROM Playthrough p WHERE p.user = :user")
+    Page<Playthrough> findByUser(@Param("user") User user, Pageable pageable);
+
     void deleteByStory(Story story);
     long countByUserAndStory(User user, Story story);
     boolean existsByCurrentPage(com.coursework.story.model.Page page);
@@ -23,6 +30,26 @@ public interface PlaythroughRepository extends JpaRepository<Playthrough, Long>
     @Query("UPDATE Playthrough p SET p.active = false WHERE p.user = :user AND p.story = :story AND p.active = true")
     void deactivatePlaythroughsForUserAndStory(@Param("user") User user, @Param("story") Story story);
 
-    @Query("SELECT p FROM Playthrough p WHERE p.user = :user AND LOWER(p.story.title) LIKE LOWER(CONCAT('%', :query, '%'))")
+    @Query(value = "SELECT p FROM Playthrough p LEFT JOIN FETCH p.battle " +
+            "WHERE p.user = :user AND LOWER(p.story.title) LIKE LOWER(CONCAT('%', :query, '%'))",
+            countQuery = "SELECT COUNT(p) FROM Playthrough p " +
+                    "WHERE p.user = :user AND LOWER(p.story.title) LIKE LOWER(CONCAT('%', :query, '%'))")
     Page<Playthrough> searchByUserAndStoryTitle(@Param("user") User user, @Param("query") String query, Pageable pageable);
-}
\ No newline at end of file
+
+    @Query("SELECT COUNT(p) FROM Playthrough p WHERE p.user = :user " +
+            "AND (:query IS NULL OR LOWER(p.story.title) LIKE LOWER(CONCAT('%', :query, '%')))")
+    long countByUserAndStoryTitle(@Param("user") User user, @Param("query") String query);
+
+    @Query("SELECT p FROM Playthrough p LEFT JOIN FETCH p.battle WHERE p.user = :user " +
+            "AND (:query IS NULL OR LOWER(p.story.title) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+            "ORDER BY p.lastVisited DESC, p.id DESC")
+    List<Playthrough> findByUserSeek(@Param("user") User user, @Param("query") String query, Limit limit);
+
+    @Query("SELECT p FROM Playthrough p LEFT JOIN FETCH p.battle WHERE p.user = :user " +
+            "AND (:query IS NULL OR LOWER(p.story.title) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+            "AND (p.lastVisited < :lastVisited OR (p.lastVisited = :lastVisited AND p.id < :id)) " +
+            "ORDER BY p.lastVisited DESC, p.id DESC")
+    List<Playthrough> findByUserSeekAfter(@Param("user") User user, @Param("query") String query,
+                                          @Param("lastVisited") LocalDateTime lastVisited, @Param("id") Long id,
+                                          Limit limit);
+}
@@ -0,0 +1,6 @@
+package com.coursework.story.repository;
+
+import com.coursework.story.model.Genre;
+
+public record StoryGenreRow(Long storyId, Genre genre) {
+}
@@ -0,0 +1,11 @@
+package com.coursework.story.repository;
+
+import com.coursework.story.model.StoryStatus;
+
+import java.time.LocalDateTime;
+
+public record StoryListRow(Long id, String title, String coverImageUrl, String description, Long pageCount,
+                           Integer startPageNumber, StoryStatus status, int version, Long originalStoryId,
+                           LocalDateTime createdAt, LocalDateTime updatedAt, int likes, int favorites, int reads,
+                           String username, String userImageUrl) {
+}
@@ -2,6 +2,7 @@ package com.coursework.story.repository;
 
 import com.coursework.story.model.Story;
 import com.coursework.story.model.StoryStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,40 +10,78 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface StoryRepository extends JpaRepository<Story, Long> {
-    List<Story> findAllByUserUsernameOrderByCreatedAt(String username);
+    @Query("SELECT s.id FROM stories s WHERE s.user.username = :username AND s.status = :status " +
+            "ORDER BY s.createdAt")
+    List<Long> findIdsByUsernameAndStatusOrderByCreatedAt(@Param("username") String username,
+                                                          @Param("status") StoryStatus status);
 
-    Page<Story> findAllByStatus(StoryStatus status, Pageable pageable);
+    @Query("SELECT s.id FROM stories s WHERE s.status = :status")
+    Page<Long> findIdsByStatus(@Param("status") StoryStatus status, Pageable pageable);
 
-    @Query("SELECT s FROM stories s " +
-            "WHERE s.status = 'PUBLISHED' AND (" +
-            "LOWER(s.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
-            "OR LOWER(s.description) LIKE LOWER(CONCAT('%', :query, '%')) " +
-            "OR EXISTS (SELECT t FROM s.tags t WHERE LOWER(t) LIKE LOWER(CONCAT('%', :query, '%'))))")
-    Page<Story> searchByTitleOrTagsOrDescription(@Param("query") String query, Pageable pageable);
+    long countByStatus(StoryStatus status);
 
-    @Query("SELECT s FROM stories  s JOIN s.likedByUsers u WHERE u.id = :userId AND s.status IN ('PUBLISHED', 'ARCHIVED')")
-    Page<Story> findStoriesLikedByUserId(@Param("userId") Long userId, Pageable pageable);
+    @Query("SELECT s.id FROM stories s WHERE s.status = :status ORDER BY s.createdAt DESC, s.id DESC")
+    List<Long> findIdsByStatusSeek(@Param("status") StoryStatus status, Limit limit);
 
-    @Query("SELECT s FROM stories s JOIN s.favoriteByUsers u WHERE u.id = :userId AND s.status IN ('PUBLISHED', 'ARCHIVED')")
-    Page<Story> findStoriesFavoriteByUserId(@Param("userId") Long userId, Pageable pageable);
+    @Query("SELECT s.id FROM stories s WHERE s.status = :status " +
+            "AND (s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id)) " +
+            "ORDER BY s.createdAt DESC, s.id DESC")
+    List<Long> findIdsByStatusSeekAfter(@Param("status") StoryStatus status, @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id, Limit limit);
 
-    @Query("""
-            SELECT s FROM stories s
-            WHERE s.createdAt > :cutoff
-            AND s.status = 'PUBLISHED'
-            ORDER BY 
-              (s.likes * 2 + s.favorites * 3 + s.reads * 1) / POWER(TIMESTAMPDIFF(HOUR, s.createdAt, CURRENT_TIMESTAMP) + 2, 1.5)
-            DESC
-            """)
-    Page<Story> findTrendingStories(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    @Query("SELECT s.id FROM stories s WHERE s.id IN :ids")
+    Page<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids, Pageable pageable);
 
-    Page<Story> findByUserUsernameAndStatus(String username, StoryStatus status, Pageable pageable);
+    @Query("SELECT new com.coursework.story.repository.StoryListRow(s.id, s.title, s.coverImageUrl, s.description, " +
+            "(SELECT COUNT(p) FROM pages p WHERE p.story = s), " +
+            "COALESCE(s.startPageNumber, (SELECT MIN(sp.pageNumber) FROM pages sp WHERE sp.story = s)), " +
+            "s.status, s.version, o.id, s.createdAt, s.updatedAt, s.likes, s.favorites, s.reads, " +
+            "u.username, u.imageUrl) " +
+            "FROM stories s JOIN s.user u LEFT JOIN s.originalStory o WHERE s.id IN :ids")
+    List<StoryListRow> findListRowsByIdIn(@Param("ids") Collection<Long> ids);
 
-    Page<Story> findByUserId(Long userId, Pageable pageable);
+    @Query("SELECT new com.coursework.story.repository.StoryRevision(s.id, s.status, s.version, s.updatedAt, " +
+            "s.likes, s.favorites, s.reads, u.imageUrl) " +
+            "FROM stories s JOIN s.user u WHERE s.id = :storyId")
+    Optional<StoryRevision> findRevisionById(@Param("storyId") Long storyId);
+
+    @Query("SELECT new com.coursework.story.repository.StoryGenreRow(s.id, g) " +
+            "FROM stories s JOIN s.genres g WHERE s.id IN :ids")
+    List<StoryGenreRow> findGenreRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.coursework.story.repository.StoryTagRow(s.id, t) " +
+            "FROM stories s JOIN s.tags t WHERE s.id IN :ids")
+    List<StoryTagRow> findTagRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.coursework.story.repository.StorySearchRow(s.id, s.title, s.description) " +
+            "FROM stories s WHERE s.status = 'PUBLISHED'")
+    List<StorySearchRow> findPublishedSearchRows();
+
+    @Query("SELECT new com.coursework.story.repository.StoryTagRow(s.id, t) " +
+            "FROM stories s JOIN s.tags t WHERE s.status = 'PUBLISHED'")
+    List<StoryTagRow> findPublishedTagRows();
+
+    @Query("SELECT s.id FROM stories s JOIN s.likedByUsers u WHERE u.id = :userId AND s.status IN ('PUBLISHED', 'ARCHIVED')")
+    Page<Long> findIdsLikedByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT s.id FROM stories s JOIN s.favoriteByUsers u WHERE u.id = :userId AND s.status IN ('PUBLISHED', 'ARCHIVED')")
+    Page<Long> findIdsFavoriteByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT new com.coursework.story.repository.TrendingCandidate(s.id, s.likes, s.favorites, s.reads, s.createdAt) " +
+            "FROM stories s WHERE s.createdAt > :cutoff AND s.status = 'PUBLISHED'")
+    List<TrendingCandidate> findTrendingCandidates(@Param("cutoff") LocalDateTime cutoff);
+
+    @Query("SELECT s.id FROM stories s WHERE s.user.username = :username AND s.status = :status")
+    Page<Long> findIdsByUsernameAndStatus(@Param("username") String username, @Param("status") StoryStatus status,
+                                          Pageable pageable);
+
+    @Query("SELECT s.id FROM stories s WHERE s.user.id = :userId")
+    Page<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
 
     Optional<Story> findByOriginalStoryId (Long storyId);
 
@@ -0,0 +1,9 @@
+package com.coursework.story.repository;
+
+import com.coursework.story.model.StoryStatus;
+
+import java.time.LocalDateTime;
+
+public record StoryRevision(Long id, StoryStatus status, int version, LocalDateTime updatedAt,
+                            int likes, int favorites, int reads, String userImageUrl) {
+}
@@ -0,0 +1,4 @@
+package com.coursework.story.repository;
+
+public record StorySearchRow(Long id, String title, String description) {
+}
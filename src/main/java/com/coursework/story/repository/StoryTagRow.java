@@ -0,0 +1,4 @@
+package com.coursework.story.repository;
+
+public record StoryTagRow(Long storyId, String tag) {
+}
@@ -0,0 +1,6 @@
+package com.coursework.story.repository;
+
+import java.time.LocalDateTime;
+
+public record TrendingCandidate(Long id, int likes, int favorites, int reads, LocalDateTime createdAt) {
+}
@@ -1,7 +1,16 @@
 package com.coursework.story.repository;
 
 import com.coursework.story.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -11,4 +20,36 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByResetToken(String token);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Query(value = "SELECT story_id, 'LIKE' FROM user_likes WHERE user_id = :userId AND story_id IN (:storyIds) " +
+            "UNION ALL " +
+            "SELECT story_id, 'FAVORITE' FROM user_favorites WHERE user_id = :userId AND story_id IN (:storyIds)",
+            nativeQuery = true)
+    List<Object[]> findMembershipForStories(@Param("userId") Long userId, @Param("storyIds") Collection<Long> storyIds);
+
+    @Query(value = "SELECT story_id, 'LIKE' FROM user_likes WHERE user_id = :userId " +
+            "UNION ALL " +
+            "SELECT story_id, 'FAVORITE' FROM user_favorites WHERE user_id = :userId",
+            nativeQuery = true)
+    List<Object[]> findAllMembership(@Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "`user_likes`"))
+    @Query(value = "INSERT IGNORE INTO user_likes (user_id, story_id) VALUES (:userId, :storyId)", nativeQuery = true)
+    int addLike(@Param("userId") Long userId, @Param("storyId") Long storyId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "`user_likes`"))
+    @Query(value = "DELETE FROM user_likes WHERE user_id = :userId AND story_id = :storyId", nativeQuery = true)
+    int removeLike(@Param("userId") Long userId, @Param("storyId") Long storyId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "`user_favorites`"))
+    @Query(value = "INSERT IGNORE INTO user_favorites (user_id, story_id) VALUES (:userId, :storyId)", nativeQuery = true)
+    int addFavorite(@Param("userId") Long userId, @Param("storyId") Long storyId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "`user_favorites`"))
+    @Query(value = "DELETE FROM user_favorites WHERE user_id = :userId AND story_id = :storyId", nativeQuery = true)
+    int removeFavorite(@Param("userId") Long userId, @Param("storyId") Long storyId);
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.coursework.story.security;
+
+import com.coursework.story.model.User;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class AuthenticatedPrincipal implements UserDetails, CredentialsContainer {
+
+    private final Long id;
+    private final String username;
+    private String password;
+    private final Set<String> roles;
+
+    public AuthenticatedPrincipal(Long id, String username, String password, Set<String> roles) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.roles = Set.copyOf(roles);
+    }
+
+    public static AuthenticatedPrincipal from(User user) {
+        return new AuthenticatedPrincipal(user.getId(), user.getUsername(), user.getPassword(), Set.of("USER"));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return roles.stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AuthenticatedPrincipal that = (AuthenticatedPrincipal) o;
+        return Objects.equals(id, that.id) && Objects.equals(username, that.username);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, username);
+    }
+}
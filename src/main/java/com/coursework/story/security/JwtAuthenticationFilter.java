@@ -4,6 +4,7 @@ import com.coursework.story.exception.ErrorCodes;
 import com.coursework.story.exception.GlobalExceptionHandler;
 import com.coursework.story.exception.InvalidTokenException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,10 +23,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationCache tokenRevocationCache;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                                   TokenRevocationCache tokenRevocationCache) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenRevocationCache = tokenRevocationCache;
     }
 
     @Override
@@ -42,17 +46,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String jwt = authHeader.substring(7);
 
         try {
-            String username = jwtUtil.extractUsername(jwt);
+            // Parsing verifies the signature and expiry, so the signed claims can be trusted as they are
+            Claims claims = jwtUtil.parseToken(jwt);
+            String username = claims.getSubject();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                if (jwtUtil.validateToken(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+                UserDetails userDetails = principalFor(claims, username);
+
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
 
             filterChain.doFilter(request, response);
@@ -66,6 +70,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
+    private UserDetails principalFor(Claims claims, String username) {
+        AuthenticatedPrincipal principal = jwtUtil.extractPrincipal(claims).orElse(null);
+        if (principal == null) {
+            return userDetailsService.loadUserByUsername(username);
+        }
+
+        if (tokenRevocationCache.isRevoked(principal.getId(), claims.getIssuedAt())) {
+            throw new InvalidTokenException("Token has been revoked.");
+        }
+        return principal;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
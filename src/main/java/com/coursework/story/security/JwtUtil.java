@@ -1,22 +1,57 @@
 package com.coursework.story.security;
 
 import com.coursework.story.exception.InvalidTokenException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
-import java.util.Date;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
 
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
+
     @Value("${story.app.jwtSecret}")
     private String secretKey;
     private Key key;
+    private JwtParser parser;
+    private final Timer parseTimer;
+    // Verified claims by SHA-256 of the token, each entry expiring with its token; null when disabled
+    private final Cache<String, Claims> verifiedClaims;
+
+    public JwtUtil(MeterRegistry meterRegistry,
+                   @Value("${story.app.jwt.maxCachedTokens:10000}") long maxCachedTokens) {
+        this.parseTimer = Timer.builder("story.jwt.parse")
+                .description("Time spent parsing and verifying JWTs")
+                .register(meterRegistry);
+        if (maxCachedTokens > 0) {
+            this.verifiedClaims = Caffeine.newBuilder()
+                    .maximumSize(maxCachedTokens)
+                    .expireAfter(new UntilTokenExpiry())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, verifiedClaims, "story.jwt.claims");
+        } else {
+            this.verifiedClaims = null;
+        }
+    }
 
     @PostConstruct
     public void init() {
@@ -24,40 +59,87 @@ public class JwtUtil {
             throw new IllegalArgumentException("JWT secret key is not set in the application properties.");
         }
         this.key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
     }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
+    public Claims parseToken(String token) {
+        return extractAllClaims(token);
+    }
+
+    // Tokens issued before the uid/roles claims were added have no principal and need a user lookup
+    public Optional<AuthenticatedPrincipal> extractPrincipal(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        Collection<?> roles = claims.get(ROLES_CLAIM, Collection.class);
+        if (userId == null || roles == null) {
+            return Optional.empty();
+        }
+
+        Set<String> roleNames = roles.stream().map(String::valueOf).collect(Collectors.toSet());
+        return Optional.of(new AuthenticatedPrincipal(userId.longValue(), claims.getSubject(), null, roleNames));
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
 
     private Claims extractAllClaims(String token) {
+        if (verifiedClaims == null || token == null) {
+            return verify(token);
+        }
+
+        String digest = digest(token);
+        Claims claims = verifiedClaims.getIfPresent(digest);
+        if (claims == null) {
+            // Only tokens that verified are cached; tokens without an expiry are never cached
+            claims = verify(token);
+            if (claims.getExpiration() != null) {
+                verifiedClaims.put(digest, claims);
+            }
+        }
+        return claims;
+    }
+
+    private Claims verify(String token) {
+        Timer.Sample sample = Timer.start();
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return parser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             throw new InvalidTokenException("Token is expired.", e);
-        } catch (UnsupportedJwtException | MalformedJwtException | SecurityException | IllegalArgumentException e) {
+        } catch (JwtException | IllegalArgumentException e) {
             throw new InvalidTokenException("Invalid JWT token.", e);
+        } finally {
+            sample.stop(parseTimer);
         }
     }
 
+    public String generateAccessToken(AuthenticatedPrincipal principal) {
+        return accessToken(principal.getUsername())
+                .claim(USER_ID_CLAIM, principal.getId())
+                .claim(ROLES_CLAIM, List.copyOf(principal.getRoles()))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
     public String generateAccessToken(String username) {
+        return accessToken(username)
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private JwtBuilder accessToken(String username) {
         // 15 minutes
         long ACCESS_TOKEN_EXPIRATION = 1000 * 60 * 15;
         return Jwts.builder()
                 .setSubject(username)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + ACCESS_TOKEN_EXPIRATION))
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+                .setExpiration(new Date(System.currentTimeMillis() + ACCESS_TOKEN_EXPIRATION));
     }
 
     public String generateRefreshToken(String username) {
@@ -90,12 +172,37 @@ public class JwtUtil {
     }
 
     private boolean isTokenExpired(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
+        return parser.parseClaimsJws(token)
                 .getBody()
                 .getExpiration()
                 .before(new Date());
     }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+            long millis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
\ No newline at end of file
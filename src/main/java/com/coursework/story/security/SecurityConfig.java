@@ -1,5 +1,6 @@
 package com.coursework.story.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -22,10 +23,13 @@ public class SecurityConfig {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationCache tokenRevocationCache;
 
-    public SecurityConfig(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public SecurityConfig(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                          TokenRevocationCache tokenRevocationCache) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenRevocationCache = tokenRevocationCache;
     }
 
     @Bean
@@ -34,6 +38,8 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource))
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         //Non-authenticated
                         .requestMatchers(POST, "/api/auth/login").permitAll()
                         .requestMatchers(POST, "/api/auth/logout").permitAll()
@@ -60,6 +66,9 @@ public class SecurityConfig {
                         .requestMatchers(PUT, "/api/story/update").authenticated()
                         .requestMatchers(PATCH, "/api/story/{storyId}/start-page").authenticated()
                         .requestMatchers(POST, "/api/story/copyAsDraft/{storyId}").authenticated()
+                        .requestMatchers(GET, "/api/story/{storyId}/validation").authenticated()
+                        .requestMatchers(GET, "/api/story/{storyId}/bundle").authenticated()
+                        .requestMatchers(POST, "/api/story/bundle").authenticated()
                         .requestMatchers(PUT, "/api/story/publish/{storyId}").authenticated()
                         .requestMatchers(PUT, "/api/story/archive/{storyId}").authenticated()
                         .requestMatchers(DELETE, "/api/story/{storyId}").authenticated()
@@ -88,9 +97,14 @@ public class SecurityConfig {
 
                         .requestMatchers(PUT, "/api/page/{pageId}").authenticated()
                         .requestMatchers(POST, "/api/page/create").authenticated()
+                        .requestMatchers(PUT, "/api/page/story/{storyId}").authenticated()
+                        .requestMatchers(PATCH, "/api/page/story/{storyId}").authenticated()
                         .requestMatchers(DELETE, "/api/page/{pageId}").authenticated()
 
                         .requestMatchers(GET, "/api/notifications").authenticated()
+                        .requestMatchers(GET, "/api/notifications/history").authenticated()
+                        .requestMatchers(GET, "/api/notifications/unread-count").authenticated()
+                        .requestMatchers(GET, "/api/notifications/stream").authenticated()
                         .requestMatchers(PUT, "/api/notifications/read").authenticated()
 
                         .requestMatchers(POST, "/api/comments/story/{storyId}").authenticated()
@@ -116,7 +130,7 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
-                .addFilterBefore(new JwtAuthenticationFilter(jwtUtil, userDetailsService),
+                .addFilterBefore(new JwtAuthenticationFilter(jwtUtil, userDetailsService, tokenRevocationCache),
                         UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -0,0 +1,42 @@
+package com.coursework.story.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+// Access tokens issued to a user before the revocation instant are rejected; entries only need to outlive
+// the access tokens themselves. Kept in memory, so a revocation is seen by this instance only.
+@Component
+public class TokenRevocationCache {
+
+    private final Cache<Long, Instant> revokedBefore;
+
+    public TokenRevocationCache(MeterRegistry meterRegistry,
+                                @Value("${story.app.jwt.revocationTtlSeconds:900}") long ttlSeconds,
+                                @Value("${story.app.jwt.maxRevokedUsers:100000}") long maxRevokedUsers) {
+        this.revokedBefore = Caffeine.newBuilder()
+                .maximumSize(maxRevokedUsers)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, revokedBefore, "story.jwt.revocations");
+    }
+
+    public void revokeAll(Long userId) {
+        // JWT issue times have second precision
+        revokedBefore.put(userId, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        Instant revoked = revokedBefore.getIfPresent(userId);
+        return revoked != null && (issuedAt == null || issuedAt.toInstant().isBefore(revoked));
+    }
+}
@@ -0,0 +1,32 @@
+package com.coursework.story.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+@Service
+public class ApproximateCountService {
+
+    private final Cache<String, Long> counts;
+
+    public ApproximateCountService(MeterRegistry meterRegistry,
+                                   @Value("${story.app.cursor.countTtlSeconds:60}") long ttlSeconds,
+                                   @Value("${story.app.cursor.maxCachedCounts:10000}") long maxCachedCounts) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxCachedCounts)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "story.cursor.counts");
+    }
+
+    public long count(String key, Supplier<Long> loader) {
+        return counts.get(key, k -> loader.get());
+    }
+}
@@ -7,7 +7,10 @@ import com.coursework.story.exception.NotFoundException;
 import com.coursework.story.model.RefreshToken;
 import com.coursework.story.model.User;
 import com.coursework.story.repository.UserRepository;
+import com.coursework.story.security.AuthenticatedPrincipal;
 import com.coursework.story.security.JwtUtil;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.*;
@@ -16,24 +19,35 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.Optional;
 
 @Service
 public class AuthService {
 
+    private static final String REQUEST_USER_ATTRIBUTE = AuthService.class.getName() + ".requestUser";
+
     private final UserRepository userRepository;
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
     private final RefreshTokenService refreshTokenService;
-
+    private final DistributionSummary resolutionsPerRequest;
+    private final DistributionSummary lookupsPerRequest;
 
     public AuthService(UserRepository userRepository, AuthenticationManager authenticationManager,
-                       JwtUtil jwtUtil, RefreshTokenService refreshTokenService) {
+                       JwtUtil jwtUtil, RefreshTokenService refreshTokenService, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
         this.refreshTokenService = refreshTokenService;
+        this.resolutionsPerRequest = DistributionSummary.builder("story.auth.user.resolutions")
+                .description("Authenticated user resolutions requested by services per HTTP request")
+                .register(meterRegistry);
+        this.lookupsPerRequest = DistributionSummary.builder("story.auth.user.lookups")
+                .description("Authenticated user database lookups per HTTP request")
+                .register(meterRegistry);
     }
 
     public AuthResponse login(String username, String password, HttpServletResponse response) {
@@ -44,7 +58,7 @@ public class AuthService {
             throw new BadRequestException("Email not verified");
         }
 
-        String token = jwtUtil.generateAccessToken(username);
+        String token = jwtUtil.generateAccessToken(AuthenticatedPrincipal.from(user));
         RefreshToken refreshToken = refreshTokenService.createRefreshToken(user);
 
         Cookie cookie = new Cookie("refreshToken", refreshToken.getToken());
@@ -75,10 +89,24 @@ public class AuthService {
         }
 
         RefreshToken refreshToken = refreshTokenService.verifyRefreshToken(refreshTokenValue);
-        String accessToken = jwtUtil.generateAccessToken(refreshToken.getUser().getUsername());
+        String accessToken = jwtUtil.generateAccessToken(AuthenticatedPrincipal.from(refreshToken.getUser()));
         return new AuthResponse(accessToken, refreshToken.getUser());
     }
 
+    public Optional<AuthenticatedPrincipal> getAuthenticatedPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return Optional.empty();
+        }
+
+        if (!(authentication.getPrincipal() instanceof AuthenticatedPrincipal principal)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(principal);
+    }
+
     public Optional<User> getAuthenticatedUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
@@ -90,7 +118,7 @@ public class AuthService {
             return Optional.empty();
         }
 
-        return userRepository.findByUsername(userDetails.getUsername());
+        return resolveUser(userDetails);
     }
 
     public User getAuthenticatedUserOrThrow() {
@@ -112,7 +140,55 @@ public class AuthService {
             throw new InvalidTokenException("Invalid or expired token.");
         }
 
-        return userRepository.findByUsername(userDetails.getUsername())
+        return resolveUser(userDetails)
                 .orElseThrow(() -> new UsernameNotFoundException("Authenticated user not found in database."));
     }
+
+    private Optional<User> resolveUser(UserDetails userDetails) {
+        RequestUser requestUser = currentRequestUser();
+        if (requestUser == null) {
+            return loadUser(userDetails);
+        }
+
+        requestUser.resolutions++;
+        if (!requestUser.loaded) {
+            requestUser.user = loadUser(userDetails);
+            requestUser.loaded = true;
+            requestUser.lookups++;
+        }
+        return requestUser.user;
+    }
+
+    private Optional<User> loadUser(UserDetails userDetails) {
+        if (userDetails instanceof AuthenticatedPrincipal principal && principal.getId() != null) {
+            return userRepository.findById(principal.getId());
+        }
+        return userRepository.findByUsername(userDetails.getUsername());
+    }
+
+    private RequestUser currentRequestUser() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+
+        RequestUser requestUser = (RequestUser) attributes.getAttribute(REQUEST_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (requestUser == null) {
+            RequestUser created = new RequestUser();
+            attributes.setAttribute(REQUEST_USER_ATTRIBUTE, created, RequestAttributes.SCOPE_REQUEST);
+            attributes.registerDestructionCallback(REQUEST_USER_ATTRIBUTE, () -> {
+                resolutionsPerRequest.record(created.resolutions);
+                lookupsPerRequest.record(created.lookups);
+            }, RequestAttributes.SCOPE_REQUEST);
+            requestUser = created;
+        }
+        return requestUser;
+    }
+
+    private static final class RequestUser {
+        private Optional<User> user = Optional.empty();
+        private boolean loaded;
+        private int resolutions;
+        private int lookups;
+    }
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.coursework.story.service;
 
 import com.coursework.story.model.*;
 import com.coursework.story.repository.BattleRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 
 import java.util.Random;
@@ -11,9 +13,13 @@ import java.util.stream.IntStream;
 public class BattleService {
 
     private final BattleRepository battleRepository;
+    private final DistributionSummary roundsWon;
+    private final DistributionSummary roundsLost;
 
-    public BattleService(BattleRepository battleRepository) {
+    public BattleService(BattleRepository battleRepository, MeterRegistry meterRegistry) {
         this.battleRepository = battleRepository;
+        this.roundsWon = roundsPerBattle(meterRegistry, "won");
+        this.roundsLost = roundsPerBattle(meterRegistry, "lost");
     }
 
     public Battle startBattle(Page page, PlayerStats stats, Playthrough playthrough) {
@@ -57,6 +63,7 @@ public class BattleService {
             log = "You parried each other's blows.";
         }
 
+        battle.setRounds(battle.getRounds() + 1);
         battle.setLastPlayerRoll(playerRoll);
         battle.setLastEnemyRoll(enemyRoll);
         battle.setLastRoundLuckUsed(false);
@@ -132,6 +139,14 @@ public class BattleService {
         battle.setPlayerWon(battle.getEnemyStamina() <= 0);
         battle.setBattleLog(battle.getBattleLog() + " Battle Ended.");
         battleRepository.save(battle);
+        (battle.isPlayerWon() ? roundsWon : roundsLost).record(battle.getRounds());
+    }
+
+    private static DistributionSummary roundsPerBattle(MeterRegistry meterRegistry, String outcome) {
+        return DistributionSummary.builder("story.battle.rounds")
+                .description("Rounds fought per finished battle")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     private int rollDice(int number) {
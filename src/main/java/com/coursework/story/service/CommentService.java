@@ -1,6 +1,8 @@
 package com.coursework.story.service;
 
 import com.coursework.story.dto.CommentDTO;
+import com.coursework.story.dto.CursorPage;
+import com.coursework.story.dto.PageCursor;
 import com.coursework.story.exception.NotFoundException;
 import com.coursework.story.exception.UnauthorizedException;
 import com.coursework.story.model.Comment;
@@ -11,11 +13,13 @@ import com.coursework.story.repository.CommentRepository;
 import com.coursework.story.repository.StoryRepository;
 import com.coursework.story.repository.UserRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Objects;
 
 @Service
@@ -25,13 +29,16 @@ public class CommentService {
     private final StoryRepository storyRepository;
     private final NotificationService notificationService;
     private final AuthService authService;
+    private final ApproximateCountService approximateCountService;
 
     public CommentService(CommentRepository commentRepository, StoryRepository storyRepository,
-                          NotificationService notificationService, AuthService authService) {
+                          NotificationService notificationService, AuthService authService,
+                          ApproximateCountService approximateCountService) {
         this.commentRepository = commentRepository;
         this.storyRepository = storyRepository;
         this.notificationService = notificationService;
         this.authService = authService;
+        this.approximateCountService = approximateCountService;
     }
 
     @Transactional
@@ -77,6 +84,20 @@ public class CommentService {
         return comments.map(CommentDTO::new);
     }
 
+    public CursorPage<CommentDTO> getCommentsByStoryCursor(Long storyId, String cursor, int size, boolean approximateCount) {
+        PageCursor after = PageCursor.decode(cursor);
+        Limit limit = Limit.of(size + 1);
+        List<Comment> rows = after == null
+                ? commentRepository.findByStoryIdSeek(storyId, limit)
+                : commentRepository.findByStoryIdSeekAfter(storyId, after.sortKey(), after.id(), limit);
+        Long total = approximateCount
+                ? approximateCountService.count("comments:story:" + storyId, () -> commentRepository.countByStoryId(storyId))
+                : null;
+
+        return CursorPage.of(rows, size, comment -> new PageCursor(comment.getCreatedAt(), comment.getId()),
+                comments -> comments.stream().map(CommentDTO::new).toList(), total);
+    }
+
     public Page<CommentDTO> getUserComments(Pageable pageable) {
         User user = authService.getAuthenticatedUserOrThrow();
         Page<Comment> comments = commentRepository.findByUserId(user.getId(), pageable);
@@ -1,25 +1,45 @@
 package com.coursework.story.service;
 
 import com.coursework.story.model.*;
+import com.coursework.story.repository.ChoiceRepository;
+import com.coursework.story.repository.ItemRepository;
 import com.coursework.story.repository.PageRepository;
 import com.coursework.story.repository.StoryRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class DraftService {
 
     private final StoryRepository storyRepository;
     private final PageRepository pageRepository;
+    private final ChoiceRepository choiceRepository;
+    private final ItemRepository itemRepository;
+    private final Timer cloneTimer;
+    private final DistributionSummary clonedRows;
 
     public DraftService(StoryRepository storyRepository,
-                        PageRepository pageRepository) {
+                        PageRepository pageRepository,
+                        ChoiceRepository choiceRepository,
+                        ItemRepository itemRepository,
+                        MeterRegistry meterRegistry) {
         this.storyRepository = storyRepository;
         this.pageRepository = pageRepository;
+        this.choiceRepository = choiceRepository;
+        this.itemRepository = itemRepository;
+        this.cloneTimer = Timer.builder("story.draft.clone")
+                .description("Time spent copying story content into a draft")
+                .register(meterRegistry);
+        this.clonedRows = DistributionSummary.builder("story.draft.clone.rows")
+                .description("Rows copied per draft clone")
+                .register(meterRegistry);
     }
 
     public Story ensureDraftExists(Story story) {
@@ -27,28 +47,33 @@ public class DraftService {
                 .orElseGet(() -> createDraftFromPublished(story, story.getUser())); //TODO: replace with published story error
     }
 
+    @Transactional
     public Story createDraftFromPublished(Story publishedStory, User user) {
         Story draft = getStory(publishedStory, user);
 
         Story savedDraft = storyRepository.save(draft);
+        cloneContent(publishedStory.getId(), savedDraft.getId());
 
-        List<Page> copiedPages = publishedStory.getPages().stream().map(p -> {
-            Page page = new Page();
-            page.setTitle(p.getTitle());
-            page.setPageNumber(p.getPageNumber());
-            page.setParagraphs(new ArrayList<>(p.getParagraphs()));
-            page.setChoices(p.getChoices().stream()
-                    .map(Choice::new)
-                    .collect(Collectors.toList()));
-            page.setPositionX(p.getPositionX());
-            page.setPositionY(p.getPositionY());
-            page.setStory(savedDraft);
-            return page;
-        }).toList();
+        return savedDraft;
+    }
 
-        pageRepository.saveAll(copiedPages);
+    @Transactional
+    public CloneReport cloneContent(Long sourceStoryId, Long targetStoryId) {
+        long start = System.nanoTime();
 
-        return savedDraft;
+        int items = itemRepository.cloneItems(sourceStoryId, targetStoryId);
+        int pages = pageRepository.clonePages(sourceStoryId, targetStoryId);
+        int paragraphs = pageRepository.cloneParagraphs(targetStoryId);
+        int choices = choiceRepository.cloneChoices(targetStoryId);
+        int itemLinks = choiceRepository.cloneRequiredItems(targetStoryId)
+                + pageRepository.cloneGrantedItems(targetStoryId)
+                + pageRepository.cloneRemovedItems(targetStoryId);
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        CloneReport report = new CloneReport(items, pages, paragraphs, choices, itemLinks, elapsed);
+        cloneTimer.record(elapsed);
+        clonedRows.record(report.totalRows());
+        return report;
     }
 
     private static Story getStory(Story publishedStory, User user) {
@@ -66,4 +91,10 @@ public class DraftService {
         draft.setCoverImageUrl(publishedStory.getCoverImageUrl());
         return draft;
     }
-}
\ No newline at end of file
+
+    public record CloneReport(int items, int pages, int paragraphs, int choices, int itemLinks, Duration elapsed) {
+        public int totalRows() {
+            return items + pages + paragraphs + choices + itemLinks;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.coursework.story.service;
+
+import com.coursework.story.model.Page;
+import com.coursework.story.model.Story;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+
+@Service
+public class EntityCacheService {
+
+    private final Cache cache;
+
+    public EntityCacheService(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        this.cache = entityManagerFactory.getCache();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Gauge.builder("story.entityCache.hitRatio", statistics, EntityCacheService::hitRatio)
+                .description("Share of second-level cache lookups served without hitting the database")
+                .register(meterRegistry);
+    }
+
+    public void evictStories(Collection<Long> storyIds) {
+        evict(Story.class, storyIds);
+    }
+
+    public void evictPages(Collection<Long> pageIds) {
+        evict(Page.class, pageIds);
+    }
+
+    private void evict(Class<?> type, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> evicted = List.copyOf(ids);
+        Runnable evict = () -> evicted.forEach(id -> cache.evict(type, id));
+        evict.run();
+        TransactionCallbacks.afterCompletion(evict);
+    }
+
+    private static double hitRatio(Statistics statistics) {
+        long hits = statistics.getSecondLevelCacheHitCount();
+        long lookups = hits + statistics.getSecondLevelCacheMissCount();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,109 @@
+package com.coursework.story.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class NotificationHub {
+
+    private final Map<Long, Deque<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final long timeoutMillis;
+    private final int maxStreamsPerUser;
+    private final Timer fanoutTimer;
+
+    public NotificationHub(MeterRegistry meterRegistry,
+                           @Value("${story.app.notifications.streamTimeoutMillis:1800000}") long timeoutMillis,
+                           @Value("${story.app.notifications.maxStreamsPerUser:5}") int maxStreamsPerUser) {
+        this.timeoutMillis = timeoutMillis;
+        this.maxStreamsPerUser = maxStreamsPerUser;
+        Gauge.builder("story.notifications.streams", connections, AtomicInteger::get)
+                .description("Open notification event streams")
+                .register(meterRegistry);
+        this.fanoutTimer = Timer.builder("story.notifications.fanout")
+                .description("Time spent pushing a notification to all of a user's open streams")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Deque<SseEmitter> userEmitters = emitters.compute(userId, (id, existing) -> {
+            Deque<SseEmitter> deque = existing == null ? new ConcurrentLinkedDeque<>() : existing;
+            deque.add(emitter);
+            return deque;
+        });
+        connections.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        while (userEmitters.size() > maxStreamsPerUser) {
+            SseEmitter oldest = userEmitters.peekFirst();
+            if (oldest == null || !remove(userId, oldest)) {
+                break;
+            }
+            oldest.complete();
+        }
+        return emitter;
+    }
+
+    public void publish(Long userId, String eventName, Object payload) {
+        Deque<SseEmitter> userEmitters = emitters.get(userId);
+        if (userEmitters == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        for (SseEmitter emitter : userEmitters) {
+            send(userId, emitter, SseEmitter.event().name(eventName).data(payload));
+        }
+        fanoutTimer.record(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    @Scheduled(fixedDelayString = "${story.app.notifications.heartbeatMillis:25000}")
+    public void heartbeat() {
+        emitters.forEach((userId, userEmitters) -> {
+            for (SseEmitter emitter : userEmitters) {
+                send(userId, emitter, SseEmitter.event().comment("heartbeat"));
+            }
+        });
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            remove(userId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private boolean remove(Long userId, SseEmitter emitter) {
+        boolean[] removed = {false};
+        emitters.computeIfPresent(userId, (id, userEmitters) -> {
+            removed[0] = userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+        if (removed[0]) {
+            connections.decrementAndGet();
+        }
+        return removed[0];
+    }
+}
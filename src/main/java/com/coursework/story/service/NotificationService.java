@@ -5,45 +5,105 @@ import com.coursework.story.model.Notification;
 import com.coursework.story.model.NotificationType;
 import com.coursework.story.model.User;
 import com.coursework.story.repository.NotificationRepository;
+import com.coursework.story.repository.UserRepository;
+import com.coursework.story.security.AuthenticatedPrincipal;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.Comparator;
+import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 public class NotificationService {
 
+    static final String NOTIFICATION_EVENT = "notification";
+    static final String UNREAD_COUNT_EVENT = "unread-count";
+
     private final NotificationRepository notificationRepository;
     private final AuthService authService;
+    private final NotificationHub notificationHub;
+    private final OutboxService outboxService;
+    private final UserRepository userRepository;
+    private final int recentLimit;
 
-    public NotificationService(NotificationRepository notificationRepository, AuthService authService) {
+    public NotificationService(NotificationRepository notificationRepository, AuthService authService,
+                               NotificationHub notificationHub, OutboxService outboxService,
+                               UserRepository userRepository,
+                               @Value("${story.app.notifications.recentLimit:50}") int recentLimit) {
         this.notificationRepository = notificationRepository;
         this.authService = authService;
+        this.notificationHub = notificationHub;
+        this.outboxService = outboxService;
+        this.userRepository = userRepository;
+        this.recentLimit = recentLimit;
     }
 
     public void send(User recipient, String message, NotificationType type, Long targetId) {
+        outboxService.enqueueNotification(recipient.getId(), message, type, targetId);
+    }
+
+    @Transactional
+    public void deliver(OutboxService.NotificationPayload payload) {
         Notification notification = new Notification();
-        notification.setMessage(message);
-        notification.setRecipient(recipient);
-        notification.setType(type);
-        notification.setTargetId(targetId);
-        notificationRepository.save(notification);
+        notification.setMessage(payload.message());
+        notification.setRecipient(userRepository.getReferenceById(payload.recipientId()));
+        notification.setType(payload.type());
+        notification.setTargetId(payload.targetId());
+        Notification saved = notificationRepository.save(notification);
+
+        NotificationDTO dto = new NotificationDTO(saved);
+        TransactionCallbacks.afterCommit(() -> notificationHub.publish(payload.recipientId(), NOTIFICATION_EVENT, dto));
     }
 
     public List<NotificationDTO> getNotifications() {
-        User user = authService.getAuthenticatedUserOrThrow();
-        return user.getNotifications()
+        return notificationRepository.findByRecipientIdOrderByTimestampDescIdDesc(currentUserId(), Limit.of(recentLimit))
                 .stream()
-                .sorted(Comparator.comparing(Notification::getTimestamp).reversed())
                 .map(NotificationDTO::new)
                 .collect(Collectors.toList());
     }
 
+    public Page<NotificationDTO> getNotificationHistory(Pageable pageable) {
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return notificationRepository.findByRecipientIdOrderByTimestampDescIdDesc(currentUserId(), unsorted)
+                .map(NotificationDTO::new);
+    }
+
+    public long getUnreadCount() {
+        return notificationRepository.countByRecipientIdAndReadFalse(currentUserId());
+    }
+
+    public SseEmitter subscribe() {
+        Long userId = currentUserId();
+        long unread = notificationRepository.countByRecipientIdAndReadFalse(userId);
+        SseEmitter emitter = notificationHub.subscribe(userId);
+        try {
+            emitter.send(SseEmitter.event().name(UNREAD_COUNT_EVENT).data(unread));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
     @Transactional
     public void markAsRead(List<Long> notificationIds) {
         User user = authService.getAuthenticatedUserOrThrow();
         notificationRepository.markAsReadByIds(notificationIds, user);
+
+        Long userId = user.getId();
+        long unread = notificationRepository.countByRecipientIdAndReadFalse(userId);
+        TransactionCallbacks.afterCommit(() -> notificationHub.publish(userId, UNREAD_COUNT_EVENT, unread));
+    }
+
+    private Long currentUserId() {
+        return authService.getAuthenticatedPrincipal()
+                .map(AuthenticatedPrincipal::getId)
+                .orElseGet(() -> authService.getAuthenticatedUserOrThrow().getId());
     }
 }
\ No newline at end of file
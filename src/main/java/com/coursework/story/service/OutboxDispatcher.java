@@ -0,0 +1,227 @@
+package com.coursework.story.service;
+
+import com.coursework.story.model.OutboxEvent;
+import com.coursework.story.model.OutboxStatus;
+import com.coursework.story.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxService outboxService;
+    private final NotificationService notificationService;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean requested = new AtomicBoolean();
+    // refreshed by the dispatcher rather than counted on every scrape; -1 until first loaded
+    private final AtomicLong failedEvents = new AtomicLong(-1);
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter failed;
+    private final Counter errors;
+    private final int batchSize;
+    private final long leaseSeconds;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository, OutboxService outboxService,
+                            NotificationService notificationService, EmailService emailService,
+                            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                            @Value("${story.app.outbox.batchSize:50}") int batchSize,
+                            @Value("${story.app.outbox.leaseSeconds:60}") long leaseSeconds,
+                            @Value("${story.app.outbox.maxAttempts:8}") int maxAttempts,
+                            @Value("${story.app.outbox.backoffMillis:1000}") long backoffMillis,
+                            @Value("${story.app.outbox.maxBackoffMillis:600000}") long maxBackoffMillis) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxService = outboxService;
+        this.notificationService = notificationService;
+        this.emailService = emailService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.leaseSeconds = leaseSeconds;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.delivered = meterRegistry.counter("story.outbox.events", "result", "delivered");
+        this.retried = meterRegistry.counter("story.outbox.events", "result", "retried");
+        this.failed = meterRegistry.counter("story.outbox.events", "result", "failed");
+        this.errors = meterRegistry.counter("story.outbox.dispatch.errors");
+        Gauge.builder("story.outbox.failed", failedEvents, count -> count.get() < 0 ? Double.NaN : count.get())
+                .description("Outbox events that exhausted their delivery attempts")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnqueued(OutboxService.Enqueued event) {
+        wakeUp();
+    }
+
+    @Scheduled(fixedDelayString = "${story.app.outbox.pollMillis:5000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    public void wakeUp() {
+        requested.set(true);
+        if (!executor.isShutdown() && draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    public int dispatchBatch() {
+        if (failedEvents.get() < 0) {
+            refreshFailedCount();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> claimed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> due = outboxEventRepository.findDueForUpdate(now, batchSize);
+            if (!due.isEmpty()) {
+                outboxEventRepository.markProcessing(due.stream().map(OutboxEvent::getId).toList(),
+                        now.plusSeconds(leaseSeconds));
+            }
+            return due;
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<Callable<Throwable>> tasks = claimed.stream()
+                .<Callable<Throwable>>map(event -> () -> deliver(event))
+                .toList();
+        List<Future<Throwable>> results;
+        try {
+            results = executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+
+        List<Long> deliveredIds = new ArrayList<>();
+        List<Failure> failures = new ArrayList<>();
+        for (int i = 0; i < claimed.size(); i++) {
+            OutboxEvent event = claimed.get(i);
+            Throwable error = outcome(results.get(i));
+            if (error == null) {
+                deliveredIds.add(event.getId());
+            } else {
+                failures.add(new Failure(event, error));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!deliveredIds.isEmpty()) {
+                outboxEventRepository.deleteAllByIdInBatch(deliveredIds);
+            }
+            for (Failure failure : failures) {
+                reschedule(failure.event(), failure.error());
+            }
+        });
+        delivered.increment(deliveredIds.size());
+        if (failures.stream().anyMatch(failure -> failure.event().getAttempts() + 1 >= maxAttempts)) {
+            refreshFailedCount();
+        }
+        return claimed.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void refreshFailedCount() {
+        failedEvents.set(outboxEventRepository.countByStatus(OutboxStatus.FAILED));
+    }
+
+    private void drain() {
+        try {
+            while (requested.getAndSet(false)) {
+                int claimed;
+                do {
+                    claimed = dispatchBatch();
+                } while (claimed >= batchSize);
+            }
+        } catch (RuntimeException e) {
+            errors.increment();
+        } finally {
+            draining.set(false);
+        }
+        if (requested.get()) {
+            wakeUp();
+        }
+    }
+
+    private Throwable deliver(OutboxEvent event) {
+        try {
+            switch (event.getType()) {
+                case NOTIFICATION -> notificationService.deliver(
+                        outboxService.readPayload(event, OutboxService.NotificationPayload.class));
+                case VERIFICATION_EMAIL -> {
+                    OutboxService.EmailPayload payload = outboxService.readPayload(event, OutboxService.EmailPayload.class);
+                    emailService.sendVerificationEmail(payload.to(), payload.token());
+                }
+                case PASSWORD_RESET_EMAIL -> {
+                    OutboxService.EmailPayload payload = outboxService.readPayload(event, OutboxService.EmailPayload.class);
+                    emailService.sendPasswordResetEmail(payload.to(), payload.token());
+                }
+            }
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private Throwable outcome(Future<Throwable> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        }
+    }
+
+    private void reschedule(OutboxEvent event, Throwable error) {
+        int attempts = event.getAttempts() + 1;
+        String message = String.valueOf(error.getMessage());
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        if (attempts >= maxAttempts) {
+            outboxEventRepository.reschedule(event.getId(), OutboxStatus.FAILED, LocalDateTime.now(), message);
+            failed.increment();
+            return;
+        }
+
+        long delay = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempts - 1, 30));
+        outboxEventRepository.reschedule(event.getId(), OutboxStatus.PENDING,
+                LocalDateTime.now().plusNanos(delay * 1_000_000), message);
+        retried.increment();
+    }
+
+    private record Failure(OutboxEvent event, Throwable error) {
+    }
+}
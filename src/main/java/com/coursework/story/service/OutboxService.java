@@ -0,0 +1,66 @@
+package com.coursework.story.service;
+
+import com.coursework.story.model.NotificationType;
+import com.coursework.story.model.OutboxEvent;
+import com.coursework.story.model.OutboxEventType;
+import com.coursework.story.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                         ApplicationEventPublisher eventPublisher) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public void enqueueNotification(Long recipientId, String message, NotificationType type, Long targetId) {
+        enqueue(OutboxEventType.NOTIFICATION, new NotificationPayload(recipientId, message, type, targetId));
+    }
+
+    public void enqueueVerificationEmail(String to, String token) {
+        enqueue(OutboxEventType.VERIFICATION_EMAIL, new EmailPayload(to, token));
+    }
+
+    public void enqueuePasswordResetEmail(String to, String token) {
+        enqueue(OutboxEventType.PASSWORD_RESET_EMAIL, new EmailPayload(to, token));
+    }
+
+    public <T> T readPayload(OutboxEvent event, Class<T> payloadType) {
+        try {
+            return objectMapper.readValue(event.getPayload(), payloadType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox payload for event " + event.getId(), e);
+        }
+    }
+
+    private void enqueue(OutboxEventType type, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize outbox payload", e);
+        }
+        outboxEventRepository.save(event);
+        eventPublisher.publishEvent(new Enqueued(type));
+    }
+
+    public record NotificationPayload(Long recipientId, String message, NotificationType type, Long targetId) {
+    }
+
+    public record EmailPayload(String to, String token) {
+    }
+
+    public record Enqueued(OutboxEventType type) {
+    }
+}
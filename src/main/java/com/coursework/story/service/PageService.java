@@ -1,39 +1,63 @@
 package com.coursework.story.service;
 
+import com.coursework.story.dto.ItemDTO;
+import com.coursework.story.dto.PageBatchResult;
+import com.coursework.story.dto.PageDiffDTO;
 import com.coursework.story.dto.PageDTO;
 import com.coursework.story.exception.BadRequestException;
 import com.coursework.story.exception.NotFoundException;
 import com.coursework.story.exception.UnauthorizedException;
 import com.coursework.story.model.*;
+import com.coursework.story.repository.ChoiceRepository;
 import com.coursework.story.repository.ItemRepository;
 import com.coursework.story.repository.PageRepository;
 import com.coursework.story.repository.PlaythroughRepository;
 import com.coursework.story.repository.StoryRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PageService {
 
+    static final int MAX_PAGE_NUMBER = 10000;
+
+    static final String MOVE_SQL = "UPDATE pages SET " +
+            "position_x = COALESCE(?, position_x), " +
+            "position_y = COALESCE(?, position_y) " +
+            "WHERE id = ?";
+
     private final PageRepository pageRepository;
+    private final ChoiceRepository choiceRepository;
     private final AuthService authService;
     private final StoryRepository storyRepository;
     private final PlaythroughRepository playthroughRepository;
     private final ItemRepository itemRepository;
+    private final StoryRuntimeService storyRuntimeService;
+    private final StoryGraphService storyGraphService;
+    private final EntityCacheService entityCacheService;
+    private final JdbcTemplate jdbcTemplate;
 
-    public PageService(PageRepository pageRepository, AuthService authService,
+    public PageService(PageRepository pageRepository, ChoiceRepository choiceRepository, AuthService authService,
                        StoryRepository storyRepository, PlaythroughRepository playthroughRepository,
-                       ItemRepository itemRepository) {
+                       ItemRepository itemRepository, StoryRuntimeService storyRuntimeService,
+                       StoryGraphService storyGraphService, EntityCacheService entityCacheService,
+                       JdbcTemplate jdbcTemplate) {
         this.pageRepository = pageRepository;
+        this.choiceRepository = choiceRepository;
         this.authService = authService;
         this.storyRepository = storyRepository;
         this.playthroughRepository = playthroughRepository;
         this.itemRepository = itemRepository;
+        this.storyRuntimeService = storyRuntimeService;
+        this.storyGraphService = storyGraphService;
+        this.entityCacheService = entityCacheService;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     public PageDTO getPageById(Long pageId) {
@@ -87,8 +111,11 @@ public class PageService {
             throw new BadRequestException("Pages can only be updated in drafts");
         }
 
-        applyPageProperties(page, newPage);
-        return new PageDTO(pageRepository.save(page));
+        applyPageProperties(page, newPage, resolveItems(story.getId(), List.of(newPage)));
+        PageDTO updated = new PageDTO(pageRepository.save(page));
+        storyRuntimeService.evict(story.getId());
+        storyGraphService.pageSaved(story.getId(), page);
+        return updated;
     }
 
     @Transactional
@@ -111,15 +138,123 @@ public class PageService {
         }
 
         Page page = new Page();
-        applyPageProperties(page, newPage);
+        applyPageProperties(page, newPage, resolveItems(story.getId(), List.of(newPage)));
 
         page.setStory(story);
         page.setPageNumber(story.getFirstAvailablePageNumber());
 
         Page savedPage = pageRepository.save(page);
+        storyRuntimeService.evict(story.getId());
+        storyGraphService.pageSaved(story.getId(), savedPage);
         return new PageDTO(savedPage);
     }
 
+    @Transactional
+    public List<PageDTO> savePages(Long storyId, List<PageDTO> newPages) {
+        Story story = getEditableStory(storyId);
+
+        Map<Long, Item> items = resolveItems(storyId, newPages);
+        Set<Long> pageIds = newPages.stream()
+                .map(PageDTO::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Page> existing = pageRepository.findAllById(pageIds).stream()
+                .filter(page -> page.getStory().getId().equals(storyId))
+                .collect(Collectors.toMap(Page::getId, Function.identity()));
+        if (existing.size() != pageIds.size()) {
+            throw new NotFoundException("Page not found");
+        }
+
+        Set<Integer> usedPageNumbers = story.getPages().stream()
+                .map(Page::getPageNumber)
+                .collect(Collectors.toCollection(HashSet::new));
+
+        List<Page> pages = new ArrayList<>(newPages.size());
+        for (PageDTO newPage : newPages) {
+            Page page;
+            if (newPage.getId() != null) {
+                page = existing.get(newPage.getId());
+            } else {
+                Integer pageNumber = newPage.getPageNumber() != null
+                        ? newPage.getPageNumber()
+                        : story.getFirstAvailablePageNumber();
+                requireValidPageNumber(pageNumber);
+                if (!usedPageNumbers.add(pageNumber)) {
+                    throw new BadRequestException("Page number already exists for this story");
+                }
+                page = new Page();
+                page.setStory(story);
+                page.setPageNumber(pageNumber);
+                story.getPages().add(page);
+            }
+            applyPageProperties(page, newPage, items);
+            pages.add(page);
+        }
+
+        List<Page> saved = pageRepository.saveAll(pages);
+        storyRuntimeService.evict(storyId);
+        saved.forEach(page -> storyGraphService.pageSaved(storyId, page));
+        return saved.stream()
+                .map(PageDTO::new)
+                .toList();
+    }
+
+    @Transactional
+    public PageBatchResult applyPageDiffs(Long storyId, List<PageDiffDTO> diffs) {
+        getEditableStory(storyId);
+
+        List<PageDiffDTO> changes = new ArrayList<>();
+        Set<Long> pageIds = new HashSet<>();
+        Set<Long> itemIds = new HashSet<>();
+        for (PageDiffDTO diff : diffs) {
+            if (diff.getId() == null) {
+                throw new BadRequestException("Page id is required");
+            }
+            if (isPositionOnly(diff) && diff.getPositionX() == null && diff.getPositionY() == null) {
+                continue;
+            }
+            changes.add(diff);
+            pageIds.add(diff.getId());
+            if (diff.getItemsGranted() != null) itemIds.addAll(diff.getItemsGranted());
+            if (diff.getItemsRemoved() != null) itemIds.addAll(diff.getItemsRemoved());
+        }
+        if (pageIds.isEmpty()) {
+            return new PageBatchResult(0, 0);
+        }
+        if (pageRepository.countByStoryIdAndIdIn(storyId, pageIds) != pageIds.size()) {
+            throw new NotFoundException("Page not found");
+        }
+
+        Set<Long> editedIds = changes.stream()
+                .filter(diff -> !isPositionOnly(diff))
+                .map(PageDiffDTO::getId)
+                .collect(Collectors.toSet());
+        Map<Long, Page> pages = editedIds.isEmpty() ? Map.of() : pageRepository.findAllById(editedIds).stream()
+                .collect(Collectors.toMap(Page::getId, Function.identity()));
+        Map<Long, Item> items = resolveItems(storyId, itemIds);
+
+        List<Object[]> moves = new ArrayList<>();
+        for (PageDiffDTO diff : changes) {
+            Page page = pages.get(diff.getId());
+            if (page == null) {
+                moves.add(new Object[]{diff.getPositionX(), diff.getPositionY(), diff.getId()});
+            } else {
+                applyPageDiff(page, diff, items);
+            }
+        }
+
+        if (!moves.isEmpty()) {
+            jdbcTemplate.batchUpdate(MOVE_SQL, moves);
+            entityCacheService.evictPages(moves.stream().map(move -> (Long) move[2]).toList());
+        }
+        if (!pages.isEmpty()) {
+            pageRepository.saveAll(pages.values());
+            pages.values().forEach(page -> storyGraphService.pageSaved(storyId, page));
+        }
+        storyRuntimeService.evict(storyId);
+        return new PageBatchResult(pages.size(), moves.size());
+    }
+
     @Transactional
     public void deletePage(Long pageId) {
         Page page = pageRepository.findById(pageId)
@@ -143,12 +278,8 @@ public class PageService {
             throw new BadRequestException("Cannot delete page: it is currently referenced by a playthrough");
         }
 
-        List<Page> pagesInStory = pageRepository.findAllByStoryId(story.getId());
-        for (Page p : pagesInStory) {
-            if (p.getChoices() != null && p.getChoices().removeIf(choice -> choice.getTargetPage().equals(page.getPageNumber()))) {
-                pageRepository.save(p);
-            }
-        }
+        choiceRepository.deleteRequiredItemsTargeting(story.getId(), page.getPageNumber());
+        choiceRepository.deleteTargeting(story.getId(), page.getPageNumber());
 
         if (story.getStartPageNumber() != null && story.getStartPageNumber().equals(page.getPageNumber())) {
             story.setStartPageNumber(null);
@@ -156,6 +287,8 @@ public class PageService {
         }
 
         pageRepository.delete(page);
+        storyRuntimeService.evict(story.getId());
+        storyGraphService.pageDeleted(story.getId(), page.getId(), page.getPageNumber());
     }
 
     private void checkDraftAccess(Story story) {
@@ -167,13 +300,54 @@ public class PageService {
         }
     }
 
-    private void applyPageProperties(Page page, PageDTO newPage) {
-        Set<Item> grantedItems = newPage.getItemsGranted().stream()
-                .map(dto -> itemRepository.findById(dto.getId()).orElseThrow(() -> new NotFoundException("Item not found")))
+    private Story getEditableStory(Long storyId) {
+        Story story = storyRepository.findById(storyId)
+                .orElseThrow(() -> new NotFoundException("Story not found"));
+
+        User currentUser = authService.getAuthenticatedUserOrThrow();
+        if (!story.getUser().getId().equals(currentUser.getId())) {
+            throw new UnauthorizedException("You are not allowed to edit pages of this story");
+        }
+
+        if (story.getStatus() != StoryStatus.DRAFT) {
+            throw new BadRequestException("Pages can only be updated in drafts");
+        }
+        return story;
+    }
+
+    private Map<Long, Item> resolveItems(Long storyId, Collection<PageDTO> pages) {
+        Set<Long> itemIds = new HashSet<>();
+        for (PageDTO dto : pages) {
+            itemIdsOf(dto.getItemsGranted()).forEach(itemIds::add);
+            itemIdsOf(dto.getItemsRemoved()).forEach(itemIds::add);
+        }
+        return resolveItems(storyId, itemIds);
+    }
+
+    private Map<Long, Item> resolveItems(Long storyId, Set<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Item> items = itemRepository.findAllByStoryIdAndIdIn(storyId, itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        if (items.size() != itemIds.size()) {
+            throw new NotFoundException("Item not found");
+        }
+        return items;
+    }
+
+    private static Stream<Long> itemIdsOf(Set<ItemDTO> items) {
+        return items == null ? Stream.empty() : items.stream().map(ItemDTO::getId);
+    }
+
+    private void applyPageProperties(Page page, PageDTO newPage, Map<Long, Item> items) {
+        Set<Item> grantedItems = itemIdsOf(newPage.getItemsGranted())
+                .map(items::get)
                 .collect(Collectors.toSet());
 
-        Set<Item> removedItems = newPage.getItemsRemoved().stream()
-                .map(dto -> itemRepository.findById(dto.getId()).orElseThrow(() -> new NotFoundException("Item not found")))
+        Set<Item> removedItems = itemIdsOf(newPage.getItemsRemoved())
+                .map(items::get)
                 .collect(Collectors.toSet());
 
         page.setTitle(newPage.getTitle());
@@ -186,4 +360,39 @@ public class PageService {
         page.setPositionX(newPage.getPositionX());
         page.setPositionY(newPage.getPositionY());
     }
-}
\ No newline at end of file
+
+    static void requireValidPageNumber(int pageNumber) {
+        if (pageNumber < 1 || pageNumber > MAX_PAGE_NUMBER) {
+            throw new BadRequestException("Page number must be between 1 and " + MAX_PAGE_NUMBER);
+        }
+    }
+
+    private static boolean isPositionOnly(PageDiffDTO diff) {
+        return diff.getTitle() == null && diff.getParagraphs() == null && diff.getChoices() == null
+                && diff.getItemsGranted() == null && diff.getItemsRemoved() == null;
+    }
+
+    private void applyPageDiff(Page page, PageDiffDTO diff, Map<Long, Item> items) {
+        if (diff.getTitle() != null) {
+            page.setTitle(diff.getTitle());
+        }
+        if (diff.getParagraphs() != null) {
+            page.setParagraphs(diff.getParagraphs());
+        }
+        if (diff.getChoices() != null) {
+            page.setChoices(diff.getChoices());
+        }
+        if (diff.getItemsGranted() != null) {
+            page.setItemsGranted(diff.getItemsGranted().stream().map(items::get).collect(Collectors.toSet()));
+        }
+        if (diff.getItemsRemoved() != null) {
+            page.setItemsRemoved(diff.getItemsRemoved().stream().map(items::get).collect(Collectors.toSet()));
+        }
+        if (diff.getPositionX() != null) {
+            page.setPositionX(diff.getPositionX());
+        }
+        if (diff.getPositionY() != null) {
+            page.setPositionY(diff.getPositionY());
+        }
+    }
+}
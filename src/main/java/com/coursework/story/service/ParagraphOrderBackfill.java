@@ -0,0 +1,57 @@
+package com.coursework.story.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// page_paragraphs predates its paragraph_order column, which the schema update adds as 0 on every existing row.
+// Pages left with colliding positions get their paragraphs renumbered in stored order before the app serves them.
+@Component
+@DependsOn("entityManagerFactory")
+public class ParagraphOrderBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(ParagraphOrderBackfill.class);
+
+    static final String FIND_UNORDERED_PAGES = "SELECT page_id FROM page_paragraphs GROUP BY page_id " +
+            "HAVING COUNT(DISTINCT paragraph_order) < COUNT(*)";
+    static final String SELECT_PARAGRAPHS = "SELECT paragraph FROM page_paragraphs WHERE page_id = ?";
+    static final String DELETE_PARAGRAPHS = "DELETE FROM page_paragraphs WHERE page_id = ?";
+    static final String INSERT_PARAGRAPH = "INSERT INTO page_paragraphs (page_id, paragraph, paragraph_order) " +
+            "VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ParagraphOrderBackfill(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        List<Long> pageIds = jdbcTemplate.queryForList(FIND_UNORDERED_PAGES, Long.class);
+        for (Long pageId : pageIds) {
+            transactionTemplate.executeWithoutResult(status -> renumber(pageId));
+        }
+        if (!pageIds.isEmpty()) {
+            log.info("Renumbered paragraphs on {} pages", pageIds.size());
+        }
+    }
+
+    private void renumber(Long pageId) {
+        List<String> paragraphs = jdbcTemplate.queryForList(SELECT_PARAGRAPHS, String.class, pageId);
+        List<Object[]> rows = new ArrayList<>(paragraphs.size());
+        for (int i = 0; i < paragraphs.size(); i++) {
+            rows.add(new Object[]{pageId, paragraphs.get(i), i});
+        }
+        jdbcTemplate.update(DELETE_PARAGRAPHS, pageId);
+        jdbcTemplate.batchUpdate(INSERT_PARAGRAPH, rows);
+    }
+}
@@ -1,5 +1,7 @@
 package com.coursework.story.service;
 
+import com.coursework.story.dto.CursorPage;
+import com.coursework.story.dto.PageCursor;
 import com.coursework.story.dto.PageDTO;
 import com.coursework.story.dto.PlaythroughDTO;
 import com.coursework.story.dto.StatCheckResult;
@@ -7,18 +9,20 @@ import com.coursework.story.exception.BadRequestException;
 import com.coursework.story.exception.NotFoundException;
 import com.coursework.story.exception.UnauthorizedException;
 import com.coursework.story.model.*;
-import com.coursework.story.repository.ChoiceRepository;
+import com.coursework.story.repository.ItemRepository;
 import com.coursework.story.repository.PageRepository;
 import com.coursework.story.repository.PlaythroughRepository;
 import com.coursework.story.repository.StoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.*;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 @Service
@@ -26,19 +30,31 @@ public class PlaythroughService {
     private final PlaythroughRepository playthroughRepository;
     private final StoryRepository storyRepository;
     private final PageRepository pageRepository;
-    private final ChoiceRepository choiceRepository;
+    private final ItemRepository itemRepository;
     private final BattleService battleService;
     private final AuthService authService;
+    private final StoryRuntimeService storyRuntimeService;
+    private final StoryCounterService storyCounterService;
+    private final ApproximateCountService approximateCountService;
+    private final Timer choiceTimer;
 
     public PlaythroughService(PlaythroughRepository playthroughRepository, StoryRepository storyRepository,
-                              PageRepository pageRepository, ChoiceRepository choiceRepository,
-                              BattleService battleService, AuthService authService) {
+                              PageRepository pageRepository, ItemRepository itemRepository,
+                              BattleService battleService, AuthService authService,
+                              StoryRuntimeService storyRuntimeService, StoryCounterService storyCounterService,
+                              ApproximateCountService approximateCountService, MeterRegistry meterRegistry) {
         this.playthroughRepository = playthroughRepository;
         this.storyRepository = storyRepository;
         this.pageRepository = pageRepository;
-        this.choiceRepository = choiceRepository;
+        this.itemRepository = itemRepository;
         this.battleService = battleService;
         this.authService = authService;
+        this.storyRuntimeService = storyRuntimeService;
+        this.storyCounterService = storyCounterService;
+        this.approximateCountService = approximateCountService;
+        this.choiceTimer = Timer.builder("story.playthrough.choice")
+                .description("Time spent resolving a playthrough choice")
+                .register(meterRegistry);
     }
 
     @Transactional
@@ -50,16 +66,16 @@ public class PlaythroughService {
 
         boolean isFirstPlaythrough = playthroughRepository.countByUserAndStory(user, story) == 0;
 
+        StoryRuntime runtime = storyRuntimeService.getRuntime(storyId);
         Integer startPageNumber = story.getStartPageNumber();
-        Page startPage = story.getPages().stream()
-                .filter(p -> p.getPageNumber() == startPageNumber)
-                .findFirst()
+        StoryRuntime.RuntimePage startPage = Optional.ofNullable(startPageNumber)
+                .flatMap(runtime::getPage)
                 .orElseThrow(() -> new NotFoundException("Start page not found"));
 
         Playthrough playthrough = new Playthrough();
         playthrough.setUser(user);
         playthrough.setStory(story);
-        playthrough.setCurrentPage(startPage);
+        playthrough.setCurrentPage(pageRepository.getReferenceById(startPage.id()));
         playthrough.setPath(new ArrayList<>(List.of(startPageNumber)));
         playthrough.setActive(true);
         playthrough.setCompleted(false);
@@ -68,67 +84,60 @@ public class PlaythroughService {
         //TODO: Add custom stats/presets
         playthrough.setStats(generateRandomStats());
 
-        boolean luckRequired = startPage.getChoices().stream()
-                .anyMatch(Choice::getRequiresLuckCheck);
-        playthrough.setLuckRequired(luckRequired);
+        playthrough.setLuckRequired(startPage.luckRequired());
         playthrough.setLuckPassed(false);
 
-        if (startPage.getEnemy() != null) {
+        if (startPage.hasEnemy()) {
             playthrough.setBattlePending(true);
         }
 
-        StatModifiers modifiers = startPage.getStatModifiers();
+        StatModifiers modifiers = startPage.statModifiers();
         if (modifiers != null) {
-            PlayerStats stats = playthrough.getStats();
-
-            if (modifiers.getSkill() != null) {
-                stats.setSkill(stats.getSkill() + modifiers.getSkill());
-            }
-            if (modifiers.getStamina() != null) {
-                stats.setStamina(stats.getStamina() + modifiers.getStamina());
-            }
-            if (modifiers.getLuck() != null) {
-                stats.setLuck(stats.getLuck() + modifiers.getLuck());
-            }
+            applyModifiers(playthrough.getStats(), modifiers);
         }
 
         Playthrough savedPlaythrough = playthroughRepository.save(playthrough);
 
         if (isFirstPlaythrough) {
-            story.incrementReads();
-            storyRepository.save(story);
+            storyCounterService.recordRead(storyId);
         }
 
-        return new PlaythroughDTO(savedPlaythrough);
+        return new PlaythroughDTO(savedPlaythrough, startPage.pageNumber(), runtime.getPageCount(), null);
     }
 
     @Transactional
     public PageDTO choosePage(Long playthroughId, int pageNumber) {
         Playthrough playthrough = getPlaythroughOwnedByUser(playthroughId);
 
-        Page nextPage = pageRepository.findByStoryIdAndPageNumber(playthrough.getStory().getId(), pageNumber)
+        StoryRuntime runtime = storyRuntimeService.getRuntime(playthrough.getStory().getId());
+        StoryRuntime.RuntimePage nextPage = runtime.getPage(pageNumber)
                 .orElseThrow(() -> new NotFoundException("Page not found"));
 
-        playthrough.setCurrentPage(nextPage);
-        playthrough.getPath().add(pageNumber);
+        requirePathCapacity(playthrough);
+        playthrough.setCurrentPage(pageRepository.getReferenceById(nextPage.id()));
+        playthrough.appendToPath(pageNumber);
         playthrough.setLastVisited(LocalDateTime.now());
 
-        if (nextPage.isEndPage()) {
+        if (nextPage.endPage()) {
             playthrough.setCompleted(true);
         }
         playthroughRepository.save(playthrough);
 
-        return new PageDTO(nextPage);
+        return nextPage.view();
     }
 
     @Transactional
     public PlaythroughDTO resolveChoice(Long playthroughId, Long choiceId) {
+        return choiceTimer.record(() -> applyChoice(playthroughId, choiceId));
+    }
+
+    private PlaythroughDTO applyChoice(Long playthroughId, Long choiceId) {
         Playthrough playthrough = getPlaythroughOwnedByUser(playthroughId);
-        Choice choice = choiceRepository.findByIdAndPage(choiceId, playthrough.getCurrentPage())
+        StoryRuntime runtime = storyRuntimeService.getRuntime(playthrough.getStory().getId());
+        StoryRuntime.RuntimeChoice choice = runtime.getChoice(choiceId)
+                .filter(c -> Objects.equals(c.pageId(), playthrough.getCurrentPage().getId()))
                 .orElseThrow(() -> new NotFoundException("Choice not present on page"));
 
-        //TODO: Add check if choice is from current page
-
         if (playthrough.isBattlePending()) {
             throw new BadRequestException("There is a battle that isn't completed yet");
         }
@@ -137,68 +146,76 @@ public class PlaythroughService {
             throw new BadRequestException("Luck check is not completed, perform the luck check");
         }
 
-        if (choice.getRequiresLuckCheck() && !playthrough.isLuckPassed()) {
+        if (choice.requiresLuckCheck() && !playthrough.isLuckPassed()) {
             throw new BadRequestException("Required luck check failed, select a different choice");
         }
 
-        for (Item required : choice.getRequiredItems()) {
-            if (!playthrough.getInventory().contains(required)) {
-                throw new BadRequestException("Missing required item: " + required.getName());
+        Set<Long> inventoryIds = playthrough.getInventory().stream()
+                .map(Item::getId)
+                .collect(Collectors.toSet());
+
+        for (StoryRuntime.RuntimeItem required : choice.requiredItems()) {
+            if (!inventoryIds.contains(required.id())) {
+                throw new BadRequestException("Missing required item: " + required.name());
             }
         }
 
-
-        Page nextPage = pageRepository.findByStoryIdAndPageNumber(playthrough.getStory().getId(), choice.getTargetPage())
+        StoryRuntime.RuntimePage nextPage = Optional.ofNullable(choice.targetPage())
+                .flatMap(runtime::getPage)
                 .orElseThrow(() -> new NotFoundException("Page not found in story"));
 
-        playthrough.setCurrentPage(nextPage);
-        playthrough.getPath().add(choice.getTargetPage());
+        requirePathCapacity(playthrough);
+        playthrough.setCurrentPage(pageRepository.getReferenceById(nextPage.id()));
+        playthrough.appendToPath(nextPage.pageNumber());
         playthrough.setLastVisited(LocalDateTime.now());
 
-        if (nextPage.isEndPage()) {
+        if (nextPage.endPage()) {
             playthrough.setCompleted(true);
         }
 
-        boolean luckRequired = nextPage.getChoices().stream()
-                .anyMatch(Choice::getRequiresLuckCheck);
-
-        playthrough.setLuckRequired(luckRequired);
+        playthrough.setLuckRequired(nextPage.luckRequired());
         playthrough.setLuckPassed(false);
 
-        if (nextPage.getEnemy() != null) {
+        if (nextPage.hasEnemy()) {
             playthrough.setBattlePending(true);
         }
 
         PlayerStats stats = playthrough.getStats();
 
-        StatModifiers pageModifiers = nextPage.getStatModifiers();
+        StatModifiers pageModifiers = nextPage.statModifiers();
         if (pageModifiers != null) {
             applyModifiers(stats, pageModifiers);
         }
 
-        for (Item item : nextPage.getItemsGranted()) {
-            if (!playthrough.getInventory().contains(item)) {
-                playthrough.getInventory().add(item);
-                StatModifiers itemMods = item.getStatModifiers();
-                if (itemMods != null) {
-                    applyModifiers(stats, itemMods);
+        List<Long> grantedIds = new ArrayList<>();
+        for (StoryRuntime.RuntimeItem item : nextPage.itemsGranted()) {
+            if (inventoryIds.add(item.id())) {
+                grantedIds.add(item.id());
+                if (item.statModifiers() != null) {
+                    applyModifiers(stats, item.statModifiers());
                 }
             }
         }
+        if (!grantedIds.isEmpty()) {
+            playthrough.getInventory().addAll(itemRepository.findAllById(grantedIds));
+        }
 
-        for (Item item : nextPage.getItemsRemoved()) {
-            if (playthrough.getInventory().contains(item)) {
-                playthrough.getInventory().remove(item);
-                StatModifiers itemMods = item.getStatModifiers();
-                if (itemMods != null) {
-                    revertModifiers(stats, itemMods);
+        Set<Long> removedIds = new HashSet<>();
+        for (StoryRuntime.RuntimeItem item : nextPage.itemsRemoved()) {
+            if (inventoryIds.remove(item.id())) {
+                removedIds.add(item.id());
+                if (item.statModifiers() != null) {
+                    revertModifiers(stats, item.statModifiers());
                 }
             }
         }
+        if (!removedIds.isEmpty()) {
+            playthrough.getInventory().removeIf(item -> removedIds.contains(item.getId()));
+        }
 
         playthroughRepository.save(playthrough);
 
-        return new PlaythroughDTO(playthrough, nextPage);
+        return new PlaythroughDTO(playthrough, nextPage.pageNumber(), runtime.getPageCount(), nextPage.view());
     }
 
     private void applyModifiers(PlayerStats stats, StatModifiers mods) {
@@ -342,7 +359,14 @@ public class PlaythroughService {
 
     public PlaythroughDTO getPlaythroughById(Long playthroughId) {
         Playthrough playthrough = getPlaythroughOwnedByUser(playthroughId);
-        return new PlaythroughDTO(playthrough, playthrough.getCurrentPage());
+        PlaythroughDTO dto = new PlaythroughDTO(playthrough, playthrough.getCurrentPage());
+        dto.setPath(playthrough.getPath());
+        return dto;
+    }
+
+    public List<Integer> getPlaythroughPath(Long playthroughId) {
+        Playthrough playthrough = getPlaythroughOwnedByUser(playthroughId);
+        return playthrough.getPath();
     }
 
     public List<PlaythroughDTO> getPlaythroughsForUserAndStory(Long storyId) {
@@ -378,6 +402,24 @@ public class PlaythroughService {
         return page.map(PlaythroughDTO::new);
     }
 
+    public CursorPage<PlaythroughDTO> getPlaythroughsForUserByCursor(String query, String cursor, int size,
+                                                                     boolean approximateCount) {
+        User user = authService.getAuthenticatedUserOrThrow();
+        String titleQuery = (query != null && !query.isBlank()) ? query : null;
+        PageCursor after = PageCursor.decode(cursor);
+        Limit limit = Limit.of(size + 1);
+        List<Playthrough> rows = after == null
+                ? playthroughRepository.findByUserSeek(user, titleQuery, limit)
+                : playthroughRepository.findByUserSeekAfter(user, titleQuery, after.sortKey(), after.id(), limit);
+        Long total = approximateCount
+                ? approximateCountService.count("playthroughs:user:" + user.getId() + ":" + titleQuery,
+                        () -> playthroughRepository.countByUserAndStoryTitle(user, titleQuery))
+                : null;
+
+        return CursorPage.of(rows, size, playthrough -> new PageCursor(playthrough.getLastVisited(), playthrough.getId()),
+                playthroughs -> playthroughs.stream().map(PlaythroughDTO::new).toList(), total);
+    }
+
     @Transactional
     public void deletePlaythrough(Long playthroughId) {
         Playthrough playthrough = getPlaythroughOwnedByUser(playthroughId);
@@ -394,6 +436,12 @@ public class PlaythroughService {
         return playthrough;
     }
 
+    private void requirePathCapacity(Playthrough playthrough) {
+        if (playthrough.isPathFull()) {
+            throw new BadRequestException("Playthrough path is full, start a new playthrough");
+        }
+    }
+
     private int rollDice(int number) {
         Random random = new Random();
         return IntStream.range(0, number)
@@ -0,0 +1,70 @@
+package com.coursework.story.service;
+
+import com.coursework.story.model.Genre;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+import java.util.List;
+import java.util.Set;
+
+// Gzip-compressed JSON Lines, parents before children; ids only link records within one bundle
+public final class StoryBundle {
+
+    public static final int FORMAT = 1;
+
+    private StoryBundle() {
+    }
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+    @JsonSubTypes({
+            @JsonSubTypes.Type(Header.class),
+            @JsonSubTypes.Type(ItemRecord.class),
+            @JsonSubTypes.Type(PageRecord.class),
+            @JsonSubTypes.Type(ParagraphRecord.class),
+            @JsonSubTypes.Type(ChoiceRecord.class),
+            @JsonSubTypes.Type(RequiredItemRecord.class),
+            @JsonSubTypes.Type(GrantedItemRecord.class),
+            @JsonSubTypes.Type(RemovedItemRecord.class)
+    })
+    public sealed interface Record permits Header, ItemRecord, PageRecord, ParagraphRecord, ChoiceRecord,
+            RequiredItemRecord, GrantedItemRecord, RemovedItemRecord {
+    }
+
+    @JsonTypeName("story")
+    public record Header(int format, String title, String description, String coverImageUrl, List<Genre> genres,
+                         Set<String> tags, Integer startPageNumber) implements Record {
+    }
+
+    @JsonTypeName("item")
+    public record ItemRecord(long id, String name, String description, String icon, Integer skill, Integer stamina,
+                             Integer luck) implements Record {
+    }
+
+    @JsonTypeName("page")
+    public record PageRecord(long id, int pageNumber, String title, String enemyName, Integer enemySkill,
+                             Integer enemyStamina, Integer skill, Integer stamina, Integer luck, Double positionX,
+                             Double positionY) implements Record {
+    }
+
+    @JsonTypeName("paragraph")
+    public record ParagraphRecord(long page, String text) implements Record {
+    }
+
+    @JsonTypeName("choice")
+    public record ChoiceRecord(long id, long page, String text, Integer targetPage, boolean requiresLuckCheck)
+            implements Record {
+    }
+
+    @JsonTypeName("requiredItem")
+    public record RequiredItemRecord(long page, long choice, long item) implements Record {
+    }
+
+    @JsonTypeName("grantedItem")
+    public record GrantedItemRecord(long page, long item) implements Record {
+    }
+
+    @JsonTypeName("removedItem")
+    public record RemovedItemRecord(long page, long item) implements Record {
+    }
+}
@@ -0,0 +1,295 @@
+package com.coursework.story.service;
+
+import com.coursework.story.exception.BadRequestException;
+import com.coursework.story.exception.NotFoundException;
+import com.coursework.story.exception.UnauthorizedException;
+import com.coursework.story.model.Story;
+import com.coursework.story.model.StoryStatus;
+import com.coursework.story.model.User;
+import com.coursework.story.repository.StoryRepository;
+import com.coursework.story.service.StoryBundle.*;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class StoryBundleService {
+
+    static final String SELECT_ITEMS = "SELECT i.id, i.name, i.description, i.icon, i.skill, i.stamina, i.luck " +
+            "FROM item i WHERE i.story_id = ? ORDER BY i.id";
+    static final String SELECT_PAGES = "SELECT p.id, p.page_number, p.title, p.enemy_name, p.enemy_skill, " +
+            "p.enemy_stamina, p.skill, p.stamina, p.luck, p.position_x, p.position_y " +
+            "FROM pages p WHERE p.story_id = ? ORDER BY p.id";
+    static final String SELECT_PARAGRAPHS = "SELECT pp.page_id, pp.paragraph " +
+            "FROM pages p JOIN page_paragraphs pp ON pp.page_id = p.id WHERE p.story_id = ? " +
+            "ORDER BY p.id, pp.paragraph_order";
+    static final String SELECT_CHOICES = "SELECT c.id, c.page_id, c.text, c.target_page, c.requires_luck_check " +
+            "FROM pages p JOIN choices c ON c.page_id = p.id WHERE p.story_id = ? ORDER BY c.id";
+    static final String SELECT_REQUIRED_ITEMS = "SELECT c.page_id, cri.choice_id, cri.item_id FROM pages p " +
+            "JOIN choices c ON c.page_id = p.id " +
+            "JOIN choice_required_items cri ON cri.choice_id = c.id WHERE p.story_id = ?";
+    static final String SELECT_GRANTED_ITEMS = "SELECT pgi.page_id, pgi.item_id " +
+            "FROM pages p JOIN page_granted_items pgi ON pgi.page_id = p.id WHERE p.story_id = ?";
+    static final String SELECT_REMOVED_ITEMS = "SELECT pri.page_id, pri.item_id " +
+            "FROM pages p JOIN page_removed_items pri ON pri.page_id = p.id WHERE p.story_id = ?";
+
+    static final String INSERT_ITEM = "INSERT INTO item (name, description, icon, skill, stamina, luck, " +
+            "story_id, source_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    static final String INSERT_PAGE = "INSERT INTO pages (title, page_number, story_id, enemy_name, enemy_skill, " +
+            "enemy_stamina, skill, stamina, luck, position_x, position_y, source_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    static final String INSERT_PARAGRAPH = "INSERT INTO page_paragraphs (page_id, paragraph, paragraph_order) " +
+            "SELECT p.id, ?, ? FROM pages p WHERE p.story_id = ? AND p.source_id = ?";
+    static final String INSERT_CHOICE = "INSERT INTO choices (text, target_page, requires_luck_check, page_id, " +
+            "source_id) SELECT ?, ?, ?, p.id, ? FROM pages p WHERE p.story_id = ? AND p.source_id = ?";
+    static final String INSERT_REQUIRED_ITEM = "INSERT INTO choice_required_items (choice_id, item_id) " +
+            "SELECT c.id, i.id FROM pages p JOIN choices c ON c.page_id = p.id " +
+            "JOIN item i ON i.story_id = p.story_id " +
+            "WHERE p.story_id = ? AND p.source_id = ? AND c.source_id = ? AND i.source_id = ?";
+    static final String INSERT_GRANTED_ITEM = "INSERT INTO page_granted_items (page_id, item_id) " +
+            "SELECT p.id, i.id FROM pages p JOIN item i ON i.story_id = p.story_id " +
+            "WHERE p.story_id = ? AND p.source_id = ? AND i.source_id = ?";
+    static final String INSERT_REMOVED_ITEM = "INSERT INTO page_removed_items (page_id, item_id) " +
+            "SELECT p.id, i.id FROM pages p JOIN item i ON i.story_id = p.story_id " +
+            "WHERE p.story_id = ? AND p.source_id = ? AND i.source_id = ?";
+
+    private final StoryRepository storyRepository;
+    private final AuthService authService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int fetchSize;
+
+    public StoryBundleService(StoryRepository storyRepository, AuthService authService, JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                              @Value("${story.app.bundle.batchSize:500}") int batchSize,
+                              @Value("${story.app.bundle.fetchSize:500}") int fetchSize) {
+        this.storyRepository = storyRepository;
+        this.authService = authService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.fetchSize = fetchSize;
+    }
+
+    public StreamingResponseBody exportBundle(Long storyId) {
+        User user = authService.getAuthenticatedUserOrThrow();
+        Story story = storyRepository.findById(storyId)
+                .orElseThrow(() -> new NotFoundException("Story not found"));
+        if (!story.getUser().getId().equals(user.getId())) {
+            throw new UnauthorizedException("Unauthorized to export this story");
+        }
+
+        Header header = new Header(StoryBundle.FORMAT, story.getTitle(), story.getDescription(),
+                story.getCoverImageUrl(), new ArrayList<>(story.getGenres()), new HashSet<>(story.getTags()),
+                story.getStartPageNumber());
+        return out -> writeBundle(storyId, header, out);
+    }
+
+    void writeBundle(Long storyId, Header header, OutputStream out) throws IOException {
+        try (SequenceWriter writer = objectMapper.writerFor(StoryBundle.Record.class)
+                .withRootValueSeparator("\n")
+                .writeValues(new GZIPOutputStream(out, 64 * 1024))) {
+            writer.write(header);
+            transactionTemplate.executeWithoutResult(status -> {
+                stream(SELECT_ITEMS, storyId, writer, rs -> new ItemRecord(rs.getLong(1), rs.getString(2),
+                        rs.getString(3), rs.getString(4), rs.getObject(5, Integer.class),
+                        rs.getObject(6, Integer.class), rs.getObject(7, Integer.class)));
+                stream(SELECT_PAGES, storyId, writer, rs -> new PageRecord(rs.getLong(1), rs.getInt(2),
+                        rs.getString(3), rs.getString(4), rs.getObject(5, Integer.class),
+                        rs.getObject(6, Integer.class), rs.getObject(7, Integer.class),
+                        rs.getObject(8, Integer.class), rs.getObject(9, Integer.class),
+                        rs.getObject(10, Double.class), rs.getObject(11, Double.class)));
+                stream(SELECT_PARAGRAPHS, storyId, writer,
+                        rs -> new ParagraphRecord(rs.getLong(1), rs.getString(2)));
+                stream(SELECT_CHOICES, storyId, writer, rs -> new ChoiceRecord(rs.getLong(1), rs.getLong(2),
+                        rs.getString(3), rs.getObject(4, Integer.class), rs.getBoolean(5)));
+                stream(SELECT_REQUIRED_ITEMS, storyId, writer,
+                        rs -> new RequiredItemRecord(rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+                stream(SELECT_GRANTED_ITEMS, storyId, writer,
+                        rs -> new GrantedItemRecord(rs.getLong(1), rs.getLong(2)));
+                stream(SELECT_REMOVED_ITEMS, storyId, writer,
+                        rs -> new RemovedItemRecord(rs.getLong(1), rs.getLong(2)));
+            });
+        }
+    }
+
+    @Transactional
+    public ImportReport importBundle(InputStream in) {
+        User user = authService.getAuthenticatedUserOrThrow();
+
+        try (MappingIterator<StoryBundle.Record> records = objectMapper.readerFor(StoryBundle.Record.class)
+                .readValues(new GZIPInputStream(in, 64 * 1024))) {
+            if (!records.hasNext() || !(records.next() instanceof Header header)) {
+                throw new BadRequestException("Story bundle must start with a story record");
+            }
+            if (header.format() != StoryBundle.FORMAT) {
+                throw new BadRequestException("Unsupported story bundle format: " + header.format());
+            }
+
+            Story draft = storyRepository.save(newDraft(header, user));
+            BundleInserter inserter = new BundleInserter(draft.getId());
+            while (records.hasNext()) {
+                inserter.add(records.next());
+            }
+            inserter.flush();
+            return inserter.report();
+        } catch (IOException | RuntimeJsonMappingException e) {
+            throw new BadRequestException("Invalid story bundle");
+        }
+    }
+
+    private static Story newDraft(Header header, User user) {
+        Story draft = new Story();
+        draft.setTitle(header.title());
+        draft.setDescription(header.description());
+        draft.setCoverImageUrl(header.coverImageUrl());
+        draft.setGenres(header.genres() == null ? new ArrayList<>() : new ArrayList<>(header.genres()));
+        draft.setTags(header.tags() == null ? new HashSet<>() : new HashSet<>(header.tags()));
+        draft.setStartPageNumber(header.startPageNumber());
+        draft.setStatus(StoryStatus.DRAFT);
+        draft.setUser(user);
+        return draft;
+    }
+
+    private void stream(String sql, Long storyId, SequenceWriter writer, RecordMapper mapper) {
+        RowCallbackHandler handler = rs -> {
+            try {
+                writer.write(mapper.map(rs));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            // Connector/J streams rows one at a time only for Integer.MIN_VALUE; other drivers take a batch size
+            boolean mysql = con.getMetaData().getDriverName().startsWith("MySQL");
+            statement.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+            statement.setLong(1, storyId);
+            return statement;
+        }, handler);
+    }
+
+    @FunctionalInterface
+    private interface RecordMapper {
+        StoryBundle.Record map(ResultSet rs) throws SQLException;
+    }
+
+    private class BundleInserter {
+
+        private final Long storyId;
+        private final Map<String, Integer> inserted = new HashMap<>();
+        // paragraphs are exported in order, so their position is how many of the page's paragraphs came before
+        private final Map<Long, Integer> paragraphsByPage = new HashMap<>();
+        private List<Object[]> pending = new ArrayList<>();
+        private String pendingSql;
+
+        BundleInserter(Long storyId) {
+            this.storyId = storyId;
+        }
+
+        void add(StoryBundle.Record record) {
+            String sql;
+            Object[] row;
+            switch (record) {
+                case ItemRecord item -> {
+                    sql = INSERT_ITEM;
+                    row = new Object[]{item.name(), item.description(), item.icon(), item.skill(), item.stamina(),
+                            item.luck(), storyId, item.id()};
+                }
+                case PageRecord page -> {
+                    PageService.requireValidPageNumber(page.pageNumber());
+                    sql = INSERT_PAGE;
+                    row = new Object[]{page.title(), page.pageNumber(), storyId, page.enemyName(), page.enemySkill(),
+                            page.enemyStamina(), page.skill(), page.stamina(), page.luck(), page.positionX(),
+                            page.positionY(), page.id()};
+                }
+                case ParagraphRecord paragraph -> {
+                    sql = INSERT_PARAGRAPH;
+                    int order = paragraphsByPage.merge(paragraph.page(), 1, Integer::sum) - 1;
+                    row = new Object[]{paragraph.text(), order, storyId, paragraph.page()};
+                }
+                case ChoiceRecord choice -> {
+                    sql = INSERT_CHOICE;
+                    row = new Object[]{choice.text(), choice.targetPage(), choice.requiresLuckCheck(), choice.id(),
+                            storyId, choice.page()};
+                }
+                case RequiredItemRecord link -> {
+                    sql = INSERT_REQUIRED_ITEM;
+                    row = new Object[]{storyId, link.page(), link.choice(), link.item()};
+                }
+                case GrantedItemRecord link -> {
+                    sql = INSERT_GRANTED_ITEM;
+                    row = new Object[]{storyId, link.page(), link.item()};
+                }
+                case RemovedItemRecord link -> {
+                    sql = INSERT_REMOVED_ITEM;
+                    row = new Object[]{storyId, link.page(), link.item()};
+                }
+                case Header header -> throw new BadRequestException("Story bundle contains more than one story");
+            }
+
+            if (!sql.equals(pendingSql) || pending.size() >= batchSize) {
+                flush();
+                pendingSql = sql;
+            }
+            pending.add(row);
+        }
+
+        void flush() {
+            if (!pending.isEmpty()) {
+                int rows = 0;
+                for (int count : jdbcTemplate.batchUpdate(pendingSql, pending)) {
+                    // INSERT ... SELECT inserts nothing when the page, choice or item it points at is missing
+                    if (count == 0) {
+                        throw new BadRequestException("Story bundle references a missing page, choice or item");
+                    }
+                    // rewritten multi-row VALUES batches report no per-row count, but each inserts exactly one row
+                    rows += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+                }
+                inserted.merge(pendingSql, rows, Integer::sum);
+                pending = new ArrayList<>();
+            }
+        }
+
+        ImportReport report() {
+            return new ImportReport(storyId, inserted(INSERT_ITEM), inserted(INSERT_PAGE), inserted(INSERT_PARAGRAPH),
+                    inserted(INSERT_CHOICE), inserted(INSERT_REQUIRED_ITEM) + inserted(INSERT_GRANTED_ITEM)
+                    + inserted(INSERT_REMOVED_ITEM));
+        }
+
+        private int inserted(String sql) {
+            return inserted.getOrDefault(sql, 0);
+        }
+    }
+
+    public record ImportReport(Long storyId, int items, int pages, int paragraphs, int choices, int itemLinks) {
+    }
+}
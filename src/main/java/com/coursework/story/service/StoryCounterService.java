@@ -0,0 +1,173 @@
+package com.coursework.story.service;
+
+import com.coursework.story.model.Story;
+import com.coursework.story.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class StoryCounterService {
+
+    static final String FLUSH_SQL = "UPDATE stories SET " +
+            "likes = GREATEST(0, likes + ?), " +
+            "favorites = GREATEST(0, favorites + ?), " +
+            "`reads` = `reads` + ? " +
+            "WHERE id = ?";
+    static final String DRIFT_SQL = "SELECT s.id, " +
+            "(SELECT COUNT(*) FROM user_likes ul WHERE ul.story_id = s.id) - s.likes, " +
+            "(SELECT COUNT(*) FROM user_favorites uf WHERE uf.story_id = s.id) - s.favorites " +
+            "FROM stories s WHERE s.id > ? ORDER BY s.id LIMIT ?";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityCacheService entityCacheService;
+    private final int reconcileBatchSize;
+    private final Map<Long, PendingCounts> pending = new ConcurrentHashMap<>();
+    // drift seen by the previous reconcile pass, applied only if the next pass sees the same drift again
+    private Map<Long, Drift> suspectedDrift = Map.of();
+
+    public StoryCounterService(UserRepository userRepository, JdbcTemplate jdbcTemplate,
+                               EntityCacheService entityCacheService, MeterRegistry meterRegistry,
+                               @Value("${story.app.counters.reconcileBatchSize:500}") int reconcileBatchSize) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityCacheService = entityCacheService;
+        this.reconcileBatchSize = reconcileBatchSize;
+        Gauge.builder("story.counters.pending", pending, Map::size)
+                .description("Stories with counter updates not yet flushed to the database")
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    public Toggle toggleLike(Long userId, Long storyId) {
+        if (userRepository.removeLike(userId, storyId) > 0) {
+            TransactionCallbacks.afterCommit(() -> pending(storyId).likes.decrement());
+            return new Toggle(false, -1);
+        }
+        if (userRepository.addLike(userId, storyId) > 0) {
+            TransactionCallbacks.afterCommit(() -> pending(storyId).likes.increment());
+            return new Toggle(true, 1);
+        }
+        return new Toggle(true, 0);
+    }
+
+    @Transactional
+    public Toggle toggleFavorite(Long userId, Long storyId) {
+        if (userRepository.removeFavorite(userId, storyId) > 0) {
+            TransactionCallbacks.afterCommit(() -> pending(storyId).favorites.decrement());
+            return new Toggle(false, -1);
+        }
+        if (userRepository.addFavorite(userId, storyId) > 0) {
+            TransactionCallbacks.afterCommit(() -> pending(storyId).favorites.increment());
+            return new Toggle(true, 1);
+        }
+        return new Toggle(true, 0);
+    }
+
+    public void recordRead(Long storyId) {
+        TransactionCallbacks.afterCommit(() -> pending(storyId).reads.increment());
+    }
+
+    public int currentLikes(Story story) {
+        PendingCounts counts = pending.get(story.getId());
+        long delta = counts == null ? 0 : counts.likes.sum();
+        return (int) Math.max(0, story.getLikes() + delta);
+    }
+
+    @Scheduled(fixedDelayString = "${story.app.counters.flushMillis:1000}")
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, PendingCounts> entry : pending.entrySet()) {
+            PendingCounts counts = entry.getValue();
+            long likes = counts.likes.sumThenReset();
+            long favorites = counts.favorites.sumThenReset();
+            long reads = counts.reads.sumThenReset();
+            if (likes != 0 || favorites != 0 || reads != 0) {
+                batch.add(new Object[]{likes, favorites, reads, entry.getKey()});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+        } catch (RuntimeException e) {
+            for (Object[] row : batch) {
+                PendingCounts counts = pending((Long) row[3]);
+                counts.likes.add((Long) row[0]);
+                counts.favorites.add((Long) row[1]);
+                counts.reads.add((Long) row[2]);
+            }
+            throw e;
+        }
+        entityCacheService.evictStories(batch.stream().map(row -> (Long) row[3]).toList());
+    }
+
+    @Scheduled(fixedDelayString = "${story.app.counters.reconcileMillis:3600000}",
+            initialDelayString = "${story.app.counters.reconcileMillis:3600000}")
+    public void reconcile() {
+        // Drift is measured one range of stories at a time and fed back through the pending counters, so
+        // toggles never wait on it. A toggle committed on any instance but not yet flushed looks like drift
+        // for one flush interval; only drift that is still identical a whole pass later gets corrected.
+        Map<Long, Drift> observed = new HashMap<>();
+        long afterId = 0;
+        List<Drift> batch;
+        do {
+            batch = jdbcTemplate.query(DRIFT_SQL, (rs, rowNum) -> new Drift(rs.getLong(1), rs.getLong(2),
+                    rs.getLong(3)), afterId, reconcileBatchSize);
+            for (Drift drift : batch) {
+                afterId = drift.storyId();
+                PendingCounts counts = pending.get(drift.storyId());
+                Drift unflushed = counts == null ? drift
+                        : new Drift(drift.storyId(), drift.likes() - counts.likes.sum(),
+                        drift.favorites() - counts.favorites.sum());
+                if (unflushed.likes() == 0 && unflushed.favorites() == 0) {
+                    continue;
+                }
+                if (unflushed.equals(suspectedDrift.get(drift.storyId()))) {
+                    PendingCounts correction = pending(drift.storyId());
+                    correction.likes.add(unflushed.likes());
+                    correction.favorites.add(unflushed.favorites());
+                } else {
+                    observed.put(drift.storyId(), unflushed);
+                }
+            }
+        } while (batch.size() == reconcileBatchSize);
+        suspectedDrift = observed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private PendingCounts pending(Long storyId) {
+        return pending.computeIfAbsent(storyId, id -> new PendingCounts());
+    }
+
+    public record Toggle(boolean active, int delta) {
+    }
+
+    record Drift(long storyId, long likes, long favorites) {
+    }
+
+    private static final class PendingCounts {
+        private final LongAdder likes = new LongAdder();
+        private final LongAdder favorites = new LongAdder();
+        private final LongAdder reads = new LongAdder();
+    }
+}
@@ -0,0 +1,315 @@
+package com.coursework.story.service;
+
+import com.coursework.story.repository.PageEdgeRow;
+
+import java.util.*;
+
+public final class StoryGraph {
+
+    private final Map<Long, Integer> pageNumbers = new HashMap<>();
+    private final Map<Integer, Set<Long>> pagesByNumber = new HashMap<>();
+    private final Map<Long, List<Integer>> outgoing = new HashMap<>();
+    private final Map<Integer, Map<Long, Integer>> incoming = new HashMap<>();
+    private final Map<Long, Integer> resolvedOut = new HashMap<>();
+    private final Set<Integer> duplicates = new TreeSet<>();
+    private final Set<Integer> danglingTargets = new TreeSet<>();
+    private final Set<Long> deadEnds = new HashSet<>();
+
+    private Integer reachableFrom;
+    private Set<Integer> reachable;
+    private List<List<Integer>> cycles;
+
+    public static StoryGraph load(Collection<PageEdgeRow> rows) {
+        Map<Long, Integer> numbers = new LinkedHashMap<>();
+        Map<Long, List<Integer>> targets = new HashMap<>();
+        for (PageEdgeRow row : rows) {
+            numbers.put(row.pageId(), row.pageNumber());
+            List<Integer> pageTargets = targets.computeIfAbsent(row.pageId(), id -> new ArrayList<>());
+            if (row.targetPage() != null) {
+                pageTargets.add(row.targetPage());
+            }
+        }
+
+        StoryGraph graph = new StoryGraph();
+        numbers.forEach((pageId, pageNumber) -> graph.putPage(pageId, pageNumber, targets.get(pageId)));
+        return graph;
+    }
+
+    public synchronized int getPageCount() {
+        return pageNumbers.size();
+    }
+
+    public synchronized void putPage(Long pageId, int pageNumber, Collection<Integer> targets) {
+        removePage(pageId);
+
+        pageNumbers.put(pageId, pageNumber);
+        Set<Long> ids = pagesByNumber.computeIfAbsent(pageNumber, n -> new HashSet<>());
+        ids.add(pageId);
+        if (ids.size() == 1) {
+            danglingTargets.remove(pageNumber);
+            adjustResolved(pageNumber, 1);
+        } else {
+            duplicates.add(pageNumber);
+        }
+
+        List<Integer> edges = targets.stream().filter(Objects::nonNull).toList();
+        int resolved = 0;
+        for (Integer target : edges) {
+            incoming.computeIfAbsent(target, t -> new HashMap<>()).merge(pageId, 1, Integer::sum);
+            if (pagesByNumber.containsKey(target)) {
+                resolved++;
+            } else {
+                danglingTargets.add(target);
+            }
+        }
+        outgoing.put(pageId, edges);
+        resolvedOut.put(pageId, resolved);
+        updateDeadEnd(pageId);
+        invalidate();
+    }
+
+    public synchronized void removePage(Long pageId) {
+        Integer pageNumber = pageNumbers.remove(pageId);
+        if (pageNumber == null) {
+            return;
+        }
+
+        for (Integer target : outgoing.remove(pageId)) {
+            Map<Long, Integer> sources = incoming.get(target);
+            sources.computeIfPresent(pageId, (id, count) -> count > 1 ? count - 1 : null);
+            if (sources.isEmpty()) {
+                incoming.remove(target);
+                danglingTargets.remove(target);
+            }
+        }
+        resolvedOut.remove(pageId);
+        deadEnds.remove(pageId);
+
+        Set<Long> ids = pagesByNumber.get(pageNumber);
+        ids.remove(pageId);
+        if (ids.isEmpty()) {
+            pagesByNumber.remove(pageNumber);
+            adjustResolved(pageNumber, -1);
+            if (incoming.containsKey(pageNumber)) {
+                danglingTargets.add(pageNumber);
+            }
+        } else if (ids.size() == 1) {
+            duplicates.remove(pageNumber);
+        }
+        invalidate();
+    }
+
+    public synchronized void removeEdgesTo(int targetPage) {
+        Map<Long, Integer> sources = incoming.remove(targetPage);
+        if (sources == null) {
+            return;
+        }
+
+        boolean resolved = pagesByNumber.containsKey(targetPage);
+        sources.forEach((source, count) -> {
+            outgoing.put(source, outgoing.get(source).stream()
+                    .filter(target -> target != targetPage)
+                    .toList());
+            if (resolved) {
+                resolvedOut.merge(source, -count, Integer::sum);
+            }
+            updateDeadEnd(source);
+        });
+        danglingTargets.remove(targetPage);
+        invalidate();
+    }
+
+    public synchronized Report analyze(Integer startPageNumber) {
+        List<String> errors = new ArrayList<>();
+        if (pageNumbers.isEmpty()) {
+            errors.add("A story must have at least one page.");
+            return new Report(false, 0, startPageNumber, errors, List.of(), List.of(), List.of(), List.of(), List.of());
+        }
+
+        boolean validStart = startPageNumber != null && pagesByNumber.containsKey(startPageNumber);
+        if (startPageNumber == null) {
+            errors.add("Start page must be set before publishing.");
+        } else if (!validStart) {
+            errors.add("Start page must be one of the story's pages.");
+        }
+
+        List<Integer> duplicatePages = List.copyOf(duplicates);
+        if (!duplicatePages.isEmpty()) {
+            errors.add("Duplicate page numbers found: " + duplicatePages);
+        }
+
+        List<DanglingChoice> danglingChoices = danglingChoices();
+        for (DanglingChoice choice : danglingChoices) {
+            errors.add("Choice on page " + choice.page() + " points to a non-existent page: " + choice.targetPage());
+        }
+
+        List<Integer> unreachablePages = List.of();
+        if (validStart) {
+            Set<Integer> visited = reachableFrom(startPageNumber);
+            unreachablePages = pagesByNumber.keySet().stream()
+                    .filter(page -> !visited.contains(page))
+                    .sorted()
+                    .toList();
+            if (!unreachablePages.isEmpty()) {
+                errors.add("The following pages are unreachable from the start page: " + unreachablePages);
+            }
+        }
+
+        List<Integer> deadEndPages = deadEnds.stream()
+                .map(pageNumbers::get)
+                .distinct()
+                .sorted()
+                .toList();
+
+        return new Report(errors.isEmpty(), pageNumbers.size(), startPageNumber, errors, duplicatePages,
+                danglingChoices, unreachablePages, deadEndPages, cycles());
+    }
+
+    private void adjustResolved(int pageNumber, int delta) {
+        Map<Long, Integer> sources = incoming.get(pageNumber);
+        if (sources == null) {
+            return;
+        }
+        sources.forEach((source, count) -> {
+            resolvedOut.merge(source, delta * count, Integer::sum);
+            updateDeadEnd(source);
+        });
+    }
+
+    private void updateDeadEnd(Long pageId) {
+        if (!outgoing.get(pageId).isEmpty() && resolvedOut.get(pageId) == 0) {
+            deadEnds.add(pageId);
+        } else {
+            deadEnds.remove(pageId);
+        }
+    }
+
+    private void invalidate() {
+        reachableFrom = null;
+        reachable = null;
+        cycles = null;
+    }
+
+    private List<DanglingChoice> danglingChoices() {
+        List<DanglingChoice> result = new ArrayList<>();
+        for (Integer target : danglingTargets) {
+            incoming.get(target).forEach((source, count) -> {
+                for (int i = 0; i < count; i++) {
+                    result.add(new DanglingChoice(pageNumbers.get(source), target));
+                }
+            });
+        }
+        result.sort(Comparator.comparingInt(DanglingChoice::page).thenComparingInt(DanglingChoice::targetPage));
+        return result;
+    }
+
+    private List<Integer> successors(int pageNumber) {
+        List<Integer> result = new ArrayList<>();
+        for (Long pageId : pagesByNumber.getOrDefault(pageNumber, Set.of())) {
+            for (Integer target : outgoing.get(pageId)) {
+                if (pagesByNumber.containsKey(target)) {
+                    result.add(target);
+                }
+            }
+        }
+        return result;
+    }
+
+    private Set<Integer> reachableFrom(int startPageNumber) {
+        if (reachable != null && reachableFrom == startPageNumber) {
+            return reachable;
+        }
+
+        Set<Integer> visited = new HashSet<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+        visited.add(startPageNumber);
+        queue.add(startPageNumber);
+        while (!queue.isEmpty()) {
+            for (int next : successors(queue.poll())) {
+                if (visited.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+
+        reachableFrom = startPageNumber;
+        reachable = visited;
+        return visited;
+    }
+
+    private List<List<Integer>> cycles() {
+        if (cycles != null) {
+            return cycles;
+        }
+
+        Map<Integer, Integer> index = new HashMap<>();
+        Map<Integer, Integer> low = new HashMap<>();
+        Deque<Integer> stack = new ArrayDeque<>();
+        Set<Integer> onStack = new HashSet<>();
+        List<List<Integer>> found = new ArrayList<>();
+
+        for (Integer root : new TreeSet<>(pagesByNumber.keySet())) {
+            if (index.containsKey(root)) {
+                continue;
+            }
+
+            Deque<Frame> frames = new ArrayDeque<>();
+            index.put(root, index.size());
+            low.put(root, index.get(root));
+            stack.push(root);
+            onStack.add(root);
+            frames.push(new Frame(root, successors(root).iterator()));
+
+            while (!frames.isEmpty()) {
+                Frame frame = frames.peek();
+                if (frame.successors().hasNext()) {
+                    int next = frame.successors().next();
+                    if (!index.containsKey(next)) {
+                        index.put(next, index.size());
+                        low.put(next, index.get(next));
+                        stack.push(next);
+                        onStack.add(next);
+                        frames.push(new Frame(next, successors(next).iterator()));
+                    } else if (onStack.contains(next)) {
+                        low.merge(frame.page(), index.get(next), Math::min);
+                    }
+                    continue;
+                }
+
+                frames.pop();
+                if (!frames.isEmpty()) {
+                    low.merge(frames.peek().page(), low.get(frame.page()), Math::min);
+                }
+                if (low.get(frame.page()).equals(index.get(frame.page()))) {
+                    List<Integer> component = new ArrayList<>();
+                    int member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while (member != frame.page());
+
+                    if (component.size() > 1 || successors(frame.page()).contains(frame.page())) {
+                        Collections.sort(component);
+                        found.add(List.copyOf(component));
+                    }
+                }
+            }
+        }
+
+        found.sort(Comparator.comparing(List::getFirst));
+        cycles = List.copyOf(found);
+        return cycles;
+    }
+
+    private record Frame(int page, Iterator<Integer> successors) {
+    }
+
+    public record DanglingChoice(int page, int targetPage) {
+    }
+
+    public record Report(boolean publishable, int pageCount, Integer startPageNumber, List<String> errors,
+                         List<Integer> duplicatePages, List<DanglingChoice> danglingChoices,
+                         List<Integer> unreachablePages, List<Integer> deadEndPages, List<List<Integer>> cycles) {
+    }
+}
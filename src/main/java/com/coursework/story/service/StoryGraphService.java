@@ -0,0 +1,77 @@
+package com.coursework.story.service;
+
+import com.coursework.story.model.Choice;
+import com.coursework.story.model.Page;
+import com.coursework.story.repository.PageRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+@Service
+public class StoryGraphService {
+
+    private final PageRepository pageRepository;
+    private final Cache<Long, StoryGraph> graphs;
+
+    public StoryGraphService(PageRepository pageRepository, MeterRegistry meterRegistry,
+                             @Value("${story.app.graph.maxCachedPages:50000}") long maxCachedPages) {
+        this.pageRepository = pageRepository;
+        this.graphs = Caffeine.newBuilder()
+                .maximumWeight(maxCachedPages)
+                .weigher((Long storyId, StoryGraph graph) -> Math.max(1, graph.getPageCount()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, graphs, "story.graph");
+    }
+
+    @Transactional
+    public StoryGraph.Report analyze(Long storyId, Integer startPageNumber) {
+        return graphs.get(storyId, this::load).analyze(startPageNumber);
+    }
+
+    @Transactional
+    public StoryGraph.Report analyzeFresh(Long storyId, Integer startPageNumber) {
+        StoryGraph graph = load(storyId);
+        graphs.put(storyId, graph);
+        return graph.analyze(startPageNumber);
+    }
+
+    public void pageSaved(Long storyId, Page page) {
+        Long pageId = page.getId();
+        int pageNumber = page.getPageNumber();
+        List<Integer> targets = page.getChoices() == null ? List.of() : page.getChoices().stream()
+                .map(Choice::getTargetPage)
+                .toList();
+        afterCommit(storyId, graph -> graph.putPage(pageId, pageNumber, targets));
+    }
+
+    public void pageDeleted(Long storyId, Long pageId, int pageNumber) {
+        afterCommit(storyId, graph -> {
+            graph.removeEdgesTo(pageNumber);
+            graph.removePage(pageId);
+        });
+    }
+
+    public void evict(Long storyId) {
+        graphs.invalidate(storyId);
+        TransactionCallbacks.afterCompletion(() -> graphs.invalidate(storyId));
+    }
+
+    private void afterCommit(Long storyId, Consumer<StoryGraph> edit) {
+        TransactionCallbacks.afterCommit(() -> graphs.asMap().computeIfPresent(storyId, (id, graph) -> {
+            edit.accept(graph);
+            return graph;
+        }));
+    }
+
+    private StoryGraph load(Long storyId) {
+        return StoryGraph.load(pageRepository.findEdgeRowsByStoryId(storyId));
+    }
+}
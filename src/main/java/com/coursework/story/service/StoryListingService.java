@@ -0,0 +1,84 @@
+package com.coursework.story.service;
+
+import com.coursework.story.dto.StoryDTO;
+import com.coursework.story.dto.UserDTO;
+import com.coursework.story.model.Genre;
+import com.coursework.story.model.StoryStatus;
+import com.coursework.story.repository.StoryGenreRow;
+import com.coursework.story.repository.StoryListRow;
+import com.coursework.story.repository.StoryRepository;
+import com.coursework.story.repository.StoryTagRow;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class StoryListingService {
+
+    private final StoryRepository storyRepository;
+    private final Timer decorateTimer;
+
+    public StoryListingService(StoryRepository storyRepository, MeterRegistry meterRegistry) {
+        this.storyRepository = storyRepository;
+        this.decorateTimer = Timer.builder("story.listing.decorate")
+                .description("Time spent loading rows, genres and tags for a page of story ids")
+                .register(meterRegistry);
+    }
+
+    public Page<StoryDTO> loadStories(Page<Long> ids) {
+        return new PageImpl<>(loadStories(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    public List<StoryDTO> loadStories(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return decorateTimer.record(() -> decorate(ids));
+    }
+
+    private List<StoryDTO> decorate(List<Long> ids) {
+        Map<Long, StoryListRow> rows = storyRepository.findListRowsByIdIn(ids).stream()
+                .collect(Collectors.toMap(StoryListRow::id, Function.identity()));
+        Map<Long, List<Genre>> genres = storyRepository.findGenreRowsByIdIn(ids).stream()
+                .collect(Collectors.groupingBy(StoryGenreRow::storyId,
+                        Collectors.mapping(StoryGenreRow::genre, Collectors.toList())));
+        Map<Long, Set<String>> tags = storyRepository.findTagRowsByIdIn(ids).stream()
+                .collect(Collectors.groupingBy(StoryTagRow::storyId,
+                        Collectors.mapping(StoryTagRow::tag, Collectors.toSet())));
+
+        return ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .map(row -> toDTO(row, genres.getOrDefault(row.id(), new ArrayList<>()),
+                        tags.getOrDefault(row.id(), new HashSet<>())))
+                .toList();
+    }
+
+    private StoryDTO toDTO(StoryListRow row, List<Genre> genres, Set<String> tags) {
+        StoryDTO dto = new StoryDTO();
+        dto.setId(row.id());
+        dto.setTitle(row.title());
+        dto.setUser(new UserDTO(row.username(), null, row.userImageUrl()));
+        dto.setCoverImageUrl(row.coverImageUrl());
+        dto.setGenres(genres);
+        dto.setTags(tags);
+        dto.setDescription(row.description());
+        dto.setPageCount(row.pageCount().intValue());
+        dto.setStartPageNumber(row.startPageNumber());
+        dto.setStatus(row.status());
+        dto.setVersion(row.version());
+        dto.setOriginalStoryId(row.status() == StoryStatus.DRAFT ? row.originalStoryId() : null);
+        dto.setCreatedAt(row.createdAt());
+        dto.setUpdatedAt(row.updatedAt());
+        dto.setLikes(row.likes());
+        dto.setFavorites(row.favorites());
+        dto.setReads(row.reads());
+        return dto;
+    }
+}
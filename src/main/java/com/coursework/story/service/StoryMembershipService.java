@@ -0,0 +1,106 @@
+package com.coursework.story.service;
+
+import com.coursework.story.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class StoryMembershipService {
+
+    private static final String LIKE = "LIKE";
+
+    private final UserRepository userRepository;
+    private final boolean bitmapCacheEnabled;
+    private final Cache<Long, UserBitmaps> bitmaps;
+
+    public StoryMembershipService(UserRepository userRepository, MeterRegistry meterRegistry,
+                                  @Value("${story.app.membership.bitmapCache.enabled:false}") boolean bitmapCacheEnabled,
+                                  @Value("${story.app.membership.bitmapCache.maxUsers:10000}") long maxUsers,
+                                  @Value("${story.app.membership.bitmapCache.expireMinutes:30}") long expireMinutes) {
+        this.userRepository = userRepository;
+        this.bitmapCacheEnabled = bitmapCacheEnabled;
+        this.bitmaps = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMinutes(expireMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, bitmaps, "story.membership.bitmaps");
+    }
+
+    public Membership findMembership(Long userId, Collection<Long> storyIds) {
+        if (userId == null || storyIds.isEmpty()) {
+            return Membership.EMPTY;
+        }
+
+        if (bitmapCacheEnabled) {
+            UserBitmaps userBitmaps = bitmaps.get(userId, this::loadBitmaps);
+            Set<Long> liked = new HashSet<>();
+            Set<Long> favorite = new HashSet<>();
+            for (Long storyId : storyIds) {
+                if (userBitmaps.liked().contains(storyId)) liked.add(storyId);
+                if (userBitmaps.favorite().contains(storyId)) favorite.add(storyId);
+            }
+            return new Membership(liked, favorite);
+        }
+
+        Set<Long> liked = new HashSet<>();
+        Set<Long> favorite = new HashSet<>();
+        for (Object[] row : userRepository.findMembershipForStories(userId, Set.copyOf(storyIds))) {
+            Long storyId = ((Number) row[0]).longValue();
+            if (LIKE.equals(String.valueOf(row[1]))) {
+                liked.add(storyId);
+            } else {
+                favorite.add(storyId);
+            }
+        }
+        return new Membership(liked, favorite);
+    }
+
+    public void evict(Long userId) {
+        bitmaps.invalidate(userId);
+        TransactionCallbacks.afterCompletion(() -> bitmaps.invalidate(userId));
+    }
+
+    private UserBitmaps loadBitmaps(Long userId) {
+        Roaring64Bitmap liked = new Roaring64Bitmap();
+        Roaring64Bitmap favorite = new Roaring64Bitmap();
+        List<Object[]> rows = userRepository.findAllMembership(userId);
+        for (Object[] row : rows) {
+            long storyId = ((Number) row[0]).longValue();
+            if (LIKE.equals(String.valueOf(row[1]))) {
+                liked.addLong(storyId);
+            } else {
+                favorite.addLong(storyId);
+            }
+        }
+        liked.runOptimize();
+        favorite.runOptimize();
+        return new UserBitmaps(liked, favorite);
+    }
+
+    public record Membership(Set<Long> likedIds, Set<Long> favoriteIds) {
+        public static final Membership EMPTY = new Membership(Set.of(), Set.of());
+
+        public boolean isLiked(Long storyId) {
+            return likedIds.contains(storyId);
+        }
+
+        public boolean isFavorite(Long storyId) {
+            return favoriteIds.contains(storyId);
+        }
+    }
+
+    private record UserBitmaps(Roaring64Bitmap liked, Roaring64Bitmap favorite) {
+    }
+}
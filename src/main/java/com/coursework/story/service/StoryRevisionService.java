@@ -0,0 +1,69 @@
+package com.coursework.story.service;
+
+import com.coursework.story.model.StoryStatus;
+import com.coursework.story.repository.StoryRepository;
+import com.coursework.story.repository.StoryRevision;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Service
+public class StoryRevisionService {
+
+    private final StoryRepository storyRepository;
+    private final CacheControl storyCacheControl;
+    private final CacheControl contentCacheControl;
+
+    public StoryRevisionService(StoryRepository storyRepository,
+                                @Value("${story.app.http.storyMaxAgeSeconds:60}") long storyMaxAgeSeconds,
+                                @Value("${story.app.http.contentMaxAgeSeconds:86400}") long contentMaxAgeSeconds) {
+        this.storyRepository = storyRepository;
+        this.storyCacheControl = CacheControl.maxAge(Duration.ofSeconds(storyMaxAgeSeconds)).cachePublic();
+        this.contentCacheControl = CacheControl.maxAge(Duration.ofSeconds(contentMaxAgeSeconds)).cachePublic();
+    }
+
+    public <T> ResponseEntity<T> story(Long storyId, WebRequest request, Supplier<T> body) {
+        return revalidate(storyId, request, StoryRevisionService::storyTag, storyCacheControl, body);
+    }
+
+    public <T> ResponseEntity<T> content(Long storyId, WebRequest request, Supplier<T> body) {
+        return revalidate(storyId, request, StoryRevisionService::contentTag, contentCacheControl, body);
+    }
+
+    static String contentTag(StoryRevision revision) {
+        long updated = revision.updatedAt() == null
+                ? 0
+                : revision.updatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+        return "\"" + revision.id() + "-" + revision.version() + "-" + Long.toHexString(updated) + "\"";
+    }
+
+    static String storyTag(StoryRevision revision) {
+        String content = contentTag(revision);
+        return content.substring(0, content.length() - 1) + "-" + revision.likes() + "-" + revision.favorites()
+                + "-" + revision.reads() + "-" + Integer.toHexString(Objects.hashCode(revision.userImageUrl())) + "\"";
+    }
+
+    private <T> ResponseEntity<T> revalidate(Long storyId, WebRequest request, Function<StoryRevision, String> tag,
+                                             CacheControl cacheControl, Supplier<T> body) {
+        Optional<StoryRevision> revision = storyRepository.findRevisionById(storyId);
+        if (revision.isEmpty() || revision.get().status() == StoryStatus.DRAFT) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(body.get());
+        }
+
+        String etag = tag.apply(revision.get());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body.get());
+    }
+}
@@ -0,0 +1,125 @@
+package com.coursework.story.service;
+
+import com.coursework.story.dto.PageDTO;
+import com.coursework.story.model.Choice;
+import com.coursework.story.model.Item;
+import com.coursework.story.model.Page;
+import com.coursework.story.model.StatModifiers;
+
+import java.util.*;
+
+public final class StoryRuntime {
+
+    private final Long storyId;
+    private final int firstPageNumber;
+    private final RuntimePage[] pages;
+    private final Map<Integer, RuntimePage> sparsePages;
+    private final int pageCount;
+    private final Map<Long, RuntimeChoice> choices;
+
+    private StoryRuntime(Long storyId, int firstPageNumber, RuntimePage[] pages, Map<Integer, RuntimePage> sparsePages,
+                         int pageCount, Map<Long, RuntimeChoice> choices) {
+        this.storyId = storyId;
+        this.firstPageNumber = firstPageNumber;
+        this.pages = pages;
+        this.sparsePages = sparsePages;
+        this.pageCount = pageCount;
+        this.choices = choices;
+    }
+
+    public static StoryRuntime compile(Long storyId, Collection<Page> sourcePages) {
+        if (sourcePages.isEmpty()) {
+            return new StoryRuntime(storyId, 0, new RuntimePage[0], null, 0, Map.of());
+        }
+
+        int min = sourcePages.stream().mapToInt(Page::getPageNumber).min().getAsInt();
+        int max = sourcePages.stream().mapToInt(Page::getPageNumber).max().getAsInt();
+
+        // index by offset only while page numbers are dense enough that the array stays near the page count
+        long range = (long) max - min + 1;
+        RuntimePage[] pages = range <= 2L * sourcePages.size() ? new RuntimePage[(int) range] : null;
+        Map<Integer, RuntimePage> sparsePages = pages == null ? new HashMap<>() : null;
+        Map<Long, RuntimeItem> items = new HashMap<>();
+        Map<Long, RuntimeChoice> choices = new HashMap<>();
+
+        for (Page page : sourcePages) {
+            List<Choice> choiceCopies = new ArrayList<>();
+            for (Choice choice : page.getChoices()) {
+                List<RuntimeItem> requiredItems = choice.getRequiredItems().stream()
+                        .map(item -> items.computeIfAbsent(item.getId(), id -> RuntimeItem.of(item)))
+                        .toList();
+                choices.put(choice.getId(), new RuntimeChoice(choice.getId(), page.getId(), choice.getTargetPage(),
+                        choice.getRequiresLuckCheck(), requiredItems));
+
+                Choice copy = new Choice(choice);
+                copy.setId(choice.getId());
+                copy.setRequiredItems(new HashSet<>(choice.getRequiredItems()));
+                choiceCopies.add(copy);
+            }
+
+            PageDTO view = new PageDTO(page);
+            view.setParagraphs(page.getParagraphs() == null ? null : List.copyOf(page.getParagraphs()));
+            view.setChoices(List.copyOf(choiceCopies));
+
+            RuntimePage runtimePage = new RuntimePage(
+                    page.getId(),
+                    page.getPageNumber(),
+                    page.isEndPage(),
+                    page.isLuckRequired(),
+                    page.getEnemy() != null,
+                    page.getStatModifiers(),
+                    page.getItemsGranted().stream()
+                            .map(item -> items.computeIfAbsent(item.getId(), id -> RuntimeItem.of(item)))
+                            .toList(),
+                    page.getItemsRemoved().stream()
+                            .map(item -> items.computeIfAbsent(item.getId(), id -> RuntimeItem.of(item)))
+                            .toList(),
+                    view);
+            if (pages != null) {
+                pages[page.getPageNumber() - min] = runtimePage;
+            } else {
+                sparsePages.put(page.getPageNumber(), runtimePage);
+            }
+        }
+
+        return new StoryRuntime(storyId, min, pages, sparsePages, sourcePages.size(), choices);
+    }
+
+    public Long getStoryId() {
+        return storyId;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public Optional<RuntimePage> getPage(int pageNumber) {
+        if (pages == null) {
+            return Optional.ofNullable(sparsePages.get(pageNumber));
+        }
+        long index = (long) pageNumber - firstPageNumber;
+        if (index < 0 || index >= pages.length) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(pages[(int) index]);
+    }
+
+    public Optional<RuntimeChoice> getChoice(Long choiceId) {
+        return Optional.ofNullable(choices.get(choiceId));
+    }
+
+    public record RuntimePage(Long id, int pageNumber, boolean endPage, boolean luckRequired, boolean hasEnemy,
+                              StatModifiers statModifiers, List<RuntimeItem> itemsGranted,
+                              List<RuntimeItem> itemsRemoved, PageDTO view) {
+    }
+
+    public record RuntimeChoice(Long id, Long pageId, Integer targetPage, boolean requiresLuckCheck,
+                                List<RuntimeItem> requiredItems) {
+    }
+
+    public record RuntimeItem(Long id, String name, StatModifiers statModifiers) {
+        static RuntimeItem of(Item item) {
+            return new RuntimeItem(item.getId(), item.getName(), item.getStatModifiers());
+        }
+    }
+}
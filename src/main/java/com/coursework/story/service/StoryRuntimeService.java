@@ -0,0 +1,42 @@
+package com.coursework.story.service;
+
+import com.coursework.story.repository.PageRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class StoryRuntimeService {
+
+    private final PageRepository pageRepository;
+    private final Cache<Long, StoryRuntime> runtimes;
+
+    public StoryRuntimeService(PageRepository pageRepository, MeterRegistry meterRegistry,
+                               @Value("${story.app.runtime.maxCachedPages:20000}") long maxCachedPages) {
+        this.pageRepository = pageRepository;
+        this.runtimes = Caffeine.newBuilder()
+                .maximumWeight(maxCachedPages)
+                .weigher((Long storyId, StoryRuntime runtime) -> Math.max(1, runtime.getPageCount()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, runtimes, "story.runtime");
+    }
+
+    @Transactional
+    public StoryRuntime getRuntime(Long storyId) {
+        return runtimes.get(storyId, this::compile);
+    }
+
+    public void evict(Long storyId) {
+        runtimes.invalidate(storyId);
+        TransactionCallbacks.afterCompletion(() -> runtimes.invalidate(storyId));
+    }
+
+    private StoryRuntime compile(Long storyId) {
+        return StoryRuntime.compile(storyId, pageRepository.findAllByStoryId(storyId));
+    }
+}
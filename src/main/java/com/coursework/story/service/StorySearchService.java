@@ -0,0 +1,329 @@
+package com.coursework.story.service;
+
+import com.coursework.story.model.Story;
+import com.coursework.story.repository.StoryRepository;
+import com.coursework.story.repository.StorySearchRow;
+import com.coursework.story.repository.StoryTagRow;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Service
+public class StorySearchService {
+
+    static final double TITLE_WEIGHT = 3.0;
+    static final double TAG_WEIGHT = 2.0;
+    static final double DESCRIPTION_WEIGHT = 1.0;
+
+    static final double EXACT_BOOST = 1.0;
+    static final double PREFIX_BOOST = 0.6;
+    static final double FUZZY_BOOST = 0.4;
+
+    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+
+    private final StoryRepository storyRepository;
+    private final int maxResults;
+
+    private final NavigableMap<String, Map<Long, Double>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+    // Fuzzy candidates: terms by distinct bigram, and by length for queries with too few bigrams to filter on
+    private final Map<String, Set<String>> termsByBigram = new HashMap<>();
+    private final Map<Integer, Set<String>> termsByLength = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public StorySearchService(StoryRepository storyRepository,
+                              @Value("${story.app.search.maxResults:1000}") int maxResults) {
+        this.storyRepository = storyRepository;
+        this.maxResults = maxResults;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        Map<Long, List<String>> tagsByStory = storyRepository.findPublishedTagRows().stream()
+                .collect(Collectors.groupingBy(StoryTagRow::storyId,
+                        Collectors.mapping(StoryTagRow::tag, Collectors.toList())));
+
+        List<StorySearchRow> rows = storyRepository.findPublishedSearchRows();
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            termsByBigram.clear();
+            termsByLength.clear();
+            for (StorySearchRow row : rows) {
+                addDocument(row.id(), row.title(), row.description(),
+                        tagsByStory.getOrDefault(row.id(), List.of()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Story story) {
+        index(story.getId(), story.getTitle(), story.getDescription(), story.getTags());
+    }
+
+    // Index changes made inside a transaction apply only once it commits, so a rollback leaves the index untouched
+    public void index(Long storyId, String title, String description, Collection<String> tags) {
+        List<String> tagList = tags == null ? List.of() : List.copyOf(tags);
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeDocument(storyId);
+                addDocument(storyId, title, description, tagList);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long storyId) {
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeDocument(storyId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> search(String query) {
+        List<String> queryTerms = tokenize(query).stream().distinct().toList();
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documentTerms.size();
+            Map<Long, Double> scores = null;
+
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> termScores = scoreTerm(queryTerm, documentCount);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                    .limit(maxResults)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(String queryTerm, int documentCount) {
+        Map<Long, Double> best = new HashMap<>();
+
+        Map<Long, Double> exact = postings.get(queryTerm);
+        if (exact != null) {
+            accumulate(best, exact, EXACT_BOOST, documentCount);
+        }
+
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Double>> entry : postings.tailMap(queryTerm, false).entrySet()) {
+            if (!entry.getKey().startsWith(queryTerm) || expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            accumulate(best, entry.getValue(), PREFIX_BOOST, documentCount);
+        }
+
+        int maxEdits = maxEdits(queryTerm);
+        if (maxEdits > 0) {
+            for (String term : fuzzyCandidates(queryTerm, maxEdits)) {
+                if (term.startsWith(queryTerm)) {
+                    continue;
+                }
+                if (editDistance(queryTerm, term, maxEdits) <= maxEdits) {
+                    accumulate(best, postings.get(term), FUZZY_BOOST, documentCount);
+                }
+            }
+        }
+
+        return best;
+    }
+
+    // Each edit destroys at most two of the query's distinct bigrams, so a term within maxEdits shares the rest
+    private Collection<String> fuzzyCandidates(String queryTerm, int maxEdits) {
+        Set<String> queryBigrams = bigrams(queryTerm);
+        int minShared = queryBigrams.size() - 2 * maxEdits;
+        int minLength = queryTerm.length() - maxEdits;
+        int maxLength = queryTerm.length() + maxEdits;
+
+        List<String> candidates = new ArrayList<>();
+        if (minShared <= 0) {
+            for (int length = minLength; length <= maxLength; length++) {
+                candidates.addAll(termsByLength.getOrDefault(length, Set.of()));
+            }
+            candidates.remove(queryTerm);
+            return candidates;
+        }
+
+        Map<String, Integer> shared = new HashMap<>();
+        for (String bigram : queryBigrams) {
+            for (String term : termsByBigram.getOrDefault(bigram, Set.of())) {
+                if (term.length() >= minLength && term.length() <= maxLength && !term.equals(queryTerm)) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+        shared.forEach((term, count) -> {
+            if (count >= minShared) {
+                candidates.add(term);
+            }
+        });
+        return candidates;
+    }
+
+    private void accumulate(Map<Long, Double> best, Map<Long, Double> posting, double boost, int documentCount) {
+        double idf = Math.log(1 + (double) documentCount / posting.size());
+        for (Map.Entry<Long, Double> entry : posting.entrySet()) {
+            best.merge(entry.getKey(), entry.getValue() * idf * boost, Math::max);
+        }
+    }
+
+    private void addDocument(Long storyId, String title, String description, Collection<String> tags) {
+        Map<String, Double> weights = new HashMap<>();
+        for (String token : tokenize(title)) {
+            weights.merge(token, TITLE_WEIGHT, Double::sum);
+        }
+        for (String tag : tags) {
+            for (String token : tokenize(tag)) {
+                weights.merge(token, TAG_WEIGHT, Double::sum);
+            }
+        }
+        for (String token : tokenize(description)) {
+            weights.merge(token, DESCRIPTION_WEIGHT, Double::sum);
+        }
+
+        for (Map.Entry<String, Double> entry : weights.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> {
+                addTerm(term);
+                return new HashMap<>();
+            }).put(storyId, 1 + Math.log(entry.getValue()));
+        }
+        documentTerms.put(storyId, weights.keySet());
+    }
+
+    private void removeDocument(Long storyId) {
+        Set<String> terms = documentTerms.remove(storyId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Double> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(storyId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                    removeTerm(term);
+                }
+            }
+        }
+    }
+
+    private void addTerm(String term) {
+        for (String bigram : bigrams(term)) {
+            termsByBigram.computeIfAbsent(bigram, k -> new HashSet<>()).add(term);
+        }
+        termsByLength.computeIfAbsent(term.length(), k -> new HashSet<>()).add(term);
+    }
+
+    private void removeTerm(String term) {
+        for (String bigram : bigrams(term)) {
+            Set<String> terms = termsByBigram.get(bigram);
+            if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                termsByBigram.remove(bigram);
+            }
+        }
+        Set<String> terms = termsByLength.get(term.length());
+        if (terms != null && terms.remove(term) && terms.isEmpty()) {
+            termsByLength.remove(term.length());
+        }
+    }
+
+    static Set<String> bigrams(String term) {
+        Set<String> bigrams = new HashSet<>();
+        for (int i = 0; i + 2 <= term.length(); i++) {
+            bigrams.add(term.substring(i, i + 2));
+        }
+        return bigrams;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(TOKEN_SPLIT.split(normalized))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    static int maxEdits(String term) {
+        if (term.length() >= 8) return 2;
+        if (term.length() >= 4) return 1;
+        return 0;
+    }
+
+    static int editDistance(String a, String b, int limit) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -1,7 +1,9 @@
 package com.coursework.story.service;
 
+import com.coursework.story.dto.CursorPage;
 import com.coursework.story.dto.ItemDTO;
 import com.coursework.story.dto.LikeResponse;
+import com.coursework.story.dto.PageCursor;
 import com.coursework.story.dto.PaginatedResponse;
 import com.coursework.story.dto.StoryDTO;
 import com.coursework.story.exception.BadRequestException;
@@ -13,7 +15,12 @@ import com.coursework.story.repository.ItemRepository;
 import com.coursework.story.repository.PlaythroughRepository;
 import com.coursework.story.repository.StoryRepository;
 import com.coursework.story.repository.UserRepository;
+import com.coursework.story.security.AuthenticatedPrincipal;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,7 +29,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -37,11 +43,25 @@ public class StoryService {
     private final FirebaseStorageService firebaseStorageService;
     private final DraftService draftService;
     private final AuthService authService;
+    private final TrendingService trendingService;
+    private final StorySearchService storySearchService;
+    private final StoryRuntimeService storyRuntimeService;
+    private final StoryMembershipService storyMembershipService;
+    private final StoryCounterService storyCounterService;
+    private final ApproximateCountService approximateCountService;
+    private final StoryGraphService storyGraphService;
+    private final StoryListingService storyListingService;
+    private final Timer validationTimer;
+    private final DistributionSummary publishedPages;
 
     public StoryService(StoryRepository storyRepository, UserRepository userRepository,
                         PlaythroughRepository playthroughRepository, NotificationService notificationService,
                         ItemRepository itemRepository, FirebaseStorageService firebaseStorageService,
-                        DraftService draftService, AuthService authService) {
+                        DraftService draftService, AuthService authService, TrendingService trendingService,
+                        StorySearchService storySearchService, StoryRuntimeService storyRuntimeService,
+                        StoryMembershipService storyMembershipService, StoryCounterService storyCounterService,
+                        ApproximateCountService approximateCountService, StoryGraphService storyGraphService,
+                        StoryListingService storyListingService, MeterRegistry meterRegistry) {
         this.storyRepository = storyRepository;
         this.userRepository = userRepository;
         this.playthroughRepository = playthroughRepository;
@@ -50,6 +70,20 @@ public class StoryService {
         this.firebaseStorageService = firebaseStorageService;
         this.draftService = draftService;
         this.authService = authService;
+        this.trendingService = trendingService;
+        this.storySearchService = storySearchService;
+        this.storyRuntimeService = storyRuntimeService;
+        this.storyMembershipService = storyMembershipService;
+        this.storyCounterService = storyCounterService;
+        this.approximateCountService = approximateCountService;
+        this.storyGraphService = storyGraphService;
+        this.storyListingService = storyListingService;
+        this.validationTimer = Timer.builder("story.publish.validation")
+                .description("Time spent validating a story's page graph before publishing")
+                .register(meterRegistry);
+        this.publishedPages = DistributionSummary.builder("story.publish.pages")
+                .description("Pages per story validated for publishing")
+                .register(meterRegistry);
     }
 
     public StoryDTO getStoryById(Long storyId) {
@@ -75,86 +109,75 @@ public class StoryService {
             }
         }
 
-        boolean isLiked = user.isPresent() && user.get().getLikedStories().contains(story);
-        boolean isFavorite = user.isPresent() && user.get().getFavoriteStories().contains(story);
+        StoryMembershipService.Membership membership = storyMembershipService.findMembership(
+                user.map(User::getId).orElse(null), List.of(story.getId()));
 
-        return new StoryDTO(story, isLiked, isFavorite);
+        return new StoryDTO(story, membership.isLiked(story.getId()), membership.isFavorite(story.getId()));
     }
 
     public List<StoryDTO> getStoriesByUser(String username) {
-        Optional<User> user = authService.getAuthenticatedUser();
-        Set<Long> likedIds = user.isPresent() ? user.get().getLikedIds() : Collections.emptySet();
-        Set<Long> favoriteIds = user.isPresent() ? user.get().getFavoriteIds() : Collections.emptySet();
-        return storyRepository.findAllByUserUsernameOrderByCreatedAt(username).stream()
-                .filter(story -> story.getStatus() == StoryStatus.PUBLISHED)
-                .map(story -> {
-                    StoryDTO dto = new StoryDTO(story);
-                    dto.setLiked(likedIds.contains(story.getId()));
-                    dto.setFavorite(favoriteIds.contains(story.getId()));
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return listStories(storyRepository.findIdsByUsernameAndStatusOrderByCreatedAt(username, StoryStatus.PUBLISHED));
     }
 
     public org.springframework.data.domain.Page<StoryDTO> searchStories(String query, Pageable pageable) {
-        Pageable sortedPageable = applyDefaultSortIfMissing(pageable);
+        List<Long> rankedIds = storySearchService.search(query);
 
-        Optional<User> user = authService.getAuthenticatedUser();
-        Set<Long> likedIds = user.map(User::getLikedIds).orElse(Collections.emptySet());
-        Set<Long> favoriteIds = user.map(User::getFavoriteIds).orElse(Collections.emptySet());
+        if (rankedIds.isEmpty()) {
+            return org.springframework.data.domain.Page.empty(pageable);
+        }
 
-        org.springframework.data.domain.Page<Story> page = storyRepository.searchByTitleOrTagsOrDescription(query, sortedPageable);
+        if (pageable.getSort().isSorted()) {
+            return listStories(storyRepository.findIdsByIdIn(rankedIds, pageable));
+        }
+
+        int start = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int end = Math.min(start + pageable.getPageSize(), rankedIds.size());
+        List<Long> pageIds = rankedIds.subList(start, end);
 
-        return mapStoriesToDTOs(page, likedIds, favoriteIds);
+        return new PageImpl<>(listStories(pageIds), pageable, rankedIds.size());
     }
 
     public org.springframework.data.domain.Page<StoryDTO> getAllStories(Pageable pageable) {
         Pageable sortedPageable = applyDefaultSortIfMissing(pageable);
 
-        org.springframework.data.domain.Page<Story> page = storyRepository.findAllByStatus(StoryStatus.PUBLISHED, sortedPageable);
-
-        Optional<User> user = authService.getAuthenticatedUser();
-        Set<Long> likedIds = user.map(User::getLikedIds).orElse(Collections.emptySet());
-        Set<Long> favoriteIds = user.map(User::getFavoriteIds).orElse(Collections.emptySet());
-
-        return mapStoriesToDTOs(page, likedIds, favoriteIds);
+        return listStories(storyRepository.findIdsByStatus(StoryStatus.PUBLISHED, sortedPageable));
     }
 
-//    @Cacheable("trendingStories")
-    public List<Story> getTrendingStoriesRaw() {
-        LocalDateTime cutoff = LocalDateTime.now().minusDays(7);
-        Pageable limit = PageRequest.of(0, 100);
-        return storyRepository.findTrendingStories(cutoff, limit).getContent();
+    public CursorPage<StoryDTO> getStoriesByCursor(String cursor, int size, boolean approximateCount) {
+        PageCursor after = PageCursor.decode(cursor);
+        Limit limit = Limit.of(size + 1);
+        List<Long> ids = after == null
+                ? storyRepository.findIdsByStatusSeek(StoryStatus.PUBLISHED, limit)
+                : storyRepository.findIdsByStatusSeekAfter(StoryStatus.PUBLISHED, after.sortKey(), after.id(), limit);
+        Long total = approximateCount
+                ? approximateCountService.count("stories:published",
+                        () -> storyRepository.countByStatus(StoryStatus.PUBLISHED))
+                : null;
+
+        return CursorPage.of(storyListingService.loadStories(ids), size,
+                story -> new PageCursor(story.getCreatedAt(), story.getId()), this::withMembership, total);
     }
 
     public org.springframework.data.domain.Page<StoryDTO> getTrendingStories(Pageable pageable) {
-        List<Story> cachedTrending = getTrendingStoriesRaw();
-
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), cachedTrending.size());
-        List<Story> paged = cachedTrending.subList(start, end);
+        List<StoryDTO> ranked = trendingService.getSnapshot().stories();
 
-        Optional<User> user = authService.getAuthenticatedUser();
-        Set<Long> likedIds = user.map(User::getLikedIds).orElse(Collections.emptySet());
-        Set<Long> favoriteIds = user.map(User::getFavoriteIds).orElse(Collections.emptySet());
+        int start = (int) Math.min(pageable.getOffset(), ranked.size());
+        int end = Math.min(start + pageable.getPageSize(), ranked.size());
+        List<StoryDTO> paged = ranked.subList(start, end);
+        StoryMembershipService.Membership membership = findMembership(paged.stream().map(StoryDTO::getId).toList());
 
         return new PageImpl<>(paged.stream()
                 .map(s -> {
                     StoryDTO dto = new StoryDTO(s);
-                    dto.setLiked(likedIds.contains(s.getId()));
-                    dto.setFavorite(favoriteIds.contains(s.getId()));
+                    dto.setLiked(membership.isLiked(s.getId()));
+                    dto.setFavorite(membership.isFavorite(s.getId()));
                     return dto;
-                }).toList(), pageable, cachedTrending.size());
+                }).toList(), pageable, ranked.size());
     }
 
     public PaginatedResponse<StoryDTO> getPublishedStoriesByUser(String username, Pageable pageable) {
-        Optional<User> currentUser = authService.getAuthenticatedUser();
-        Set<Long> likedIds = currentUser.map(User::getLikedIds).orElse(Collections.emptySet());
-        Set<Long> favoriteIds = currentUser.map(User::getFavoriteIds).orElse(Collections.emptySet());
-
-        org.springframework.data.domain.Page<Story> stories = storyRepository.findByUserUsernameAndStatus(username, StoryStatus.PUBLISHED, pageable);
-
-        return PaginatedResponse.fromPage(mapStoriesToDTOs(stories, likedIds, favoriteIds));
+        return PaginatedResponse.fromPage(listStories(
+                storyRepository.findIdsByUsernameAndStatus(username, StoryStatus.PUBLISHED, pageable)));
     }
 
     private Pageable applyDefaultSortIfMissing(Pageable pageable) {
@@ -163,14 +186,28 @@ public class StoryService {
                 Sort.by(Sort.Direction.DESC, "createdAt"));
     }
 
-    private org.springframework.data.domain.Page<StoryDTO> mapStoriesToDTOs(
-            org.springframework.data.domain.Page<Story> page, Set<Long> likedIds, Set<Long> favoriteIds) {
-        return page.map(story -> {
-            StoryDTO dto = new StoryDTO(story);
-            dto.setLiked(likedIds.contains(story.getId()));
-            dto.setFavorite(favoriteIds.contains(story.getId()));
-            return dto;
-        });
+    private org.springframework.data.domain.Page<StoryDTO> listStories(org.springframework.data.domain.Page<Long> ids) {
+        org.springframework.data.domain.Page<StoryDTO> page = storyListingService.loadStories(ids);
+        withMembership(page.getContent());
+        return page;
+    }
+
+    private List<StoryDTO> listStories(List<Long> ids) {
+        return withMembership(storyListingService.loadStories(ids));
+    }
+
+    private List<StoryDTO> withMembership(List<StoryDTO> stories) {
+        StoryMembershipService.Membership membership = findMembership(stories.stream().map(StoryDTO::getId).toList());
+        for (StoryDTO dto : stories) {
+            dto.setLiked(membership.isLiked(dto.getId()));
+            dto.setFavorite(membership.isFavorite(dto.getId()));
+        }
+        return stories;
+    }
+
+    private StoryMembershipService.Membership findMembership(List<Long> storyIds) {
+        Long userId = authService.getAuthenticatedPrincipal().map(AuthenticatedPrincipal::getId).orElse(null);
+        return storyMembershipService.findMembership(userId, storyIds);
     }
 
     @Transactional
@@ -215,7 +252,9 @@ public class StoryService {
             throw new UnauthorizedException("Item does not belong to the specified story");
         }
 
-        return new ItemDTO(itemRepository.save(getItem(itemDTO, item)));
+        ItemDTO updated = new ItemDTO(itemRepository.save(getItem(itemDTO, item)));
+        storyRuntimeService.evict(storyId);
+        return updated;
     }
 
     private static Item getNewItem(ItemDTO itemDTO, Story story) {
@@ -271,6 +310,7 @@ public class StoryService {
         itemRepository.removeFromRemovedPages(itemId);
 
         itemRepository.delete(item);
+        storyRuntimeService.evict(storyId);
     }
 
     public List<ItemDTO> getItemsForStory(Long storyId) {
@@ -286,6 +326,19 @@ public class StoryService {
         return itemRepository.findByStoryId(story.getId()).stream().map(ItemDTO::new).collect(Collectors.toList());
     }
 
+    public StoryGraph.Report getStoryValidation(Long storyId) {
+        User user = authService.getAuthenticatedUserOrThrow();
+
+        Story story = storyRepository.findById(storyId)
+                .orElseThrow(() -> new NotFoundException("Story not found"));
+
+        if (!story.getUser().equals(user)) {
+            throw new UnauthorizedException("Unauthorized to validate this story");
+        }
+
+        return storyGraphService.analyze(story.getId(), story.getStartPageNumber());
+    }
+
     @Transactional
     public StoryDTO saveStory(Story story, MultipartFile coverImg) {
         User user = authService.getAuthenticatedUserOrThrow();
@@ -441,6 +494,10 @@ public class StoryService {
 
         playthroughRepository.deleteByStory(story);
         storyRepository.delete(story);
+        storySearchService.remove(story.getId());
+        storyRuntimeService.evict(story.getId());
+        storyGraphService.evict(story.getId());
+        trendingService.evict(story.getId());
     }
 
     @Transactional
@@ -464,6 +521,7 @@ public class StoryService {
         story.setStatus(StoryStatus.PUBLISHED);
 
         Story published = storyRepository.save(story);
+        storySearchService.index(published);
 
         return new StoryDTO(published);
     }
@@ -486,6 +544,8 @@ public class StoryService {
         story.setStatus(StoryStatus.ARCHIVED);
 
         Story published = storyRepository.save(story);
+        storySearchService.remove(published.getId());
+        trendingService.evict(published.getId());
 
         return new StoryDTO(published);
     }
@@ -497,79 +557,47 @@ public class StoryService {
         Story story = storyRepository.findById(storyId)
                 .orElseThrow(() -> new NotFoundException("Story not found"));
 
-        Set<Story> likedStories = user.getLikedStories();
-        boolean response;
+        StoryCounterService.Toggle toggle = storyCounterService.toggleLike(user.getId(), storyId);
+        storyMembershipService.evict(user.getId());
 
-        if (likedStories.contains(story)) {
-            likedStories.remove(story);
-            story.decrementLikes();
-            response = false;
-        } else {
-            likedStories.add(story);
-            story.incrementLikes();
-            response = true;
-            if (story.getLikes() == 10) {
-                notificationService.send(
-                        story.getUser(),
-                        "🎉 Your story \"" + story.getTitle() + "\" just reached 10 likes!",
-                        NotificationType.ACHIEVED_VIEWS,
-                        storyId
-                );
-            }
+        int likes = Math.max(0, storyCounterService.currentLikes(story) + toggle.delta());
+        if (toggle.delta() > 0 && likes == 10) {
+            notificationService.send(
+                    story.getUser(),
+                    "🎉 Your story \"" + story.getTitle() + "\" just reached 10 likes!",
+                    NotificationType.ACHIEVED_VIEWS,
+                    storyId
+            );
         }
 
-        userRepository.save(user);
-        Story savedStory = storyRepository.save(story);
-        return new LikeResponse(response, savedStory.getLikes());
+        return new LikeResponse(toggle.active(), likes);
     }
 
     @Transactional
     public boolean toggleFavoriteStory(Long storyId) {
         User user = authService.getAuthenticatedUserOrThrow();
 
-        Story story = storyRepository.findById(storyId)
-                .orElseThrow(() -> new NotFoundException("Story not found"));
-
-        Set<Story> favoriteStories = user.getFavoriteStories();
-        boolean response;
-
-        if (favoriteStories.contains(story)) {
-            favoriteStories.remove(story);
-            story.decrementFavorites();
-            response = false;
-        } else {
-            favoriteStories.add(story);
-            story.incrementFavorites();
-            response = true;
+        if (!storyRepository.existsById(storyId)) {
+            throw new NotFoundException("Story not found");
         }
 
-        userRepository.save(user);
-        storyRepository.save(story);
-        return response;
+        StoryCounterService.Toggle toggle = storyCounterService.toggleFavorite(user.getId(), storyId);
+        storyMembershipService.evict(user.getId());
+        return toggle.active();
     }
 
     public org.springframework.data.domain.Page<StoryDTO> getLikedStories(Pageable pageable) {
         User user = authService.getAuthenticatedUserOrThrow();
         Pageable sortedPageable = applyDefaultSortIfMissing(pageable);
 
-        org.springframework.data.domain.Page<Story> page = storyRepository.findStoriesLikedByUserId(user.getId(), sortedPageable);
-
-        Set<Long> likedIds = user.getLikedIds();
-        Set<Long> favoriteIds = user.getFavoriteIds();
-
-        return mapStoriesToDTOs(page, likedIds, favoriteIds);
+        return listStories(storyRepository.findIdsLikedByUserId(user.getId(), sortedPageable));
     }
 
     public org.springframework.data.domain.Page<StoryDTO> getFavoriteStories(Pageable pageable) {
         User user = authService.getAuthenticatedUserOrThrow();
         Pageable sortedPageable = applyDefaultSortIfMissing(pageable);
 
-        org.springframework.data.domain.Page<Story> page = storyRepository.findStoriesFavoriteByUserId(user.getId(), sortedPageable);
-
-        Set<Long> likedIds = user.getLikedIds();
-        Set<Long> favoriteIds = user.getFavoriteIds();
-
-        return mapStoriesToDTOs(page, likedIds, favoriteIds);
+        return listStories(storyRepository.findIdsFavoriteByUserId(user.getId(), sortedPageable));
     }
 
     public org.springframework.data.domain.Page<StoryDTO> getUserStories(Pageable pageable) {
@@ -577,12 +605,7 @@ public class StoryService {
 
         Pageable sortedPageable = applyDefaultSortIfMissing(pageable);
 
-        org.springframework.data.domain.Page<Story> page = storyRepository.findByUserId(user.getId(), sortedPageable);
-
-        Set<Long> likedIds = user.getLikedIds();
-        Set<Long> favoriteIds = user.getFavoriteIds();
-
-        return mapStoriesToDTOs(page, likedIds, favoriteIds);
+        return listStories(storyRepository.findIdsByUserId(user.getId(), sortedPageable));
     }
 
     private String getDefaultImageForGenre(Genre genre) {
@@ -604,77 +627,11 @@ public class StoryService {
     }
 
     private void validateStoryBeforePublish(Story story) {
-        List<String> errors = new ArrayList<>();
-
-        List<Page> pages = story.getPages();
-        if (pages == null || pages.isEmpty()) {
-            errors.add("A story must have at least one page.");
-            throw new StoryValidationException(errors);
-        }
-
-        Set<Integer> pageNumbers = pages.stream()
-                .map(Page::getPageNumber)
-                .collect(Collectors.toSet());
-
-        Integer startPage = story.getStartPageNumber();
-
-        if (startPage == null) {
-            errors.add("Start page must be set before publishing.");
-        } else {
-            if (!pageNumbers.contains(startPage)) {
-                errors.add("Start page must be one of the story's pages.");
-            }
-        }
-
-        Map<Integer, Long> pageNumberCounts = pages.stream()
-                .collect(Collectors.groupingBy(Page::getPageNumber, Collectors.counting()));
-
-        List<Integer> duplicates = pageNumberCounts.entrySet().stream()
-                .filter(e -> e.getValue() > 1)
-                .map(Map.Entry::getKey)
-                .toList();
-
-        if (!duplicates.isEmpty()) {
-            errors.add("Duplicate page numbers found: " + duplicates);
-        }
-
-        Map<Integer, List<Integer>> graph = new HashMap<>();
-        for (Page page : pages) {
-            int from = page.getPageNumber();
-            graph.putIfAbsent(from, new ArrayList<>());
-            for (Choice choice : page.getChoices()) {
-                int to = choice.getTargetPage();
-                if (!pageNumbers.contains(to)) {
-                    errors.add("Choice on page " + from + " points to a non-existent page: " + to);
-                }
-                graph.get(from).add(to);
-            }
-        }
-
-        if (startPage != null && pageNumbers.contains(startPage)) {
-            Set<Integer> visited = new HashSet<>();
-            Queue<Integer> queue = new LinkedList<>();
-            queue.add(startPage);
-            visited.add(startPage);
-
-            while (!queue.isEmpty()) {
-                int current = queue.poll();
-                for (int neighbor : graph.getOrDefault(current, List.of())) {
-                    if (visited.add(neighbor)) {
-                        queue.add(neighbor);
-                    }
-                }
-            }
-
-            Set<Integer> unreachable = new HashSet<>(pageNumbers);
-            unreachable.removeAll(visited);
-            if (!unreachable.isEmpty()) {
-                errors.add("The following pages are unreachable from the start page: " + unreachable);
-            }
-        }
-
-        if (!errors.isEmpty()) {
-            throw new StoryValidationException(errors);
+        StoryGraph.Report report = validationTimer.record(
+                () -> storyGraphService.analyzeFresh(story.getId(), story.getStartPageNumber()));
+        publishedPages.record(report.pageCount());
+        if (!report.publishable()) {
+            throw new StoryValidationException(report.errors());
         }
     }
 }
@@ -0,0 +1,38 @@
+package com.coursework.story.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Ties in-memory side effects to the outcome of the surrounding transaction
+final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    // Runs the action once the transaction commits, or right away outside a transaction
+    static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Runs the action again once the transaction ends either way; callers evict up front, so outside a
+    // transaction there is nothing left to do
+    static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+}
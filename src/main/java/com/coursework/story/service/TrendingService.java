@@ -0,0 +1,119 @@
+package com.coursework.story.service;
+
+import com.coursework.story.dto.StoryDTO;
+import com.coursework.story.repository.StoryRepository;
+import com.coursework.story.repository.TrendingCandidate;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+public class TrendingService {
+
+    private final StoryRepository storyRepository;
+    private final StoryListingService storyListingService;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer computeTimer;
+    private final int limit;
+    private final int windowDays;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    public TrendingService(StoryRepository storyRepository, StoryListingService storyListingService,
+                           TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                           @Value("${story.app.trending.limit:100}") int limit,
+                           @Value("${story.app.trending.windowDays:7}") int windowDays) {
+        this.storyRepository = storyRepository;
+        this.storyListingService = storyListingService;
+        this.transactionTemplate = transactionTemplate;
+        this.limit = limit;
+        this.windowDays = windowDays;
+        this.computeTimer = Timer.builder("story.trending.compute")
+                .description("Time taken to recompute the trending leaderboard")
+                .register(meterRegistry);
+        Gauge.builder("story.trending.refresh.lag", this, TrendingService::getRefreshLagSeconds)
+                .description("Seconds since the trending leaderboard was last recomputed")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("story.trending.size", this, s -> s.snapshot.get().stories().size())
+                .description("Number of stories in the current trending leaderboard")
+                .register(meterRegistry);
+    }
+
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot.get();
+        if (current.computedAt() == null) {
+            synchronized (this) {
+                current = snapshot.get();
+                if (current.computedAt() == null) {
+                    current = transactionTemplate.execute(status -> computeSnapshot());
+                }
+            }
+        }
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${story.app.trending.refreshMillis:300000}")
+    @Transactional
+    public void refresh() {
+        computeSnapshot();
+    }
+
+    public void evict(Long storyId) {
+        TransactionCallbacks.afterCommit(() -> snapshot.updateAndGet(current -> current.without(storyId)));
+    }
+
+    private Snapshot computeSnapshot() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Long> rankedIds = storyRepository.findTrendingCandidates(now.minusDays(windowDays)).stream()
+                .sorted(Comparator.comparingDouble((TrendingCandidate c) -> score(c, now)).reversed()
+                        .thenComparing(TrendingCandidate::id, Comparator.reverseOrder()))
+                .limit(limit)
+                .map(TrendingCandidate::id)
+                .toList();
+
+        List<StoryDTO> ranked = storyListingService.loadStories(rankedIds);
+
+        Duration computeTime = Duration.ofNanos(System.nanoTime() - start);
+        computeTimer.record(computeTime);
+
+        Snapshot computed = new Snapshot(ranked, Instant.now(), computeTime);
+        snapshot.set(computed);
+        return computed;
+    }
+
+    static double score(TrendingCandidate candidate, LocalDateTime now) {
+        double engagement = candidate.likes() * 2 + candidate.favorites() * 3 + candidate.reads();
+        long ageHours = Math.max(0, Duration.between(candidate.createdAt(), now).toHours());
+        return engagement / Math.pow(ageHours + 2, 1.5);
+    }
+
+    private double getRefreshLagSeconds() {
+        Instant computedAt = snapshot.get().computedAt();
+        return computedAt == null ? Double.NaN : Duration.between(computedAt, Instant.now()).toMillis() / 1000.0;
+    }
+
+    public record Snapshot(List<StoryDTO> stories, Instant computedAt, Duration computeTime) {
+        static final Snapshot EMPTY = new Snapshot(List.of(), null, Duration.ZERO);
+
+        Snapshot without(Long storyId) {
+            if (stories.stream().noneMatch(story -> storyId.equals(story.getId()))) {
+                return this;
+            }
+            return new Snapshot(stories.stream().filter(story -> !storyId.equals(story.getId())).toList(),
+                    computedAt, computeTime);
+        }
+    }
+}
@@ -6,7 +6,10 @@ import com.coursework.story.exception.BadRequestException;
 import com.coursework.story.exception.InvalidTokenException;
 import com.coursework.story.exception.NotFoundException;
 import com.coursework.story.model.User;
+import com.coursework.story.repository.RefreshTokenRepository;
 import com.coursework.story.repository.UserRepository;
+import com.coursework.story.security.TokenRevocationCache;
+import jakarta.transaction.Transactional;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -23,18 +26,24 @@ public class UserService {
     private final UserRepository userRepository;
     private final FirebaseStorageService firebaseStorageService;
     private final BCryptPasswordEncoder passwordEncoder;
-    private final EmailService emailService;
+    private final OutboxService outboxService;
     private final AuthService authService;
+    private final TokenRevocationCache tokenRevocationCache;
+    private final RefreshTokenRepository refreshTokenRepository;
 
     public UserService(UserRepository userRepository, FirebaseStorageService firebaseStorageService,
-                       EmailService emailService, AuthService authService) {
+                       OutboxService outboxService, AuthService authService,
+                       TokenRevocationCache tokenRevocationCache, RefreshTokenRepository refreshTokenRepository) {
         this.userRepository = userRepository;
         this.firebaseStorageService = firebaseStorageService;
         this.passwordEncoder = new BCryptPasswordEncoder();
-        this.emailService = emailService;
+        this.outboxService = outboxService;
         this.authService = authService;
+        this.tokenRevocationCache = tokenRevocationCache;
+        this.refreshTokenRepository = refreshTokenRepository;
     }
 
+    @Transactional
     public void registerUser(AuthRequest request) {
         if (userRepository.existsByUsername(request.getUsername())) {
             throw new BadRequestException("Username already exists! Choose a different one.");
@@ -59,7 +68,7 @@ public class UserService {
         user.setEmailVerified(false);
         userRepository.save(user);
 
-        emailService.sendVerificationEmail(user.getEmail(), token);
+        outboxService.enqueueVerificationEmail(user.getEmail(), token);
     }
 
     public Optional<User> verifyUser(String token) {
@@ -74,6 +83,7 @@ public class UserService {
         return Optional.empty();
     }
 
+    @Transactional
     public void forgottenPassword(String email) {
         Optional<User> userOpt = userRepository.findByEmail(email);
         if (userOpt.isEmpty()) {
@@ -84,9 +94,10 @@ public class UserService {
         String token = UUID.randomUUID().toString();
         user.setResetToken(token);
         userRepository.save(user);
-        emailService.sendPasswordResetEmail(user.getEmail(), token);
+        outboxService.enqueuePasswordResetEmail(user.getEmail(), token);
     }
 
+    @Transactional
     public void resetPassword(String token, String newPassword) {
         Optional<User> userOpt = userRepository.findByResetToken(token);
         if (userOpt.isEmpty()) {
@@ -97,6 +108,8 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setResetToken(null);
         userRepository.save(user);
+        refreshTokenRepository.deleteByUser(user);
+        tokenRevocationCache.revokeAll(user.getId());
     }
 
     public UserDTO getUserResponse() {
@@ -125,6 +138,7 @@ public class UserService {
         return new UserDTO(savedUser);
     }
 
+    @Transactional
     public void changePassword(String currentPassword, String newPassword) {
         User user = authService.getAuthenticatedUserOrThrow();
 
@@ -134,6 +148,8 @@ public class UserService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        refreshTokenRepository.deleteByUser(user);
+        tokenRevocationCache.revokeAll(user.getId());
     }
 
     public User findByUsername(String username) {
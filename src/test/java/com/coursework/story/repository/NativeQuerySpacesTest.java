@@ -0,0 +1,65 @@
+package com.coursework.story.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.support.Repositories;
+
+import java.lang.reflect.Method;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Native bulk statements without query spaces evict every second-level cache region, and spaces that do not
+// match Hibernate's own table names evict nothing; the MySQL dialect gives the names production uses
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect",
+        "spring.jpa.hibernate.ddl-auto=none"})
+class NativeQuerySpacesTest {
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private ApplicationContext applicationContext;
+
+    @Test
+    void nativeBulkStatements_declareKnownQuerySpaces() {
+        Set<String> knownSpaces = new HashSet<>();
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(
+                entity -> knownSpaces.addAll(Arrays.asList((String[]) entity.getQuerySpaces())));
+        sessionFactory.getMappingMetamodel().forEachCollectionDescriptor(
+                collection -> knownSpaces.addAll(Arrays.asList((String[]) collection.getCollectionSpaces())));
+
+        List<String> checked = new ArrayList<>();
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            Class<?> repository = repositories.getRepositoryInformationFor(domainType).orElseThrow().getRepositoryInterface();
+            for (Method method : repository.getDeclaredMethods()) {
+                Query query = method.getAnnotation(Query.class);
+                if (query == null || !query.nativeQuery() || !method.isAnnotationPresent(Modifying.class)) {
+                    continue;
+                }
+
+                String name = repository.getSimpleName() + "." + method.getName();
+                QueryHints hints = method.getAnnotation(QueryHints.class);
+                List<String> spaces = hints == null ? List.of() : Arrays.stream(hints.value())
+                        .filter(hint -> hint.name().equals(HibernateHints.HINT_NATIVE_SPACES))
+                        .map(QueryHint::value)
+                        .toList();
+                assertFalse(spaces.isEmpty(), name + " declares no native query spaces");
+                spaces.forEach(space -> assertTrue(knownSpaces.contains(space),
+                        name + " declares " + space + ", not one of " + knownSpaces));
+                checked.add(name);
+            }
+        }
+
+        assertTrue(checked.contains("ChoiceRepository.deleteTargeting"), () -> "Checked only " + checked);
+        assertTrue(checked.contains("UserRepository.addLike"), () -> "Checked only " + checked);
+    }
+}
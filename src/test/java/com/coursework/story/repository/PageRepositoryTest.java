@@ -0,0 +1,58 @@
+package com.coursework.story.repository;
+
+import com.coursework.story.model.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Native clone statements use unquoted lowercase table names, as MySQL does
+@DataJpaTest(properties = {
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:pages;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+class PageRepositoryTest {
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private PageRepository pageRepository;
+
+    @Test
+    void cloneParagraphs_keepsParagraphOrder() {
+        User author = new User();
+        author.setUsername("author");
+        author.setEmail("author@example.com");
+        author.setPassword("password");
+        entityManager.persist(author);
+
+        Story source = story(author, StoryStatus.PUBLISHED);
+        List<String> paragraphs = List.of("Zebra", "Apple", "Mango", "Banana");
+        Page page = new Page();
+        page.setPageNumber(1);
+        page.setTitle("Start");
+        page.setStory(source);
+        page.setParagraphs(new ArrayList<>(paragraphs));
+        entityManager.persist(page);
+        Story draft = story(author, StoryStatus.DRAFT);
+        entityManager.flush();
+
+        pageRepository.clonePages(source.getId(), draft.getId());
+        assertEquals(4, pageRepository.cloneParagraphs(draft.getId()));
+        entityManager.clear();
+
+        Page cloned = pageRepository.findAllByStoryId(draft.getId()).getFirst();
+        assertEquals(paragraphs, cloned.getParagraphs());
+    }
+
+    private Story story(User author, StoryStatus status) {
+        Story story = new Story();
+        story.setTitle("Story");
+        story.setUser(author);
+        story.setStatus(status);
+        return entityManager.persist(story);
+    }
+}
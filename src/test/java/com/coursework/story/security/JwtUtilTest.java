@@ -0,0 +1,105 @@
+package com.coursework.story.security;
+
+import com.coursework.story.exception.InvalidTokenException;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = jwtUtil(100);
+    }
+
+    @Test
+    void accessToken_carriesPrincipalClaims() {
+        String token = jwtUtil.generateAccessToken(new AuthenticatedPrincipal(7L, "reader", "hash", Set.of("USER")));
+
+        Claims claims = jwtUtil.parseToken(token);
+        AuthenticatedPrincipal principal = jwtUtil.extractPrincipal(claims).orElseThrow();
+
+        assertEquals(7L, principal.getId());
+        assertEquals("reader", principal.getUsername());
+        assertEquals(Set.of("USER"), principal.getRoles());
+        assertNull(principal.getPassword());
+    }
+
+    @Test
+    void legacyAccessToken_hasNoPrincipal() {
+        Claims claims = jwtUtil.parseToken(jwtUtil.generateAccessToken("reader"));
+
+        assertEquals("reader", claims.getSubject());
+        assertTrue(jwtUtil.extractPrincipal(claims).isEmpty());
+    }
+
+    @Test
+    void revocation_rejectsOnlyTokensIssuedBefore() {
+        TokenRevocationCache revocations = new TokenRevocationCache(new SimpleMeterRegistry(), 900, 100);
+        Date before = Date.from(Instant.now().minusSeconds(5));
+        Date after = Date.from(Instant.now().plusSeconds(5));
+
+        assertFalse(revocations.isRevoked(7L, before));
+
+        revocations.revokeAll(7L);
+
+        assertTrue(revocations.isRevoked(7L, before));
+        assertFalse(revocations.isRevoked(7L, after));
+        assertFalse(revocations.isRevoked(8L, before));
+    }
+
+    @Test
+    void repeatedToken_isVerifiedOnce() {
+        String token = jwtUtil.generateAccessToken(new AuthenticatedPrincipal(7L, "reader", null, Set.of("USER")));
+
+        assertEquals("reader", jwtUtil.parseToken(token).getSubject());
+        assertEquals("reader", jwtUtil.parseToken(token).getSubject());
+        assertEquals("reader", jwtUtil.extractUsername(token));
+
+        assertEquals(1, meterRegistry.get("story.jwt.parse").timer().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "story.jwt.claims").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void tamperedToken_isRejectedAndNotCached() {
+        String token = jwtUtil.generateAccessToken("reader");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(InvalidTokenException.class, () -> jwtUtil.parseToken(tampered));
+        assertThrows(InvalidTokenException.class, () -> jwtUtil.parseToken(tampered));
+
+        assertEquals(2, meterRegistry.get("story.jwt.parse").timer().count());
+        assertEquals(0.0, meterRegistry.get("cache.size").tag("cache", "story.jwt.claims").gauge().value());
+    }
+
+    @Test
+    void disabledCache_verifiesEveryTime() {
+        JwtUtil uncached = jwtUtil(0);
+        String token = uncached.generateAccessToken("reader");
+
+        uncached.parseToken(token);
+        uncached.parseToken(token);
+
+        assertEquals(2, meterRegistry.get("story.jwt.parse").timer().count());
+    }
+
+    private JwtUtil jwtUtil(long maxCachedTokens) {
+        JwtUtil util = new JwtUtil(meterRegistry, maxCachedTokens);
+        ReflectionTestUtils.setField(util, "secretKey", "a-test-secret-that-is-long-enough-for-hs256");
+        util.init();
+        return util;
+    }
+}
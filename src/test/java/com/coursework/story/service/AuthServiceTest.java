@@ -3,10 +3,14 @@ package com.coursework.story.service;
 import com.coursework.story.exception.InvalidTokenException;
 import com.coursework.story.model.User;
 import com.coursework.story.repository.UserRepository;
+import com.coursework.story.security.AuthenticatedPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.authentication.InsufficientAuthenticationException;
@@ -15,6 +19,8 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.*;
 
@@ -26,6 +32,7 @@ class AuthServiceTest {
 
     @Mock private UserRepository userRepository;
     @Mock private SecurityContext securityContext;
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
     @InjectMocks private AuthService authService;
 
     @BeforeEach
@@ -36,6 +43,47 @@ class AuthServiceTest {
     @AfterEach
     void tearDown() {
         SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getAuthenticatedUser_loadsUserOncePerRequestById() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("test_user");
+        AuthenticatedPrincipal principal = new AuthenticatedPrincipal(7L, "test_user", null, Set.of("USER"));
+
+        Authentication auth = mock(Authentication.class);
+        when(auth.isAuthenticated()).thenReturn(true);
+        when(auth.getPrincipal()).thenReturn(principal);
+        when(securityContext.getAuthentication()).thenReturn(auth);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        ServletRequestAttributes attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(attributes);
+
+        assertSame(user, authService.getAuthenticatedUserOrThrow());
+        assertSame(user, authService.getAuthenticatedUser().orElseThrow());
+        assertSame(user, authService.getAuthenticatedUserOrThrow());
+        verify(userRepository, times(1)).findById(7L);
+        verify(userRepository, never()).findByUsername(any());
+
+        attributes.requestCompleted();
+
+        assertEquals(3.0, meterRegistry.get("story.auth.user.resolutions").summary().totalAmount());
+        assertEquals(1.0, meterRegistry.get("story.auth.user.lookups").summary().totalAmount());
+    }
+
+    @Test
+    void getAuthenticatedPrincipal_returnsPrincipalWithoutLoadingUser() {
+        AuthenticatedPrincipal principal = new AuthenticatedPrincipal(7L, "test_user", null, Set.of("USER"));
+        Authentication auth = mock(Authentication.class);
+        when(auth.isAuthenticated()).thenReturn(true);
+        when(auth.getPrincipal()).thenReturn(principal);
+        when(securityContext.getAuthentication()).thenReturn(auth);
+
+        assertEquals(7L, authService.getAuthenticatedPrincipal().orElseThrow().getId());
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -1,6 +1,9 @@
 package com.coursework.story.service;
 
 import com.coursework.story.dto.CommentDTO;
+import com.coursework.story.dto.CursorPage;
+import com.coursework.story.dto.PageCursor;
+import com.coursework.story.exception.BadRequestException;
 import com.coursework.story.exception.NotFoundException;
 import com.coursework.story.exception.UnauthorizedException;
 import com.coursework.story.model.*;
@@ -14,6 +17,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 import org.springframework.data.domain.Page;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.List;
 
@@ -27,6 +31,7 @@ class CommentServiceTest {
     @Mock private StoryRepository storyRepository;
     @Mock private NotificationService notificationService;
     @Mock private AuthService authService;
+    @Mock private ApproximateCountService approximateCountService;
 
     @InjectMocks private CommentService commentService;
 
@@ -141,4 +146,48 @@ class CommentServiceTest {
         assertEquals(1, result.getContent().size());
         assertEquals("User's comment", result.getContent().getFirst().getText());
     }
+
+    @Test
+    void getCommentsByStoryCursor_returnsNextCursorWhenMoreRowsExist() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        Comment second = new Comment();
+        second.setId(11L);
+        second.setText("Second");
+        second.setUser(user);
+        second.setCreatedAt(createdAt);
+        comment.setCreatedAt(createdAt.minusMinutes(1));
+
+        when(commentRepository.findByStoryIdSeek(100L, Limit.of(2))).thenReturn(List.of(comment, second));
+
+        CursorPage<CommentDTO> result = commentService.getCommentsByStoryCursor(100L, "", 1, false);
+
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertNull(result.getApproximateTotal());
+        assertEquals(new PageCursor(comment.getCreatedAt(), 10L), PageCursor.decode(result.getNextCursor()));
+        verify(commentRepository, never()).countByStoryId(any());
+    }
+
+    @Test
+    void getCommentsByStoryCursor_seeksPastCursorWithApproximateCount() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        comment.setCreatedAt(createdAt.plusSeconds(1));
+        String cursor = new PageCursor(createdAt, 9L).encode();
+
+        when(commentRepository.findByStoryIdSeekAfter(100L, createdAt, 9L, Limit.of(11))).thenReturn(List.of(comment));
+        when(approximateCountService.count(eq("comments:story:100"), any())).thenReturn(42L);
+
+        CursorPage<CommentDTO> result = commentService.getCommentsByStoryCursor(100L, cursor, 10, true);
+
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+        assertEquals(42L, result.getApproximateTotal());
+    }
+
+    @Test
+    void getCommentsByStoryCursor_invalidCursor_throws() {
+        assertThrows(BadRequestException.class,
+                () -> commentService.getCommentsByStoryCursor(100L, "not-a-cursor", 10, false));
+    }
 }
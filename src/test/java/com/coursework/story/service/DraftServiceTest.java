@@ -1,8 +1,12 @@
 package com.coursework.story.service;
 
 import com.coursework.story.model.*;
+import com.coursework.story.repository.ChoiceRepository;
+import com.coursework.story.repository.ItemRepository;
 import com.coursework.story.repository.PageRepository;
 import com.coursework.story.repository.StoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +23,9 @@ class DraftServiceTest {
 
     @Mock private StoryRepository storyRepository;
     @Mock private PageRepository pageRepository;
+    @Mock private ChoiceRepository choiceRepository;
+    @Mock private ItemRepository itemRepository;
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private DraftService draftService;
@@ -83,31 +90,50 @@ class DraftServiceTest {
         assertEquals("Test Story DRAFT", draft.getTitle());
         assertEquals(StoryStatus.DRAFT, draft.getStatus());
         assertEquals(publishedStory.getId(), draft.getOriginalStory().getId());
-        verify(pageRepository).saveAll(any());
+        verify(pageRepository).clonePages(10L, 20L);
     }
 
     @Test
-    void createDraftFromPublished_shouldCopyPagesAndChoices() {
+    void createDraftFromPublished_shouldCopyContentWithSetBasedStatements() {
         Story savedDraft = new Story();
         savedDraft.setId(20L);
 
         when(storyRepository.save(any())).thenReturn(savedDraft);
+        when(itemRepository.cloneItems(10L, 20L)).thenReturn(2);
+        when(pageRepository.clonePages(10L, 20L)).thenReturn(3);
+        when(pageRepository.cloneParagraphs(20L)).thenReturn(6);
+        when(choiceRepository.cloneChoices(20L)).thenReturn(4);
+        when(choiceRepository.cloneRequiredItems(20L)).thenReturn(1);
+        when(pageRepository.cloneGrantedItems(20L)).thenReturn(1);
+        when(pageRepository.cloneRemovedItems(20L)).thenReturn(1);
 
         Story result = draftService.createDraftFromPublished(publishedStory, author);
 
         assertEquals(savedDraft, result);
-        verify(pageRepository).saveAll(argThat(pagesIterable  -> {
-
-            List<Page> pages = new ArrayList<>();
-            pagesIterable.forEach(pages::add);
-
-            if (pages.size() != 1) return false;
-            Page copied = pages.getFirst();
-            return copied.getTitle().equals("Page 1") &&
-                    copied.getParagraphs().equals(List.of("Para1", "Para2")) &&
-                    copied.getChoices().getFirst().getText().equals("Go to 2") &&
-                    copied.getChoices().getFirst().getTargetPage() == 2 &&
-                    copied.getStory().getId().equals(savedDraft.getId());
-        }));
+        InOrder order = inOrder(itemRepository, pageRepository, choiceRepository);
+        order.verify(itemRepository).cloneItems(10L, 20L);
+        order.verify(pageRepository).clonePages(10L, 20L);
+        order.verify(pageRepository).cloneParagraphs(20L);
+        order.verify(choiceRepository).cloneChoices(20L);
+        order.verify(choiceRepository).cloneRequiredItems(20L);
+        verify(pageRepository, never()).saveAll(any());
+        assertEquals(18.0, meterRegistry.get("story.draft.clone.rows").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("story.draft.clone").timer().count());
     }
-}
\ No newline at end of file
+
+    @Test
+    void cloneContent_reportsRowsCopied() {
+        when(itemRepository.cloneItems(10L, 20L)).thenReturn(0);
+        when(pageRepository.clonePages(10L, 20L)).thenReturn(2000);
+        when(pageRepository.cloneParagraphs(20L)).thenReturn(5000);
+        when(choiceRepository.cloneChoices(20L)).thenReturn(3000);
+
+        DraftService.CloneReport report = draftService.cloneContent(10L, 20L);
+
+        assertEquals(2000, report.pages());
+        assertEquals(5000, report.paragraphs());
+        assertEquals(3000, report.choices());
+        assertEquals(10000, report.totalRows());
+        assertFalse(report.elapsed().isNegative());
+    }
+}
@@ -0,0 +1,75 @@
+package com.coursework.story.service;
+
+import com.coursework.story.model.Page;
+import com.coursework.story.model.Story;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EntityCacheServiceTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private SessionFactory sessionFactory;
+    @Mock
+    private Statistics statistics;
+    @Mock
+    private Cache cache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EntityCacheService entityCacheService;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        meterRegistry = new SimpleMeterRegistry();
+        entityCacheService = new EntityCacheService(entityManagerFactory, meterRegistry);
+    }
+
+    @Test
+    void evictStories_evictsEachStory() {
+        entityCacheService.evictStories(List.of(1L, 2L));
+
+        verify(cache).evict(Story.class, 1L);
+        verify(cache).evict(Story.class, 2L);
+        verifyNoMoreInteractions(cache);
+    }
+
+    @Test
+    void evictPages_emptyIds_doesNothing() {
+        entityCacheService.evictPages(List.of());
+
+        verifyNoInteractions(cache);
+    }
+
+    @Test
+    void evictPages_evictsEachPage() {
+        entityCacheService.evictPages(List.of(5L));
+
+        verify(cache).evict(Page.class, 5L);
+    }
+
+    @Test
+    void hitRatio_reportsShareOfCacheHits() {
+        when(statistics.getSecondLevelCacheHitCount()).thenReturn(3L);
+        when(statistics.getSecondLevelCacheMissCount()).thenReturn(1L);
+
+        assertEquals(0.75, meterRegistry.get("story.entityCache.hitRatio").gauge().value());
+    }
+}
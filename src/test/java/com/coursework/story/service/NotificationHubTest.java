@@ -0,0 +1,56 @@
+package com.coursework.story.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationHubTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationHub notificationHub;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        notificationHub = new NotificationHub(meterRegistry, 60000, 2);
+    }
+
+    @Test
+    void subscribe_tracksOpenStreams() {
+        notificationHub.subscribe(1L);
+        notificationHub.subscribe(2L);
+
+        assertEquals(2, notificationHub.getConnectionCount());
+        assertEquals(2.0, meterRegistry.get("story.notifications.streams").gauge().value());
+    }
+
+    @Test
+    void subscribe_beyondLimit_dropsOldestStream() {
+        SseEmitter oldest = notificationHub.subscribe(1L);
+        notificationHub.subscribe(1L);
+        notificationHub.subscribe(1L);
+
+        assertEquals(2, notificationHub.getConnectionCount());
+        assertThrows(IllegalStateException.class, () -> oldest.send("late"));
+    }
+
+    @Test
+    void publish_withoutSubscribers_isNoOp() {
+        assertDoesNotThrow(() -> notificationHub.publish(42L, "notification", "payload"));
+        assertDoesNotThrow(() -> notificationHub.heartbeat());
+    }
+
+    @Test
+    void publish_toOpenStream_keepsConnection() {
+        notificationHub.subscribe(1L);
+
+        notificationHub.publish(1L, "notification", "payload");
+        notificationHub.heartbeat();
+
+        assertEquals(1, notificationHub.getConnectionCount());
+        assertEquals(1, meterRegistry.get("story.notifications.fanout").timer().count());
+    }
+}
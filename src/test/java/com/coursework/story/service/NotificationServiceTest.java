@@ -5,11 +5,14 @@ import com.coursework.story.model.Notification;
 import com.coursework.story.model.NotificationType;
 import com.coursework.story.model.User;
 import com.coursework.story.repository.NotificationRepository;
+import com.coursework.story.repository.UserRepository;
+import com.coursework.story.security.AuthenticatedPrincipal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.*;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -22,8 +25,10 @@ class NotificationServiceTest {
 
     @Mock private NotificationRepository notificationRepository;
     @Mock private AuthService authService;
+    @Mock private NotificationHub notificationHub;
+    @Mock private OutboxService outboxService;
+    @Mock private UserRepository userRepository;
 
-    @InjectMocks
     private NotificationService notificationService;
 
     private User user;
@@ -33,15 +38,27 @@ class NotificationServiceTest {
         user = new User();
         user.setId(1L);
         user.setNotifications(new ArrayList<>());
+        notificationService = new NotificationService(notificationRepository, authService, notificationHub, outboxService,
+                userRepository, 50);
     }
 
     @Test
-    void send_shouldSaveNotification() {
+    void send_shouldEnqueueNotification() {
+        notificationService.send(user, "New comment", NotificationType.NEW_COMMENT, 123L);
+
+        verify(outboxService).enqueueNotification(1L, "New comment", NotificationType.NEW_COMMENT, 123L);
+        verifyNoInteractions(notificationRepository, notificationHub);
+    }
+
+    @Test
+    void deliver_shouldSaveAndPublishNotification() {
         NotificationType type = NotificationType.NEW_COMMENT;
         String message = "New comment";
         Long targetId = 123L;
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(notificationRepository.save(any(Notification.class))).thenAnswer(i -> i.getArgument(0));
 
-        notificationService.send(user, message, type, targetId);
+        notificationService.deliver(new OutboxService.NotificationPayload(1L, message, type, targetId));
 
         ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
         verify(notificationRepository).save(captor.capture());
@@ -51,10 +68,11 @@ class NotificationServiceTest {
         assertEquals(user, saved.getRecipient());
         assertEquals(type, saved.getType());
         assertEquals(targetId, saved.getTargetId());
+        verify(notificationHub).publish(eq(1L), eq(NotificationService.NOTIFICATION_EVENT), any(NotificationDTO.class));
     }
 
     @Test
-    void getNotifications_shouldReturnSortedDTOs() {
+    void getNotifications_shouldReturnRecentDTOsFromRepository() {
         Notification n1 = new Notification();
         n1.setId(1L);
         n1.setMessage("First");
@@ -65,14 +83,41 @@ class NotificationServiceTest {
         n2.setMessage("Second");
         n2.setTimestamp(LocalDateTime.now());
 
-        user.setNotifications(List.of(n1, n2));
-        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(authService.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedPrincipal.from(user)));
+        when(notificationRepository.findByRecipientIdOrderByTimestampDescIdDesc(1L, Limit.of(50))).thenReturn(List.of(n2, n1));
 
         List<NotificationDTO> result = notificationService.getNotifications();
 
         assertEquals(2, result.size());
         assertEquals("Second", result.get(0).getMessage());
         assertEquals("First", result.get(1).getMessage());
+        verify(authService, never()).getAuthenticatedUserOrThrow();
+    }
+
+    @Test
+    void getNotificationHistory_shouldPageInDatabaseOrder() {
+        Notification n1 = new Notification();
+        n1.setId(1L);
+        n1.setMessage("First");
+        Pageable pageable = PageRequest.of(1, 10, Sort.by("message"));
+
+        when(authService.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedPrincipal.from(user)));
+        when(notificationRepository.findByRecipientIdOrderByTimestampDescIdDesc(1L, PageRequest.of(1, 10)))
+                .thenReturn(new PageImpl<>(List.of(n1), PageRequest.of(1, 10), 11));
+
+        Page<NotificationDTO> result = notificationService.getNotificationHistory(pageable);
+
+        assertEquals(11, result.getTotalElements());
+        assertEquals("First", result.getContent().getFirst().getMessage());
+    }
+
+    @Test
+    void getUnreadCount_shouldCountWithoutLoadingUser() {
+        when(authService.getAuthenticatedPrincipal()).thenReturn(Optional.of(AuthenticatedPrincipal.from(user)));
+        when(notificationRepository.countByRecipientIdAndReadFalse(1L)).thenReturn(3L);
+
+        assertEquals(3L, notificationService.getUnreadCount());
+        verify(authService, never()).getAuthenticatedUserOrThrow();
     }
 
     @Test
@@ -83,5 +128,6 @@ class NotificationServiceTest {
         notificationService.markAsRead(ids);
 
         verify(notificationRepository).markAsReadByIds(ids, user);
+        verify(notificationHub).publish(1L, NotificationService.UNREAD_COUNT_EVENT, 0L);
     }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.coursework.story.service;
+
+import com.coursework.story.model.NotificationType;
+import com.coursework.story.model.OutboxEvent;
+import com.coursework.story.model.OutboxEventType;
+import com.coursework.story.model.OutboxStatus;
+import com.coursework.story.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    @Mock private OutboxEventRepository outboxEventRepository;
+    @Mock private OutboxService outboxService;
+    @Mock private NotificationService notificationService;
+    @Mock private EmailService emailService;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new OutboxDispatcher(outboxEventRepository, outboxService, notificationService, emailService,
+                new TransactionTemplate(transactionManager), meterRegistry, 50, 60, 8, 1000, 600000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatchBatch_deliversAndDeletesClaimedEvents() {
+        OutboxEvent notification = event(1L, OutboxEventType.NOTIFICATION, 0);
+        OutboxEvent email = event(2L, OutboxEventType.VERIFICATION_EMAIL, 0);
+        OutboxService.NotificationPayload notificationPayload =
+                new OutboxService.NotificationPayload(7L, "Hi", NotificationType.NEW_COMMENT, 3L);
+
+        when(outboxEventRepository.findDueForUpdate(any(), eq(50))).thenReturn(List.of(notification, email));
+        when(outboxService.readPayload(notification, OutboxService.NotificationPayload.class)).thenReturn(notificationPayload);
+        when(outboxService.readPayload(email, OutboxService.EmailPayload.class))
+                .thenReturn(new OutboxService.EmailPayload("a@b.c", "tok"));
+
+        assertEquals(2, dispatcher.dispatchBatch());
+
+        verify(outboxEventRepository).markProcessing(eq(List.of(1L, 2L)), any());
+        verify(notificationService).deliver(notificationPayload);
+        verify(emailService).sendVerificationEmail("a@b.c", "tok");
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        assertEquals(2.0, meterRegistry.get("story.outbox.events").tag("result", "delivered").counter().count());
+    }
+
+    @Test
+    void dispatchBatch_failedDelivery_reschedulesWithBackoff() {
+        OutboxEvent email = event(3L, OutboxEventType.PASSWORD_RESET_EMAIL, 2);
+
+        when(outboxEventRepository.findDueForUpdate(any(), eq(50))).thenReturn(List.of(email));
+        when(outboxService.readPayload(email, OutboxService.EmailPayload.class))
+                .thenReturn(new OutboxService.EmailPayload("a@b.c", "tok"));
+        doThrow(new MailSendException("smtp down")).when(emailService).sendPasswordResetEmail("a@b.c", "tok");
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatchBatch();
+
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        verify(outboxEventRepository).reschedule(eq(3L), eq(OutboxStatus.PENDING),
+                argThat(at -> !at.isBefore(before.plusSeconds(4))), eq("smtp down"));
+    }
+
+    @Test
+    void dispatchBatch_exhaustedAttempts_marksFailed() {
+        OutboxEvent email = event(4L, OutboxEventType.VERIFICATION_EMAIL, 7);
+
+        when(outboxEventRepository.findDueForUpdate(any(), eq(50))).thenReturn(List.of(email));
+        when(outboxService.readPayload(email, OutboxService.EmailPayload.class))
+                .thenReturn(new OutboxService.EmailPayload("a@b.c", "tok"));
+        doThrow(new MailSendException("bounced")).when(emailService).sendVerificationEmail("a@b.c", "tok");
+
+        dispatcher.dispatchBatch();
+
+        verify(outboxEventRepository).reschedule(eq(4L), eq(OutboxStatus.FAILED), any(), eq("bounced"));
+    }
+
+    @Test
+    void failedGauge_readsCountCachedByDispatcher() {
+        OutboxEvent email = event(4L, OutboxEventType.VERIFICATION_EMAIL, 7);
+
+        when(outboxEventRepository.countByStatus(OutboxStatus.FAILED)).thenReturn(2L, 3L);
+        when(outboxEventRepository.findDueForUpdate(any(), eq(50))).thenReturn(List.of(email), List.of());
+        when(outboxService.readPayload(email, OutboxService.EmailPayload.class))
+                .thenReturn(new OutboxService.EmailPayload("a@b.c", "tok"));
+        doThrow(new MailSendException("bounced")).when(emailService).sendVerificationEmail("a@b.c", "tok");
+
+        assertTrue(Double.isNaN(meterRegistry.get("story.outbox.failed").gauge().value()));
+        dispatcher.dispatchBatch();
+        dispatcher.dispatchBatch();
+
+        assertEquals(3.0, meterRegistry.get("story.outbox.failed").gauge().value());
+        assertEquals(3.0, meterRegistry.get("story.outbox.failed").gauge().value());
+        verify(outboxEventRepository, times(2)).countByStatus(OutboxStatus.FAILED);
+    }
+
+    @Test
+    void dispatchBatch_nothingDue_returnsZero() {
+        when(outboxEventRepository.findDueForUpdate(any(), eq(50))).thenReturn(List.of());
+
+        assertEquals(0, dispatcher.dispatchBatch());
+        verify(outboxEventRepository, never()).markProcessing(any(), any());
+    }
+
+    private OutboxEvent event(Long id, OutboxEventType type, int attempts) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setType(type);
+        event.setAttempts(attempts);
+        return event;
+    }
+}
@@ -0,0 +1,66 @@
+package com.coursework.story.service;
+
+import com.coursework.story.model.NotificationType;
+import com.coursework.story.model.OutboxEvent;
+import com.coursework.story.model.OutboxEventType;
+import com.coursework.story.model.OutboxStatus;
+import com.coursework.story.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    @Mock private OutboxEventRepository outboxEventRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new OutboxService(outboxEventRepository, new ObjectMapper(), eventPublisher);
+    }
+
+    @Test
+    void enqueueNotification_savesPendingEventAndSignalsDispatcher() {
+        outboxService.enqueueNotification(5L, "Hello", NotificationType.NEW_COMMENT, 9L);
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        OutboxEvent event = captor.getValue();
+        assertEquals(OutboxEventType.NOTIFICATION, event.getType());
+        assertEquals(OutboxStatus.PENDING, event.getStatus());
+        assertEquals(new OutboxService.NotificationPayload(5L, "Hello", NotificationType.NEW_COMMENT, 9L),
+                outboxService.readPayload(event, OutboxService.NotificationPayload.class));
+        verify(eventPublisher).publishEvent(new OutboxService.Enqueued(OutboxEventType.NOTIFICATION));
+    }
+
+    @Test
+    void enqueuePasswordResetEmail_roundTripsPayload() {
+        outboxService.enqueuePasswordResetEmail("user@example.com", "token-1");
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        assertEquals(OutboxEventType.PASSWORD_RESET_EMAIL, captor.getValue().getType());
+        assertEquals(new OutboxService.EmailPayload("user@example.com", "token-1"),
+                outboxService.readPayload(captor.getValue(), OutboxService.EmailPayload.class));
+    }
+
+    @Test
+    void readPayload_corrupt_throws() {
+        OutboxEvent event = new OutboxEvent();
+        event.setPayload("{not json");
+
+        assertThrows(IllegalStateException.class,
+                () -> outboxService.readPayload(event, OutboxService.EmailPayload.class));
+    }
+}
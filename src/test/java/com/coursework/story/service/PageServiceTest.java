@@ -1,10 +1,15 @@
 package com.coursework.story.service;
 
+import com.coursework.story.dto.ItemDTO;
+import com.coursework.story.dto.PageBatchResult;
 import com.coursework.story.dto.PageDTO;
+import com.coursework.story.dto.PageDiffDTO;
 import com.coursework.story.exception.BadRequestException;
 import com.coursework.story.exception.NotFoundException;
 import com.coursework.story.exception.UnauthorizedException;
 import com.coursework.story.model.*;
+import com.coursework.story.repository.ChoiceRepository;
+import com.coursework.story.repository.ItemRepository;
 import com.coursework.story.repository.PageRepository;
 import com.coursework.story.repository.PlaythroughRepository;
 import com.coursework.story.repository.StoryRepository;
@@ -13,6 +18,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.util.*;
 
@@ -25,11 +31,23 @@ class PageServiceTest {
     @Mock
     private PageRepository pageRepository;
     @Mock
+    private ChoiceRepository choiceRepository;
+    @Mock
     private AuthService authService;
     @Mock
     private StoryRepository storyRepository;
     @Mock
     private PlaythroughRepository playthroughRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private StoryRuntimeService storyRuntimeService;
+    @Mock
+    private StoryGraphService storyGraphService;
+    @Mock
+    private EntityCacheService entityCacheService;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
 
     @InjectMocks
     private PageService pageService;
@@ -164,6 +182,189 @@ class PageServiceTest {
         assertThrows(BadRequestException.class, () -> pageService.savePage(dto));
     }
 
+    @Test
+    void savePage_resolvesItemsInOneQuery() {
+        PageDTO dto = new PageDTO();
+        dto.setStoryId(100L);
+        dto.setPageNumber(2);
+        dto.setItemsGranted(Set.of(itemDTO(1L), itemDTO(2L)));
+        dto.setItemsRemoved(Set.of(itemDTO(2L), itemDTO(3L)));
+
+        when(storyRepository.findById(100L)).thenReturn(Optional.of(story));
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(itemRepository.findAllByStoryIdAndIdIn(100L, Set.of(1L, 2L, 3L)))
+                .thenReturn(List.of(item(1L), item(2L), item(3L)));
+        when(pageRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        PageDTO result = pageService.savePage(dto);
+
+        assertEquals(2, result.getItemsGranted().size());
+        assertEquals(2, result.getItemsRemoved().size());
+        verify(itemRepository).findAllByStoryIdAndIdIn(100L, Set.of(1L, 2L, 3L));
+        verify(itemRepository, never()).findById(any());
+    }
+
+    @Test
+    void savePage_itemOutsideStory_throws() {
+        PageDTO dto = new PageDTO();
+        dto.setStoryId(100L);
+        dto.setPageNumber(2);
+        dto.setItemsGranted(Set.of(itemDTO(1L), itemDTO(9L)));
+
+        when(storyRepository.findById(100L)).thenReturn(Optional.of(story));
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(itemRepository.findAllByStoryIdAndIdIn(100L, Set.of(1L, 9L))).thenReturn(List.of(item(1L)));
+
+        assertThrows(NotFoundException.class, () -> pageService.savePage(dto));
+        verify(pageRepository, never()).save(any());
+    }
+
+    @Test
+    void savePages_updatesExistingAndCreatesNewPages() {
+        story.setPages(new ArrayList<>(List.of(page)));
+        PageDTO existing = new PageDTO();
+        existing.setId(200L);
+        existing.setTitle("Moved");
+        existing.setPositionX(3.0);
+        existing.setChoices(List.of(new Choice("next", 2)));
+        PageDTO created = new PageDTO();
+        created.setTitle("Fresh");
+
+        when(storyRepository.findById(100L)).thenReturn(Optional.of(story));
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(pageRepository.findAllById(Set.of(200L))).thenReturn(List.of(page));
+        when(pageRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<PageDTO> result = pageService.savePages(100L, List.of(existing, created));
+
+        assertEquals(2, result.size());
+        assertEquals("Moved", result.get(0).getTitle());
+        assertEquals(3.0, result.get(0).getPositionX());
+        assertEquals(2, result.get(1).getPageNumber());
+        verify(pageRepository).saveAll(anyList());
+        verify(pageRepository, never()).save(any());
+        verifyNoInteractions(itemRepository);
+        verify(storyGraphService, times(2)).pageSaved(eq(100L), any());
+    }
+
+    @Test
+    void savePages_pageFromOtherStory_throws() {
+        Story otherStory = new Story();
+        otherStory.setId(101L);
+        Page foreign = new Page();
+        foreign.setId(300L);
+        foreign.setStory(otherStory);
+        PageDTO dto = new PageDTO();
+        dto.setId(300L);
+
+        when(storyRepository.findById(100L)).thenReturn(Optional.of(story));
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(pageRepository.findAllById(Set.of(300L))).thenReturn(List.of(foreign));
+
+        assertThrows(NotFoundException.class, () -> pageService.savePages(100L, List.of(dto)));
+    }
+
+    @Test
+    void savePages_pageNumberOutOfRange_throws() {
+        story.setPages(new ArrayList<>());
+        PageDTO dto = new PageDTO();
+        dto.setPageNumber(2_000_000_000);
+
+        when(storyRepository.findById(100L)).thenReturn(Optional.of(story));
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+
+        assertThrows(BadRequestException.class, () -> pageService.savePages(100L, List.of(dto)));
+        verify(pageRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void savePages_duplicatePageNumber_throws() {
+        story.setPages(new ArrayList<>(List.of(page)));
+        PageDTO dto = new PageDTO();
+        dto.setPageNumber(1);
+
+        when(storyRepository.findById(100L)).thenReturn(Optional.of(story));
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+
+        assertThrows(BadRequestException.class, () -> pageService.savePages(100L, List.of(dto)));
+        verify(pageRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void applyPageDiffs_positionOnly_usesJdbcBatch() {
+        when(storyRepository.findById(100L)).thenReturn(Optional.of(story));
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(pageRepository.countByStoryIdAndIdIn(100L, Set.of(200L, 201L))).thenReturn(2L);
+
+        PageBatchResult result = pageService.applyPageDiffs(100L, List.of(move(200L, 1.0, 2.0), move(201L, 3.0, null)));
+
+        assertEquals(0, result.getUpdated());
+        assertEquals(2, result.getMoved());
+        verify(jdbcTemplate).batchUpdate(eq(PageService.MOVE_SQL), argThat((List<Object[]> rows) -> rows.size() == 2));
+        verify(entityCacheService).evictPages(List.of(200L, 201L));
+        verify(pageRepository, never()).findAllById(any());
+        verify(pageRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void applyPageDiffs_emptyDiffs_areSkipped() {
+        when(storyRepository.findById(100L)).thenReturn(Optional.of(story));
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(pageRepository.countByStoryIdAndIdIn(100L, Set.of(200L))).thenReturn(1L);
+
+        PageBatchResult result = pageService.applyPageDiffs(100L, List.of(move(200L, 1.0, 2.0), move(201L, null, null)));
+
+        assertEquals(1, result.getMoved());
+        verify(jdbcTemplate).batchUpdate(eq(PageService.MOVE_SQL), argThat((List<Object[]> rows) -> rows.size() == 1));
+        verify(entityCacheService).evictPages(List.of(200L));
+    }
+
+    @Test
+    void applyPageDiffs_onlyEmptyDiffs_touchesNothing() {
+        when(storyRepository.findById(100L)).thenReturn(Optional.of(story));
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+
+        PageBatchResult result = pageService.applyPageDiffs(100L, List.of(move(200L, null, null)));
+
+        assertEquals(0, result.getUpdated());
+        assertEquals(0, result.getMoved());
+        verifyNoInteractions(jdbcTemplate, pageRepository);
+    }
+
+    @Test
+    void applyPageDiffs_contentChanges_updateEntities() {
+        PageDiffDTO edit = move(200L, 5.0, null);
+        edit.setTitle("Renamed");
+        edit.setChoices(List.of(new Choice("go", 2)));
+
+        when(storyRepository.findById(100L)).thenReturn(Optional.of(story));
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(pageRepository.countByStoryIdAndIdIn(100L, Set.of(200L, 201L))).thenReturn(2L);
+        when(pageRepository.findAllById(Set.of(200L))).thenReturn(List.of(page));
+
+        PageBatchResult result = pageService.applyPageDiffs(100L, List.of(edit, move(201L, 1.0, 1.0)));
+
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getMoved());
+        assertEquals("Renamed", page.getTitle());
+        assertEquals(5.0, page.getPositionX());
+        assertEquals(1, page.getChoices().size());
+        verify(pageRepository).saveAll(anyCollection());
+        verify(storyGraphService).pageSaved(100L, page);
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void applyPageDiffs_pageOutsideStory_throws() {
+        when(storyRepository.findById(100L)).thenReturn(Optional.of(story));
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(pageRepository.countByStoryIdAndIdIn(100L, Set.of(200L, 300L))).thenReturn(1L);
+
+        assertThrows(NotFoundException.class,
+                () -> pageService.applyPageDiffs(100L, List.of(move(200L, 1.0, 1.0), move(300L, 1.0, 1.0))));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
     @Test
     void deletePage_success() {
         story.setStartPageNumber(1);
@@ -185,18 +386,19 @@ class PageServiceTest {
         pageToDelete.setId(100L);
         pageToDelete.setStory(story);
         pageToDelete.setPageNumber(2);
-        page.setChoices(new ArrayList<>(List.of(new Choice("choice_text", 2))));
 
         when(pageRepository.findById(100L)).thenReturn(Optional.of(pageToDelete));
-        when(pageRepository.findAllByStoryId(100L)).thenReturn(List.of(page, pageToDelete));
         when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
         when(playthroughRepository.existsByCurrentPage(pageToDelete)).thenReturn(false);
 
         pageService.deletePage(100L);
 
-        verify(pageRepository).save(page);
-        verify(pageRepository).delete(pageToDelete);
-        assertEquals(page.getChoices(), Collections.emptyList());
+        InOrder inOrder = inOrder(choiceRepository, pageRepository);
+        inOrder.verify(choiceRepository).deleteRequiredItemsTargeting(story.getId(), 2);
+        inOrder.verify(choiceRepository).deleteTargeting(story.getId(), 2);
+        inOrder.verify(pageRepository).delete(pageToDelete);
+        verify(pageRepository, never()).findAllByStoryId(any());
+        verify(storyGraphService).pageDeleted(story.getId(), 100L, 2);
     }
 
     @Test
@@ -218,4 +420,25 @@ class PageServiceTest {
 
         assertThrows(BadRequestException.class, () -> pageService.deletePage(200L));
     }
-}
\ No newline at end of file
+
+    private PageDiffDTO move(Long id, Double x, Double y) {
+        PageDiffDTO diff = new PageDiffDTO();
+        diff.setId(id);
+        diff.setPositionX(x);
+        diff.setPositionY(y);
+        return diff;
+    }
+
+    private ItemDTO itemDTO(Long id) {
+        ItemDTO dto = new ItemDTO();
+        dto.setId(id);
+        return dto;
+    }
+
+    private Item item(Long id) {
+        Item item = new Item();
+        item.setId(id);
+        item.setStory(story);
+        return item;
+    }
+}
@@ -0,0 +1,61 @@
+package com.coursework.story.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParagraphOrderBackfillTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> rowsCaptor;
+
+    private ParagraphOrderBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        backfill = new ParagraphOrderBackfill(jdbcTemplate, new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void backfill_renumbersPagesInStoredOrder() {
+        when(jdbcTemplate.queryForList(ParagraphOrderBackfill.FIND_UNORDERED_PAGES, Long.class))
+                .thenReturn(List.of(7L));
+        when(jdbcTemplate.queryForList(ParagraphOrderBackfill.SELECT_PARAGRAPHS, String.class, 7L))
+                .thenReturn(List.of("First", "Second", "Third"));
+
+        backfill.backfill();
+
+        verify(jdbcTemplate).update(ParagraphOrderBackfill.DELETE_PARAGRAPHS, 7L);
+        verify(jdbcTemplate).batchUpdate(eq(ParagraphOrderBackfill.INSERT_PARAGRAPH), rowsCaptor.capture());
+        List<Object[]> rows = rowsCaptor.getValue();
+        assertArrayEquals(new Object[]{7L, "First", 0}, rows.get(0));
+        assertArrayEquals(new Object[]{7L, "Third", 2}, rows.get(2));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void backfill_leavesOrderedPagesAlone() {
+        when(jdbcTemplate.queryForList(ParagraphOrderBackfill.FIND_UNORDERED_PAGES, Long.class)).thenReturn(List.of());
+
+        backfill.backfill();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verifyNoInteractions(transactionManager);
+    }
+}
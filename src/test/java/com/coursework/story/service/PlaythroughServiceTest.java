@@ -2,12 +2,16 @@ package com.coursework.story.service;
 
 import com.coursework.story.dto.PageDTO;
 import com.coursework.story.dto.PlaythroughDTO;
+import com.coursework.story.exception.BadRequestException;
 import com.coursework.story.exception.NotFoundException;
 import com.coursework.story.exception.UnauthorizedException;
 import com.coursework.story.model.*;
+import com.coursework.story.repository.ItemRepository;
 import com.coursework.story.repository.PageRepository;
 import com.coursework.story.repository.PlaythroughRepository;
 import com.coursework.story.repository.StoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +20,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.*;
 
@@ -28,8 +33,14 @@ class PlaythroughServiceTest {
     @Mock private PlaythroughRepository playthroughRepository;
     @Mock private StoryRepository storyRepository;
     @Mock private PageRepository pageRepository;
+    @Mock private ItemRepository itemRepository;
+    @Mock private StoryRuntimeService storyRuntimeService;
+    @Mock private StoryCounterService storyCounterService;
+    @Mock private ApproximateCountService approximateCountService;
     @Mock private AuthService authService;
 
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks private PlaythroughService playthroughService;
 
     private User user;
@@ -62,12 +73,18 @@ class PlaythroughServiceTest {
         when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
         when(storyRepository.findById(1L)).thenReturn(Optional.of(story));
         when(playthroughRepository.countByUserAndStory(user, story)).thenReturn(0L);
+        when(storyRuntimeService.getRuntime(1L)).thenReturn(StoryRuntime.compile(1L, story.getPages()));
         when(playthroughRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
         PlaythroughDTO result = playthroughService.startPlaythrough(1L);
 
-        assertEquals(1, result.getPath().getFirst());
-        verify(storyRepository).save(story);
+        assertEquals(1, result.getPathLength());
+        assertNull(result.getPath());
+        assertEquals(1, result.getCurrentPage());
+        verify(playthroughRepository).save(argThat(p -> p.getPath().equals(List.of(1))));
+        assertEquals(1, result.getStory().getPageCount());
+        verify(storyCounterService).recordRead(1L);
+        verify(storyRepository, never()).save(any());
     }
 
     @Test
@@ -81,6 +98,7 @@ class PlaythroughServiceTest {
         story.setPages(List.of());
         when(storyRepository.findById(1L)).thenReturn(Optional.of(story));
         when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(storyRuntimeService.getRuntime(1L)).thenReturn(StoryRuntime.compile(1L, story.getPages()));
 
         assertThrows(NotFoundException.class, () -> playthroughService.startPlaythrough(1L));
     }
@@ -100,7 +118,7 @@ class PlaythroughServiceTest {
 
         when(playthroughRepository.findById(1L)).thenReturn(Optional.of(pt));
         when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
-        when(pageRepository.findByStoryIdAndPageNumber(story.getId(), 2)).thenReturn(Optional.of(nextPage));
+        when(storyRuntimeService.getRuntime(1L)).thenReturn(StoryRuntime.compile(1L, List.of(startPage, nextPage)));
 
         PageDTO result = playthroughService.choosePage(1L, 2);
 
@@ -116,11 +134,85 @@ class PlaythroughServiceTest {
 
         when(playthroughRepository.findById(1L)).thenReturn(Optional.of(pt));
         when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
-        when(pageRepository.findByStoryIdAndPageNumber(anyLong(), anyInt())).thenReturn(Optional.empty());
+        when(storyRuntimeService.getRuntime(1L)).thenReturn(StoryRuntime.compile(1L, story.getPages()));
 
         assertThrows(NotFoundException.class, () -> playthroughService.choosePage(1L, 99));
     }
 
+    @Test
+    void resolveChoice_movesToTargetPageAndGrantsItems() {
+        Item key = new Item();
+        key.setId(5L);
+        key.setName("Key");
+        StatModifiers keyModifiers = new StatModifiers();
+        keyModifiers.setLuck(1);
+        key.setStatModifiers(keyModifiers);
+
+        startPage.setId(10L);
+        Choice choice = new Choice("Open the door", 2);
+        choice.setId(100L);
+        startPage.setChoices(List.of(choice));
+
+        Page nextPage = new Page();
+        nextPage.setId(20L);
+        nextPage.setPageNumber(2);
+        nextPage.setStory(story);
+        nextPage.setItemsGranted(Set.of(key));
+
+        Playthrough pt = new Playthrough();
+        pt.setUser(user);
+        pt.setStory(story);
+        pt.setCurrentPage(startPage);
+        pt.setPath(new ArrayList<>(List.of(1)));
+        pt.setStats(new PlayerStats(10, 20, 8));
+
+        when(playthroughRepository.findById(1L)).thenReturn(Optional.of(pt));
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(storyRuntimeService.getRuntime(1L)).thenReturn(StoryRuntime.compile(1L, List.of(startPage, nextPage)));
+        when(itemRepository.findAllById(List.of(5L))).thenReturn(List.of(key));
+
+        PlaythroughDTO result = playthroughService.resolveChoice(1L, 100L);
+
+        assertEquals(2, result.getCurrentPage());
+        assertEquals(List.of(1, 2), pt.getPath());
+        assertTrue(pt.getInventory().contains(key));
+        assertEquals(9, pt.getStats().getLuck());
+        assertTrue(pt.isCompleted());
+        verify(pageRepository).getReferenceById(20L);
+        verify(pageRepository, never()).findByStoryIdAndPageNumber(anyLong(), anyInt());
+        assertEquals(1, meterRegistry.get("story.playthrough.choice").timer().count());
+    }
+
+    @Test
+    void resolveChoice_missingRequiredItem_throws() {
+        Item key = new Item();
+        key.setId(5L);
+        key.setName("Key");
+
+        startPage.setId(10L);
+        Choice choice = new Choice("Open the door", 2);
+        choice.setId(100L);
+        choice.setRequiredItems(Set.of(key));
+        startPage.setChoices(List.of(choice));
+
+        Page nextPage = new Page();
+        nextPage.setId(20L);
+        nextPage.setPageNumber(2);
+        nextPage.setStory(story);
+
+        Playthrough pt = new Playthrough();
+        pt.setUser(user);
+        pt.setStory(story);
+        pt.setCurrentPage(startPage);
+
+        when(playthroughRepository.findById(1L)).thenReturn(Optional.of(pt));
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(storyRuntimeService.getRuntime(1L)).thenReturn(StoryRuntime.compile(1L, List.of(startPage, nextPage)));
+
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> playthroughService.resolveChoice(1L, 100L));
+        assertEquals("Missing required item: Key", ex.getMessage());
+    }
+
     @Test
     void getPlaythroughById_success() {
         Playthrough pt = new Playthrough();
@@ -135,6 +227,38 @@ class PlaythroughServiceTest {
         assertNotNull(result);
     }
 
+    @Test
+    void getPlaythroughPath_decodesAppendedSteps() {
+        Playthrough pt = new Playthrough();
+        pt.setUser(user);
+        pt.setPath(new ArrayList<>(List.of(1)));
+        List<Integer> steps = List.of(5, 3, 300, 2, 70000, 70000, 1);
+        steps.forEach(pt::appendToPath);
+
+        when(playthroughRepository.findById(1L)).thenReturn(Optional.of(pt));
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+
+        List<Integer> path = playthroughService.getPlaythroughPath(1L);
+
+        assertEquals(List.of(1, 5, 3, 300, 2, 70000, 70000, 1), path);
+        assertEquals(8, pt.getPathLength());
+    }
+
+    @Test
+    void choosePage_pathFull_throws() {
+        Playthrough pt = new Playthrough();
+        pt.setUser(user);
+        pt.setStory(story);
+        ReflectionTestUtils.setField(pt, "pathData", new byte[Playthrough.MAX_PATH_BYTES]);
+
+        when(playthroughRepository.findById(1L)).thenReturn(Optional.of(pt));
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(storyRuntimeService.getRuntime(1L)).thenReturn(StoryRuntime.compile(1L, story.getPages()));
+
+        assertThrows(BadRequestException.class, () -> playthroughService.choosePage(1L, 1));
+        verify(playthroughRepository, never()).save(any());
+    }
+
     @Test
     void getPlaythroughById_unauthorized() {
         Playthrough pt = new Playthrough();
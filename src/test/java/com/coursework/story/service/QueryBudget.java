@@ -0,0 +1,32 @@
+package com.coursework.story.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Counts the JDBC statements Hibernate prepares while an action runs, from the session factory statistics
+final class QueryBudget {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    QueryBudget(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    long statements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    long assertAtMost(long budget, Runnable action) {
+        long statements = statements(action);
+        assertTrue(statements <= budget, "Expected at most " + budget + " statements but " + statements
+                + " were prepared");
+        return statements;
+    }
+}
@@ -0,0 +1,199 @@
+package com.coursework.story.service;
+
+import com.coursework.story.dto.CommentDTO;
+import com.coursework.story.dto.PageDTO;
+import com.coursework.story.dto.PlaythroughDTO;
+import com.coursework.story.model.*;
+import com.coursework.story.repository.CommentRepository;
+import com.coursework.story.repository.PageRepository;
+import com.coursework.story.repository.PlaythroughRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Statement budgets for the read paths behind the main endpoints: each one must stay flat as the
+// result grows, so a lazy association walked per row shows up here as a failing test
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({StoryListingService.class, SimpleMeterRegistry.class})
+class QueryBudgetTest {
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private StoryListingService storyListingService;
+    @Autowired private PageRepository pageRepository;
+    @Autowired private PlaythroughRepository playthroughRepository;
+    @Autowired private CommentRepository commentRepository;
+
+    private QueryBudget queryBudget;
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        queryBudget = new QueryBudget(entityManagerFactory);
+        author = user("author");
+    }
+
+    @Test
+    void storyListing_doesNotGrowWithStories() {
+        List<Long> ids = IntStream.range(0, 30).mapToObj(i -> story("Story " + i, 1).getId()).toList();
+        entityManager.clear();
+
+        long few = queryBudget.assertAtMost(3, () -> assertEquals(5, storyListingService.loadStories(ids.subList(0, 5)).size()));
+        long many = queryBudget.assertAtMost(3, () -> assertEquals(30, storyListingService.loadStories(ids).size()));
+
+        assertEquals(few, many);
+    }
+
+    @Test
+    void storyPages_doNotGrowWithPages() {
+        Story small = story("Small", 5);
+        Story large = story("Large", 40);
+        entityManager.clear();
+
+        long few = queryBudget.assertAtMost(8, () -> renderPages(small.getId(), 5));
+        long many = queryBudget.assertAtMost(8, () -> renderPages(large.getId(), 40));
+
+        assertEquals(few, many);
+    }
+
+    @Test
+    void playthroughList_doesNotGrowWithPlaythroughs() {
+        User casual = user("casual");
+        User regular = user("regular");
+        for (int i = 0; i < 3; i++) {
+            playthrough(casual, story("Casual " + i, 3));
+        }
+        for (int i = 0; i < 20; i++) {
+            playthrough(regular, story("Regular " + i, 3));
+        }
+        entityManager.clear();
+
+        long few = queryBudget.assertAtMost(8, () -> listPlaythroughs(casual, 3));
+        long many = queryBudget.assertAtMost(8, () -> listPlaythroughs(regular, 20));
+        assertEquals(few, many);
+
+        long seekFew = queryBudget.assertAtMost(8, () -> seekPlaythroughs(casual, 3));
+        long seekMany = queryBudget.assertAtMost(8, () -> seekPlaythroughs(regular, 20));
+        assertEquals(seekFew, seekMany);
+    }
+
+    @Test
+    void comments_doNotGrowWithComments() {
+        Story quiet = story("Quiet", 1);
+        Story busy = story("Busy", 1);
+        comment(quiet, user("reader0"));
+        for (int i = 1; i <= 20; i++) {
+            comment(busy, user("reader" + i));
+        }
+        entityManager.clear();
+
+        long few = queryBudget.assertAtMost(3, () -> listComments(quiet, 1));
+        long many = queryBudget.assertAtMost(3, () -> listComments(busy, 20));
+
+        assertEquals(few, many);
+    }
+
+    // PageDTO keeps the page's choices, whose required items are walked when the response is written
+    private void renderPages(Long storyId, int expected) {
+        List<PageDTO> pages = pageRepository.findAllByStoryIdOrderByPageNumber(storyId).stream()
+                .map(PageDTO::new)
+                .toList();
+        assertEquals(expected, pages.size());
+        pages.forEach(page -> page.getChoices().forEach(choice -> choice.getRequiredItems().size()));
+    }
+
+    private void listPlaythroughs(User user, int expected) {
+        List<PlaythroughDTO> playthroughs = playthroughRepository.findByUser(user, PageRequest.of(0, 50))
+                .map(PlaythroughDTO::new)
+                .getContent();
+        assertEquals(expected, playthroughs.size());
+    }
+
+    private void seekPlaythroughs(User user, int expected) {
+        List<PlaythroughDTO> playthroughs = playthroughRepository.findByUserSeek(user, null, Limit.of(50)).stream()
+                .map(PlaythroughDTO::new)
+                .toList();
+        assertEquals(expected, playthroughs.size());
+    }
+
+    private void listComments(Story story, int expected) {
+        List<CommentDTO> comments = commentRepository.findByStoryIdOrderByCreatedAt(story.getId(), PageRequest.of(0, 50))
+                .map(CommentDTO::new)
+                .getContent();
+        assertEquals(expected, comments.size());
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        return entityManager.persist(user);
+    }
+
+    private Story story(String title, int pageCount) {
+        Story story = new Story();
+        story.setTitle(title);
+        story.setUser(author);
+        story.setStatus(StoryStatus.PUBLISHED);
+        story.setGenres(new ArrayList<>(List.of(Genre.FANTASY)));
+        story.setTags(new HashSet<>(Set.of("tag")));
+        story.setStartPageNumber(1);
+        entityManager.persist(story);
+
+        Item key = new Item();
+        key.setName("Key");
+        key.setStory(story);
+        entityManager.persist(key);
+
+        for (int number = 1; number <= pageCount; number++) {
+            Page page = new Page();
+            page.setPageNumber(number);
+            page.setTitle("Page " + number);
+            page.setStory(story);
+            page.setParagraphs(new ArrayList<>(List.of("Paragraph " + number)));
+            page.setItemsGranted(new HashSet<>(Set.of(key)));
+            if (number < pageCount) {
+                Choice choice = new Choice("Next", number + 1);
+                choice.setPage(page);
+                choice.setRequiredItems(new HashSet<>(Set.of(key)));
+                page.setChoices(new ArrayList<>(List.of(choice)));
+            }
+            entityManager.persist(page);
+        }
+        entityManager.flush();
+        return story;
+    }
+
+    private void playthrough(User user, Story story) {
+        Page start = pageRepository.findByStoryIdAndPageNumber(story.getId(), 1).orElseThrow();
+        Playthrough playthrough = new Playthrough();
+        playthrough.setUser(user);
+        playthrough.setStory(story);
+        playthrough.setCurrentPage(start);
+        playthrough.setPath(new ArrayList<>(List.of(1)));
+        playthrough.setStats(new PlayerStats(10, 20, 10));
+        playthrough.setInventory(new HashSet<>(start.getItemsGranted()));
+        entityManager.persist(playthrough);
+    }
+
+    private void comment(Story story, User user) {
+        Comment comment = new Comment();
+        comment.setStory(story);
+        comment.setUser(user);
+        comment.setText("Nice");
+        entityManager.persist(comment);
+    }
+}
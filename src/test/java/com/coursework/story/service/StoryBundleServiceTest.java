@@ -0,0 +1,268 @@
+package com.coursework.story.service;
+
+import com.coursework.story.exception.BadRequestException;
+import com.coursework.story.exception.UnauthorizedException;
+import com.coursework.story.model.Genre;
+import com.coursework.story.model.Story;
+import com.coursework.story.model.StoryStatus;
+import com.coursework.story.model.User;
+import com.coursework.story.repository.StoryRepository;
+import com.coursework.story.service.StoryBundle.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StoryBundleServiceTest {
+
+    @Mock
+    private StoryRepository storyRepository;
+    @Mock
+    private AuthService authService;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StoryBundleService storyBundleService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        storyBundleService = new StoryBundleService(storyRepository, authService, jdbcTemplate, transactionTemplate,
+                objectMapper, 2, 100);
+        user = new User();
+        user.setId(1L);
+    }
+
+    @Test
+    void importBundle_insertsRecordsParentsFirstInBatches() throws IOException {
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(storyRepository.save(any(Story.class))).thenAnswer(invocation -> {
+            Story story = invocation.getArgument(0);
+            story.setId(50L);
+            return story;
+        });
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenAnswer(invocation -> insertedRows(invocation.getArgument(1)));
+
+        StoryBundleService.ImportReport report = storyBundleService.importBundle(bundle(
+                header(),
+                new ItemRecord(7L, "Sword", "Sharp", "sword.png", 2, null, null),
+                new PageRecord(10L, 1, "Start", null, null, null, null, null, null, 0.0, 0.0),
+                new PageRecord(11L, 2, "Cave", "Goblin", 5, 4, null, -1, null, 100.0, 0.0),
+                new PageRecord(12L, 3, "End", null, null, null, null, null, null, 200.0, 0.0),
+                new ParagraphRecord(10L, "You wake up."),
+                new ChoiceRecord(20L, 10L, "Enter the cave", 2, false),
+                new RequiredItemRecord(10L, 20L, 7L),
+                new GrantedItemRecord(11L, 7L)));
+
+        ArgumentCaptor<Story> draft = ArgumentCaptor.forClass(Story.class);
+        verify(storyRepository).save(draft.capture());
+        assertEquals("Imported", draft.getValue().getTitle());
+        assertEquals(StoryStatus.DRAFT, draft.getValue().getStatus());
+        assertEquals(user, draft.getValue().getUser());
+        assertEquals(List.of(Genre.FANTASY), draft.getValue().getGenres());
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).batchUpdate(eq(StoryBundleService.INSERT_ITEM),
+                argThat((List<Object[]> rows) -> rows.size() == 1 && rows.getFirst()[6].equals(50L)));
+        inOrder.verify(jdbcTemplate).batchUpdate(eq(StoryBundleService.INSERT_PAGE),
+                argThat((List<Object[]> rows) -> rows.size() == 2));
+        inOrder.verify(jdbcTemplate).batchUpdate(eq(StoryBundleService.INSERT_PAGE),
+                argThat((List<Object[]> rows) -> rows.size() == 1));
+        inOrder.verify(jdbcTemplate).batchUpdate(eq(StoryBundleService.INSERT_PARAGRAPH), anyList());
+        inOrder.verify(jdbcTemplate).batchUpdate(eq(StoryBundleService.INSERT_CHOICE), anyList());
+        inOrder.verify(jdbcTemplate).batchUpdate(eq(StoryBundleService.INSERT_REQUIRED_ITEM), anyList());
+        inOrder.verify(jdbcTemplate).batchUpdate(eq(StoryBundleService.INSERT_GRANTED_ITEM), anyList());
+        inOrder.verifyNoMoreInteractions();
+
+        assertEquals(new StoryBundleService.ImportReport(50L, 1, 3, 1, 1, 2), report);
+    }
+
+    @Test
+    void importBundle_reportsRowsInsertedRatherThanRecordsRead() throws IOException {
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(storyRepository.save(any(Story.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(jdbcTemplate.batchUpdate(eq(StoryBundleService.INSERT_PAGE), anyList()))
+                .thenReturn(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+
+        StoryBundleService.ImportReport report = storyBundleService.importBundle(bundle(
+                header(),
+                new PageRecord(10L, 1, "Start", null, null, null, null, null, null, 0.0, 0.0),
+                new PageRecord(11L, 2, "Cave", null, null, null, null, null, null, 100.0, 0.0)));
+
+        assertEquals(2, report.pages());
+    }
+
+    @Test
+    void importBundle_writesParagraphPositionsPerPage() throws IOException {
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(storyRepository.save(any(Story.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenAnswer(invocation -> insertedRows(invocation.getArgument(1)));
+
+        storyBundleService.importBundle(bundle(
+                header(),
+                new PageRecord(10L, 1, "Start", null, null, null, null, null, null, 0.0, 0.0),
+                new PageRecord(11L, 2, "Cave", null, null, null, null, null, null, 0.0, 0.0),
+                new ParagraphRecord(10L, "First"),
+                new ParagraphRecord(10L, "Second"),
+                new ParagraphRecord(11L, "Only")));
+
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.captor();
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(StoryBundleService.INSERT_PARAGRAPH), batches.capture());
+        List<Object[]> rows = batches.getAllValues().stream().flatMap(List::stream).toList();
+        assertArrayEquals(new Object[]{"First", 0, null, 10L}, rows.get(0));
+        assertArrayEquals(new Object[]{"Second", 1, null, 10L}, rows.get(1));
+        assertArrayEquals(new Object[]{"Only", 0, null, 11L}, rows.get(2));
+    }
+
+    @Test
+    void importBundle_unresolvedReference_throws() {
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(storyRepository.save(any(Story.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(jdbcTemplate.batchUpdate(eq(StoryBundleService.INSERT_PAGE), anyList())).thenReturn(new int[]{1});
+        when(jdbcTemplate.batchUpdate(eq(StoryBundleService.INSERT_PARAGRAPH), anyList())).thenReturn(new int[]{1, 0});
+
+        assertThrows(BadRequestException.class, () -> storyBundleService.importBundle(bundle(
+                header(),
+                new PageRecord(10L, 1, "Start", null, null, null, null, null, null, 0.0, 0.0),
+                new ParagraphRecord(10L, "You wake up."),
+                new ParagraphRecord(99L, "Nobody reads this."))));
+    }
+
+    @Test
+    void importBundle_withoutStoryRecord_throws() {
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+
+        assertThrows(BadRequestException.class, () -> storyBundleService.importBundle(bundle(
+                new PageRecord(10L, 1, "Start", null, null, null, null, null, null, null, null))));
+        verifyNoInteractions(storyRepository, jdbcTemplate);
+    }
+
+    @Test
+    void importBundle_notGzip_throws() {
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+
+        assertThrows(BadRequestException.class,
+                () -> storyBundleService.importBundle(new ByteArrayInputStream("{}".getBytes())));
+    }
+
+    @Test
+    void exportBundle_notOwner_throws() {
+        User other = new User();
+        other.setId(2L);
+        Story story = new Story();
+        story.setUser(other);
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(storyRepository.findById(5L)).thenReturn(Optional.of(story));
+
+        assertThrows(UnauthorizedException.class, () -> storyBundleService.exportBundle(5L));
+    }
+
+    @Test
+    void exportBundle_writesImportableBundle() throws IOException {
+        Story story = new Story();
+        story.setTitle("Imported");
+        story.setGenres(List.of(Genre.FANTASY));
+        story.setTags(Set.of("dragons"));
+        story.setStartPageNumber(1);
+        story.setUser(user);
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(storyRepository.findById(5L)).thenReturn(Optional.of(story));
+        doAnswer(invocation -> null).when(transactionTemplate).executeWithoutResult(any());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        storyBundleService.exportBundle(5L).writeTo(out);
+
+        when(storyRepository.save(any(Story.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        storyBundleService.importBundle(new ByteArrayInputStream(out.toByteArray()));
+
+        ArgumentCaptor<Story> draft = ArgumentCaptor.forClass(Story.class);
+        verify(storyRepository).save(draft.capture());
+        assertEquals("Imported", draft.getValue().getTitle());
+        assertEquals(Set.of("dragons"), draft.getValue().getTags());
+        assertEquals(1, draft.getValue().getStartPageNumber());
+    }
+
+    @Test
+    void exportBundle_streamsRowsOnMySql() throws Exception {
+        Story story = new Story();
+        story.setTitle("Exported");
+        story.setUser(user);
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
+        when(storyRepository.findById(5L)).thenReturn(Optional.of(story));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        storyBundleService.exportBundle(5L).writeTo(new ByteArrayOutputStream());
+
+        ArgumentCaptor<PreparedStatementCreator> creators = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate, times(7)).query(creators.capture(), any(RowCallbackHandler.class));
+
+        Connection connection = mock(Connection.class, RETURNS_DEEP_STUBS);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.getMetaData().getDriverName()).thenReturn("MySQL Connector/J");
+        when(connection.prepareStatement(StoryBundleService.SELECT_PARAGRAPHS, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY)).thenReturn(statement);
+        creators.getAllValues().get(2).createPreparedStatement(connection);
+
+        verify(statement).setFetchSize(Integer.MIN_VALUE);
+        verify(statement).setLong(1, 5L);
+    }
+
+    private Header header() {
+        return new Header(StoryBundle.FORMAT, "Imported", "A story", null, List.of(Genre.FANTASY),
+                Set.of("dragons"), 1);
+    }
+
+    private ByteArrayInputStream bundle(StoryBundle.Record... records) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SequenceWriter writer = objectMapper.writerFor(StoryBundle.Record.class)
+                .withRootValueSeparator("\n")
+                .writeValues(new GZIPOutputStream(out))) {
+            for (StoryBundle.Record record : records) {
+                writer.write(record);
+            }
+        }
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    private static int[] insertedRows(List<Object[]> rows) {
+        int[] counts = new int[rows.size()];
+        Arrays.fill(counts, 1);
+        return counts;
+    }
+}
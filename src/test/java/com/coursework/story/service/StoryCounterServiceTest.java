@@ -0,0 +1,175 @@
+package com.coursework.story.service;
+
+import com.coursework.story.model.Story;
+import com.coursework.story.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StoryCounterServiceTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private EntityCacheService entityCacheService;
+
+    private StoryCounterService storyCounterService;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batchCaptor;
+
+    @BeforeEach
+    void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        storyCounterService = new StoryCounterService(userRepository, jdbcTemplate, entityCacheService,
+                meterRegistry, 2);
+    }
+
+    @Test
+    void toggleLike_insertsWhenNotLiked() {
+        when(userRepository.removeLike(1L, 10L)).thenReturn(0);
+        when(userRepository.addLike(1L, 10L)).thenReturn(1);
+
+        StoryCounterService.Toggle toggle = storyCounterService.toggleLike(1L, 10L);
+
+        assertTrue(toggle.active());
+        assertEquals(1, toggle.delta());
+    }
+
+    @Test
+    void toggleLike_removesWhenAlreadyLiked() {
+        when(userRepository.removeLike(1L, 10L)).thenReturn(1);
+
+        StoryCounterService.Toggle toggle = storyCounterService.toggleLike(1L, 10L);
+
+        assertFalse(toggle.active());
+        assertEquals(-1, toggle.delta());
+        verify(userRepository, never()).addLike(any(), any());
+    }
+
+    @Test
+    void currentLikes_includesUnflushedDeltas() {
+        when(userRepository.removeLike(anyLong(), eq(10L))).thenReturn(0);
+        when(userRepository.addLike(anyLong(), eq(10L))).thenReturn(1);
+        storyCounterService.toggleLike(1L, 10L);
+        storyCounterService.toggleLike(2L, 10L);
+
+        Story story = new Story();
+        story.setId(10L);
+        story.setLikes(5);
+
+        assertEquals(7, storyCounterService.currentLikes(story));
+    }
+
+    @Test
+    void flush_writesOneBatchedRowPerStoryAndResets() {
+        when(userRepository.removeFavorite(1L, 10L)).thenReturn(0);
+        when(userRepository.addFavorite(1L, 10L)).thenReturn(1);
+        storyCounterService.toggleFavorite(1L, 10L);
+        storyCounterService.recordRead(10L);
+        storyCounterService.recordRead(10L);
+        storyCounterService.recordRead(11L);
+
+        storyCounterService.flush();
+
+        verify(jdbcTemplate).batchUpdate(eq(StoryCounterService.FLUSH_SQL), batchCaptor.capture());
+        List<Object[]> batch = batchCaptor.getValue();
+        assertEquals(2, batch.size());
+        Object[] row = batch.stream().filter(r -> r[3].equals(10L)).findFirst().orElseThrow();
+        assertArrayEquals(new Object[]{0L, 1L, 2L, 10L}, row);
+        verify(entityCacheService).evictStories(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(10L, 11L))));
+
+        storyCounterService.flush();
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void flush_failure_keepsDeltasForNextFlush() {
+        storyCounterService.recordRead(10L);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(new int[]{1});
+
+        assertThrows(RuntimeException.class, () -> storyCounterService.flush());
+        storyCounterService.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(StoryCounterService.FLUSH_SQL), batchCaptor.capture());
+        assertArrayEquals(new Object[]{0L, 0L, 1L, 10L}, batchCaptor.getValue().getFirst());
+    }
+
+    @Test
+    void reconcile_correctsDriftSeenOnTwoPassesThroughPendingCounters() {
+        when(jdbcTemplate.query(eq(StoryCounterService.DRIFT_SQL), driftMapper(), eq(0L), eq(2)))
+                .thenReturn(List.of(drift(10L, 2, -1)));
+
+        storyCounterService.reconcile();
+        storyCounterService.flush();
+        verify(jdbcTemplate, never()).batchUpdate(eq(StoryCounterService.FLUSH_SQL), anyList());
+
+        storyCounterService.reconcile();
+        storyCounterService.flush();
+        verify(jdbcTemplate).batchUpdate(eq(StoryCounterService.FLUSH_SQL), batchCaptor.capture());
+        assertArrayEquals(new Object[]{2L, -1L, 0L, 10L}, batchCaptor.getValue().getFirst());
+    }
+
+    @Test
+    void reconcile_ignoresDriftThatChangesBetweenPasses() {
+        when(jdbcTemplate.query(eq(StoryCounterService.DRIFT_SQL), driftMapper(), eq(0L), eq(2)))
+                .thenReturn(List.of(drift(10L, 1, 0)))
+                .thenReturn(List.of(drift(10L, 0, 0)))
+                .thenReturn(List.of(drift(10L, 1, 0)));
+
+        storyCounterService.reconcile();
+        storyCounterService.reconcile();
+        storyCounterService.reconcile();
+        storyCounterService.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(eq(StoryCounterService.FLUSH_SQL), anyList());
+    }
+
+    @Test
+    void reconcile_discountsDeltasNotYetFlushed() {
+        when(userRepository.addLike(1L, 10L)).thenReturn(1);
+        when(jdbcTemplate.query(eq(StoryCounterService.DRIFT_SQL), driftMapper(), eq(0L), eq(2)))
+                .thenReturn(List.of(drift(10L, 1, 0)));
+
+        storyCounterService.toggleLike(1L, 10L);
+        storyCounterService.reconcile();
+        storyCounterService.reconcile();
+        storyCounterService.flush();
+
+        verify(jdbcTemplate).batchUpdate(eq(StoryCounterService.FLUSH_SQL), batchCaptor.capture());
+        assertArrayEquals(new Object[]{1L, 0L, 0L, 10L}, batchCaptor.getValue().getFirst());
+    }
+
+    @Test
+    void reconcile_walksStoriesInIdRanges() {
+        when(jdbcTemplate.query(eq(StoryCounterService.DRIFT_SQL), driftMapper(), eq(0L), eq(2)))
+                .thenReturn(List.of(drift(3L, 0, 0), drift(7L, 0, 0)));
+        when(jdbcTemplate.query(eq(StoryCounterService.DRIFT_SQL), driftMapper(), eq(7L), eq(2)))
+                .thenReturn(List.of(drift(9L, 0, 0)));
+
+        storyCounterService.reconcile();
+
+        verify(jdbcTemplate, times(2)).query(eq(StoryCounterService.DRIFT_SQL), driftMapper(), anyLong(), eq(2));
+    }
+
+    private static RowMapper<StoryCounterService.Drift> driftMapper() {
+        return ArgumentMatchers.any();
+    }
+
+    private static StoryCounterService.Drift drift(Long storyId, long likes, long favorites) {
+        return new StoryCounterService.Drift(storyId, likes, favorites);
+    }
+}
@@ -0,0 +1,157 @@
+package com.coursework.story.service;
+
+import com.coursework.story.model.Choice;
+import com.coursework.story.model.Page;
+import com.coursework.story.repository.PageEdgeRow;
+import com.coursework.story.repository.PageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StoryGraphServiceTest {
+
+    @Mock
+    private PageRepository pageRepository;
+
+    private StoryGraphService storyGraphService;
+
+    @BeforeEach
+    void setUp() {
+        storyGraphService = new StoryGraphService(pageRepository, new SimpleMeterRegistry(), 1000);
+    }
+
+    @Test
+    void analyze_validStory_isPublishable() {
+        when(pageRepository.findEdgeRowsByStoryId(1L)).thenReturn(List.of(
+                new PageEdgeRow(10L, 1, 2),
+                new PageEdgeRow(20L, 2, null)));
+
+        StoryGraph.Report report = storyGraphService.analyze(1L, 1);
+
+        assertTrue(report.publishable());
+        assertEquals(2, report.pageCount());
+        assertTrue(report.errors().isEmpty());
+        assertTrue(report.cycles().isEmpty());
+    }
+
+    @Test
+    void analyze_reportsUnreachablePagesAndCycles() {
+        when(pageRepository.findEdgeRowsByStoryId(1L)).thenReturn(List.of(
+                new PageEdgeRow(10L, 1, 2),
+                new PageEdgeRow(20L, 2, 1),
+                new PageEdgeRow(20L, 2, 3),
+                new PageEdgeRow(30L, 3, null),
+                new PageEdgeRow(40L, 4, 4)));
+
+        StoryGraph.Report report = storyGraphService.analyze(1L, 1);
+
+        assertFalse(report.publishable());
+        assertEquals(List.of(4), report.unreachablePages());
+        assertEquals(List.of(List.of(1, 2), List.of(4)), report.cycles());
+        assertEquals(List.of("The following pages are unreachable from the start page: [4]"), report.errors());
+    }
+
+    @Test
+    void pageSaved_updatesCachedGraphWithoutReloading() {
+        when(pageRepository.findEdgeRowsByStoryId(1L)).thenReturn(List.of(
+                new PageEdgeRow(10L, 1, 2),
+                new PageEdgeRow(20L, 2, null)));
+        storyGraphService.analyze(1L, 1);
+
+        storyGraphService.pageSaved(1L, page(20L, 2, 3));
+        StoryGraph.Report dangling = storyGraphService.analyze(1L, 1);
+
+        assertEquals(List.of(new StoryGraph.DanglingChoice(2, 3)), dangling.danglingChoices());
+        assertEquals(List.of(2), dangling.deadEndPages());
+        assertEquals(List.of("Choice on page 2 points to a non-existent page: 3"), dangling.errors());
+
+        storyGraphService.pageSaved(1L, page(30L, 3));
+        StoryGraph.Report fixed = storyGraphService.analyze(1L, 1);
+
+        assertTrue(fixed.publishable());
+        assertTrue(fixed.deadEndPages().isEmpty());
+        verify(pageRepository, times(1)).findEdgeRowsByStoryId(1L);
+    }
+
+    @Test
+    void pageDeleted_dropsIncomingChoices() {
+        when(pageRepository.findEdgeRowsByStoryId(1L)).thenReturn(List.of(
+                new PageEdgeRow(10L, 1, 2),
+                new PageEdgeRow(10L, 1, 3),
+                new PageEdgeRow(20L, 2, 2),
+                new PageEdgeRow(30L, 3, null)));
+        storyGraphService.analyze(1L, 1);
+
+        storyGraphService.pageDeleted(1L, 20L, 2);
+        StoryGraph.Report report = storyGraphService.analyze(1L, 1);
+
+        assertEquals(2, report.pageCount());
+        assertTrue(report.publishable());
+        assertTrue(report.danglingChoices().isEmpty());
+        assertTrue(report.cycles().isEmpty());
+    }
+
+    @Test
+    void pageSaved_renumberedPage_reportsDuplicates() {
+        when(pageRepository.findEdgeRowsByStoryId(1L)).thenReturn(List.of(
+                new PageEdgeRow(10L, 1, 2),
+                new PageEdgeRow(20L, 2, null)));
+        storyGraphService.analyze(1L, 1);
+
+        storyGraphService.pageSaved(1L, page(20L, 1));
+        StoryGraph.Report report = storyGraphService.analyze(1L, 1);
+
+        assertEquals(List.of(1), report.duplicatePages());
+        assertEquals(List.of("Duplicate page numbers found: [1]",
+                "Choice on page 1 points to a non-existent page: 2"), report.errors());
+    }
+
+    @Test
+    void pageSaved_uncachedStory_isIgnored() {
+        storyGraphService.pageSaved(1L, page(10L, 1));
+
+        verifyNoInteractions(pageRepository);
+    }
+
+    @Test
+    void evict_reloadsGraph() {
+        when(pageRepository.findEdgeRowsByStoryId(1L)).thenReturn(List.of(new PageEdgeRow(10L, 1, null)));
+        storyGraphService.analyze(1L, 1);
+
+        storyGraphService.evict(1L);
+        storyGraphService.analyze(1L, 1);
+
+        verify(pageRepository, times(2)).findEdgeRowsByStoryId(1L);
+    }
+
+    @Test
+    void analyze_emptyStory_requiresPages() {
+        when(pageRepository.findEdgeRowsByStoryId(1L)).thenReturn(List.of());
+
+        StoryGraph.Report report = storyGraphService.analyzeFresh(1L, null);
+
+        assertEquals(List.of("A story must have at least one page."), report.errors());
+    }
+
+    private Page page(Long id, int pageNumber, Integer... targets) {
+        Page page = new Page();
+        page.setId(id);
+        page.setPageNumber(pageNumber);
+        List<Choice> choices = new ArrayList<>();
+        for (Integer target : targets) {
+            choices.add(new Choice("choice", target));
+        }
+        page.setChoices(choices);
+        return page;
+    }
+}
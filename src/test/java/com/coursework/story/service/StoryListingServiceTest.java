@@ -0,0 +1,86 @@
+package com.coursework.story.service;
+
+import com.coursework.story.dto.StoryDTO;
+import com.coursework.story.model.Genre;
+import com.coursework.story.model.StoryStatus;
+import com.coursework.story.repository.StoryGenreRow;
+import com.coursework.story.repository.StoryListRow;
+import com.coursework.story.repository.StoryRepository;
+import com.coursework.story.repository.StoryTagRow;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StoryListingServiceTest {
+
+    @Mock
+    private StoryRepository storyRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private StoryListingService storyListingService;
+
+    @Test
+    void loadStories_keepsRequestedOrderAndBatchesCollections() {
+        List<Long> ids = List.of(2L, 1L);
+        when(storyRepository.findListRowsByIdIn(ids)).thenReturn(List.of(row(1L, StoryStatus.PUBLISHED, 7L), row(2L, StoryStatus.DRAFT, 9L)));
+        when(storyRepository.findGenreRowsByIdIn(ids)).thenReturn(List.of(
+                new StoryGenreRow(1L, Genre.FANTASY), new StoryGenreRow(1L, Genre.DRAMA)));
+        when(storyRepository.findTagRowsByIdIn(ids)).thenReturn(List.of(new StoryTagRow(2L, "dragons")));
+
+        List<StoryDTO> stories = storyListingService.loadStories(ids);
+
+        assertEquals(List.of(2L, 1L), stories.stream().map(StoryDTO::getId).toList());
+        StoryDTO draft = stories.get(0);
+        StoryDTO published = stories.get(1);
+        assertEquals("author", draft.getUser().getUsername());
+        assertEquals(Set.of("dragons"), draft.getTags());
+        assertTrue(draft.getGenres().isEmpty());
+        assertEquals(9L, draft.getOriginalStoryId());
+        assertEquals(List.of(Genre.FANTASY, Genre.DRAMA), published.getGenres());
+        assertNull(published.getOriginalStoryId());
+        assertEquals(3, published.getPageCount());
+        verifyNoMoreInteractions(storyRepository);
+    }
+
+    @Test
+    void loadStories_pageOfIds_keepsPaging() {
+        PageRequest pageable = PageRequest.of(1, 1);
+        when(storyRepository.findListRowsByIdIn(List.of(1L))).thenReturn(List.of(row(1L, StoryStatus.PUBLISHED, null)));
+
+        Page<StoryDTO> page = storyListingService.loadStories(new PageImpl<>(List.of(1L), pageable, 3));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(pageable, page.getPageable());
+        assertEquals(1, page.getContent().size());
+    }
+
+    @Test
+    void loadStories_noIds_skipsQueries() {
+        assertTrue(storyListingService.loadStories(List.of()).isEmpty());
+        verifyNoInteractions(storyRepository);
+    }
+
+    private StoryListRow row(Long id, StoryStatus status, Long originalStoryId) {
+        return new StoryListRow(id, "Story " + id, "cover.jpg", "description", 3L, 1, status, 1,
+                originalStoryId, LocalDateTime.of(2024, 1, 1, 0, 0), null, 4, 2, 10, "author", null);
+    }
+}
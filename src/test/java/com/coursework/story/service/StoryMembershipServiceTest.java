@@ -0,0 +1,63 @@
+package com.coursework.story.service;
+
+import com.coursework.story.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StoryMembershipServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @Test
+    void findMembership_queriesOnlyRequestedIds() {
+        StoryMembershipService service = new StoryMembershipService(userRepository, new SimpleMeterRegistry(), false, 100, 30);
+        when(userRepository.findMembershipForStories(1L, Set.of(10L, 11L, 12L))).thenReturn(List.of(
+                new Object[]{10L, "LIKE"},
+                new Object[]{12L, "LIKE"},
+                new Object[]{12L, "FAVORITE"}));
+
+        StoryMembershipService.Membership membership = service.findMembership(1L, List.of(10L, 11L, 12L));
+
+        assertEquals(Set.of(10L, 12L), membership.likedIds());
+        assertEquals(Set.of(12L), membership.favoriteIds());
+        assertFalse(membership.isLiked(11L));
+        verify(userRepository, never()).findAllMembership(any());
+    }
+
+    @Test
+    void findMembership_anonymousUser_returnsEmptyWithoutQuery() {
+        StoryMembershipService service = new StoryMembershipService(userRepository, new SimpleMeterRegistry(), false, 100, 30);
+
+        StoryMembershipService.Membership membership = service.findMembership(null, List.of(10L));
+
+        assertTrue(membership.likedIds().isEmpty());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void findMembership_bitmapCache_loadsUserOnceUntilEvicted() {
+        StoryMembershipService service = new StoryMembershipService(userRepository, new SimpleMeterRegistry(), true, 100, 30);
+        when(userRepository.findAllMembership(1L)).thenReturn(List.of(
+                new Object[]{10L, "LIKE"},
+                new Object[]{3_000_000_000L, "FAVORITE"}));
+
+        StoryMembershipService.Membership first = service.findMembership(1L, List.of(10L, 11L));
+        StoryMembershipService.Membership second = service.findMembership(1L, List.of(3_000_000_000L));
+
+        assertEquals(Set.of(10L), first.likedIds());
+        assertEquals(Set.of(3_000_000_000L), second.favoriteIds());
+        verify(userRepository, times(1)).findAllMembership(1L);
+
+        service.evict(1L);
+        service.findMembership(1L, List.of(10L));
+
+        verify(userRepository, times(2)).findAllMembership(1L);
+        verify(userRepository, never()).findMembershipForStories(any(), any());
+    }
+}
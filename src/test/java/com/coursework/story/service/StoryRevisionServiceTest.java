@@ -0,0 +1,102 @@
+package com.coursework.story.service;
+
+import com.coursework.story.model.StoryStatus;
+import com.coursework.story.repository.StoryRepository;
+import com.coursework.story.repository.StoryRevision;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StoryRevisionServiceTest {
+
+    @Mock
+    private StoryRepository storyRepository;
+    @Mock
+    private Supplier<String> body;
+
+    private StoryRevisionService storyRevisionService;
+
+    @BeforeEach
+    void setUp() {
+        storyRevisionService = new StoryRevisionService(storyRepository, 60, 86400);
+    }
+
+    @Test
+    void content_published_sendsETagAndCacheControl() {
+        when(storyRepository.findRevisionById(1L)).thenReturn(Optional.of(revision(StoryStatus.PUBLISHED, 5)));
+        when(body.get()).thenReturn("pages");
+
+        ResponseEntity<String> response = storyRevisionService.content(1L, request(null), body);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("pages", response.getBody());
+        assertEquals(StoryRevisionService.contentTag(revision(StoryStatus.PUBLISHED, 5)), response.getHeaders().getETag());
+        assertEquals("max-age=86400, public", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void content_matchingETag_returnsNotModifiedWithoutBuildingBody() {
+        StoryRevision revision = revision(StoryStatus.PUBLISHED, 5);
+        when(storyRepository.findRevisionById(1L)).thenReturn(Optional.of(revision));
+
+        ResponseEntity<String> response = storyRevisionService.content(1L,
+                request(StoryRevisionService.contentTag(revision)), body);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verifyNoInteractions(body);
+    }
+
+    @Test
+    void story_counterChange_changesETag() {
+        StoryRevision revision = revision(StoryStatus.PUBLISHED, 5);
+        when(storyRepository.findRevisionById(1L)).thenReturn(Optional.of(revision(StoryStatus.PUBLISHED, 6)));
+        when(body.get()).thenReturn("story");
+
+        ResponseEntity<String> response = storyRevisionService.story(1L,
+                request(StoryRevisionService.storyTag(revision)), body);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("max-age=60, public", response.getHeaders().getCacheControl());
+        assertEquals(StoryRevisionService.contentTag(revision), StoryRevisionService.contentTag(revision(StoryStatus.PUBLISHED, 6)));
+    }
+
+    @Test
+    void content_draft_isNeverCached() {
+        when(storyRepository.findRevisionById(1L)).thenReturn(Optional.of(revision(StoryStatus.DRAFT, 0)));
+        when(body.get()).thenReturn("draft");
+
+        ResponseEntity<String> response = storyRevisionService.content(1L, request("\"anything\""), body);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getETag());
+        assertEquals("no-store", response.getHeaders().getCacheControl());
+    }
+
+    private StoryRevision revision(StoryStatus status, int reads) {
+        return new StoryRevision(1L, status, 2, LocalDateTime.of(2025, 3, 1, 12, 0), 1, 2, reads, "avatar.png");
+    }
+
+    private ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/page/story/1");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
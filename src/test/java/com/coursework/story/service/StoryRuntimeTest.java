@@ -0,0 +1,49 @@
+package com.coursework.story.service;
+
+import com.coursework.story.model.Page;
+import com.coursework.story.model.Story;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StoryRuntimeTest {
+
+    private final Story story = story();
+
+    @Test
+    void compile_densePageNumbers_resolvesEveryPage() {
+        StoryRuntime runtime = StoryRuntime.compile(1L, List.of(page(10L, 3), page(11L, 4), page(12L, 6)));
+
+        assertEquals(10L, runtime.getPage(3).orElseThrow().id());
+        assertEquals(12L, runtime.getPage(6).orElseThrow().id());
+        assertTrue(runtime.getPage(5).isEmpty());
+        assertTrue(runtime.getPage(Integer.MIN_VALUE).isEmpty());
+    }
+
+    @Test
+    void compile_sparsePageNumbers_doesNotAllocateTheRange() {
+        StoryRuntime runtime = StoryRuntime.compile(1L,
+                List.of(page(10L, -2_000_000_000), page(11L, 1), page(12L, 2_000_000_000)));
+
+        assertEquals(3, runtime.getPageCount());
+        assertEquals(10L, runtime.getPage(-2_000_000_000).orElseThrow().id());
+        assertEquals(12L, runtime.getPage(2_000_000_000).orElseThrow().id());
+        assertTrue(runtime.getPage(2).isEmpty());
+    }
+
+    private Page page(Long id, int pageNumber) {
+        Page page = new Page();
+        page.setId(id);
+        page.setStory(story);
+        page.setPageNumber(pageNumber);
+        return page;
+    }
+
+    private static Story story() {
+        Story story = new Story();
+        story.setId(1L);
+        return story;
+    }
+}
@@ -0,0 +1,172 @@
+package com.coursework.story.service;
+
+import com.coursework.story.repository.StoryRepository;
+import com.coursework.story.repository.StorySearchRow;
+import com.coursework.story.repository.StoryTagRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StorySearchServiceTest {
+
+    @Mock private StoryRepository storyRepository;
+
+    private StorySearchService storySearchService;
+
+    @BeforeEach
+    void setUp() {
+        storySearchService = new StorySearchService(storyRepository, 1000);
+        storySearchService.index(1L, "The Dragon's Keep", "A tower full of treasure", Set.of("fantasy"));
+        storySearchService.index(2L, "Space Pirates", "Dragons appear briefly in the nebula", Set.of("scifi"));
+        storySearchService.index(3L, "Haunted Manor", "A ghost story", Set.of("horror", "dragon"));
+    }
+
+    @Test
+    void search_ranksTitleMatchesAboveTagsAndDescription() {
+        List<Long> result = storySearchService.search("dragon");
+
+        assertEquals(List.of(1L, 3L, 2L), result);
+    }
+
+    @Test
+    void search_matchesPrefix() {
+        assertEquals(List.of(2L), storySearchService.search("pira"));
+    }
+
+    @Test
+    void search_toleratesTypos() {
+        assertEquals(List.of(3L), storySearchService.search("hanted"));
+        assertEquals(List.of(1L), storySearchService.search("treasurre"));
+    }
+
+    @Test
+    void search_requiresAllTerms() {
+        assertEquals(List.of(2L), storySearchService.search("space dragons"));
+        assertTrue(storySearchService.search("space ghost").isEmpty());
+    }
+
+    @Test
+    void search_ignoresCaseAndDiacritics() {
+        storySearchService.index(4L, "Café Mystère", null, Set.of());
+
+        assertEquals(List.of(4L), storySearchService.search("CAFE mystere"));
+    }
+
+    @Test
+    void remove_dropsStoryFromResults() {
+        storySearchService.remove(1L);
+
+        assertFalse(storySearchService.search("dragon").contains(1L));
+        assertTrue(storySearchService.search("treasure").isEmpty());
+    }
+
+    @Test
+    void rebuild_loadsPublishedStories() {
+        when(storyRepository.findPublishedSearchRows()).thenReturn(List.of(
+                new StorySearchRow(10L, "Lost Island", "Shipwrecked")));
+        when(storyRepository.findPublishedTagRows()).thenReturn(List.of(
+                new StoryTagRow(10L, "adventure")));
+
+        storySearchService.rebuild();
+
+        assertEquals(1, storySearchService.size());
+        assertEquals(List.of(10L), storySearchService.search("adventure"));
+        assertTrue(storySearchService.search("dragon").isEmpty());
+    }
+
+    @Test
+    void indexAndRemove_inTransaction_applyOnlyOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            storySearchService.index(4L, "Dragon Riders", null, Set.of());
+            storySearchService.remove(1L);
+
+            assertEquals(List.of(1L, 3L, 2L), storySearchService.search("dragon"));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(4L, 3L, 2L), storySearchService.search("dragon"));
+    }
+
+    @Test
+    void indexAndRemove_rolledBack_leaveIndexUntouched() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            storySearchService.index(4L, "Dragon Riders", null, Set.of());
+            storySearchService.remove(1L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(1L, 3L, 2L), storySearchService.search("dragon"));
+    }
+
+    @Test
+    void search_toleratesTyposInTermsWithFewBigrams() {
+        storySearchService.index(5L, "Nanu", null, Set.of());
+
+        assertEquals(List.of(5L), storySearchService.search("nana"));
+    }
+
+    @Test
+    void search_fuzzyCandidatesMatchExhaustiveScan() {
+        List.of(1L, 2L, 3L).forEach(storySearchService::remove);
+        Random random = new Random(7);
+        Map<Long, String> words = new HashMap<>();
+        for (long id = 10; id < 410; id++) {
+            String word = randomWord(random, 3 + random.nextInt(8));
+            words.put(id, word);
+            storySearchService.index(id, word, null, Set.of());
+        }
+
+        for (int checked = 0; checked < 200; ) {
+            String query = mutate(random, words.get(10L + random.nextInt(400)));
+            if (StorySearchService.maxEdits(query) == 0) {
+                continue;
+            }
+            checked++;
+            int maxEdits = StorySearchService.maxEdits(query);
+            Set<Long> expected = new HashSet<>();
+            words.forEach((id, term) -> {
+                if (term.startsWith(query) || StorySearchService.editDistance(query, term, maxEdits) <= maxEdits) {
+                    expected.add(id);
+                }
+            });
+
+            assertEquals(expected, new HashSet<>(storySearchService.search(query)), query);
+        }
+    }
+
+    private String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append("abcdeno".charAt(random.nextInt(7)));
+        }
+        return word.toString();
+    }
+
+    private String mutate(Random random, String word) {
+        StringBuilder mutated = new StringBuilder(word);
+        for (int edits = random.nextInt(3); edits > 0 && mutated.length() > 1; edits--) {
+            int at = random.nextInt(mutated.length());
+            switch (random.nextInt(3)) {
+                case 0 -> mutated.deleteCharAt(at);
+                case 1 -> mutated.insert(at, "abcdeno".charAt(random.nextInt(7)));
+                default -> mutated.setCharAt(at, "abcdeno".charAt(random.nextInt(7)));
+            }
+        }
+        return mutated.toString();
+    }
+}
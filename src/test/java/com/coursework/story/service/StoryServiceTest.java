@@ -1,21 +1,33 @@
 package com.coursework.story.service;
 
+import com.coursework.story.dto.CursorPage;
+import com.coursework.story.dto.LikeResponse;
+import com.coursework.story.dto.PageCursor;
 import com.coursework.story.dto.StoryDTO;
 import com.coursework.story.exception.BadRequestException;
 import com.coursework.story.exception.NotFoundException;
 import com.coursework.story.exception.StoryValidationException;
 import com.coursework.story.exception.UnauthorizedException;
 import com.coursework.story.model.*;
+import com.coursework.story.repository.PageEdgeRow;
 import com.coursework.story.repository.PageRepository;
 import com.coursework.story.repository.PlaythroughRepository;
 import com.coursework.story.repository.StoryRepository;
 import com.coursework.story.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +44,16 @@ class StoryServiceTest {
     @Mock FirebaseStorageService firebaseStorageService;
     @Mock DraftService draftService;
     @Mock AuthService authService;
+    @Mock TrendingService trendingService;
+    @Mock StorySearchService storySearchService;
+    @Mock StoryRuntimeService storyRuntimeService;
+    @Mock StoryMembershipService storyMembershipService;
+    @Mock StoryCounterService storyCounterService;
+    @Mock ApproximateCountService approximateCountService;
+    @Mock StoryGraphService storyGraphService;
+    @Mock StoryListingService storyListingService;
+
+    @Spy MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     StoryService storyService;
@@ -164,10 +186,13 @@ class StoryServiceTest {
 
         when(authService.getAuthenticatedUserOrThrow()).thenReturn(mockUser);
         when(storyRepository.findById(1L)).thenReturn(Optional.of(mockStory));
+        stubStoryGraph();
         when(storyRepository.save(any())).thenReturn(mockStory);
 
         StoryDTO dto = storyService.publishStory(1L);
         assertEquals(mockStory.getTitle(), dto.getTitle());
+        assertEquals(1, meterRegistry.get("story.publish.validation").timer().count());
+        assertEquals(2.0, meterRegistry.get("story.publish.pages").summary().totalAmount());
     }
 
     @Test
@@ -187,6 +212,7 @@ class StoryServiceTest {
 
         when(authService.getAuthenticatedUserOrThrow()).thenReturn(mockUser);
         when(storyRepository.findById(1L)).thenReturn(Optional.of(mockStory));
+        stubStoryGraph();
 
         StoryValidationException ex = assertThrows(
                 StoryValidationException.class,
@@ -208,6 +234,7 @@ class StoryServiceTest {
 
         when(authService.getAuthenticatedUserOrThrow()).thenReturn(mockUser);
         when(storyRepository.findById(1L)).thenReturn(Optional.of(mockStory));
+        stubStoryGraph();
 
         StoryValidationException ex = assertThrows(
                 StoryValidationException.class,
@@ -229,6 +256,7 @@ class StoryServiceTest {
 
         when(authService.getAuthenticatedUserOrThrow()).thenReturn(mockUser);
         when(storyRepository.findById(1L)).thenReturn(Optional.of(mockStory));
+        stubStoryGraph();
 
         StoryValidationException ex = assertThrows(
                 StoryValidationException.class,
@@ -249,6 +277,7 @@ class StoryServiceTest {
 
         when(authService.getAuthenticatedUserOrThrow()).thenReturn(mockUser);
         when(storyRepository.findById(1L)).thenReturn(Optional.of(mockStory));
+        stubStoryGraph();
 
         StoryValidationException ex = assertThrows(
                 StoryValidationException.class,
@@ -270,6 +299,7 @@ class StoryServiceTest {
 
         when(authService.getAuthenticatedUserOrThrow()).thenReturn(mockUser);
         when(storyRepository.findById(1L)).thenReturn(Optional.of(mockStory));
+        stubStoryGraph();
 
         StoryValidationException ex = assertThrows(
                 StoryValidationException.class,
@@ -290,6 +320,7 @@ class StoryServiceTest {
 
         when(authService.getAuthenticatedUserOrThrow()).thenReturn(mockUser);
         when(storyRepository.findById(1L)).thenReturn(Optional.of(mockStory));
+        stubStoryGraph();
 
         StoryValidationException ex = assertThrows(
                 StoryValidationException.class,
@@ -315,6 +346,7 @@ class StoryServiceTest {
 
         verify(playthroughRepository).deleteByStory(mockStory);
         verify(storyRepository).delete(mockStory);
+        verify(trendingService).evict(1L);
     }
 
     @Test
@@ -328,4 +360,94 @@ class StoryServiceTest {
 
         assertThrows(UnauthorizedException.class, () -> storyService.deleteStory(1L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getStoriesByCursor_firstPage_limitsAndEncodesLastRow() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+        when(storyRepository.findIdsByStatusSeek(StoryStatus.PUBLISHED, Limit.of(3))).thenReturn(List.of(1L, 2L, 3L));
+        when(storyListingService.loadStories(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                listed(1L, createdAt), listed(2L, createdAt.minusDays(1)), listed(3L, createdAt.minusDays(2))));
+        when(authService.getAuthenticatedPrincipal()).thenReturn(Optional.empty());
+        when(storyMembershipService.findMembership(null, List.of(1L, 2L))).thenReturn(StoryMembershipService.Membership.EMPTY);
+
+        CursorPage<StoryDTO> result = storyService.getStoriesByCursor(null, 2, false);
+
+        assertEquals(List.of(1L, 2L), result.getContent().stream().map(StoryDTO::getId).toList());
+        assertTrue(result.isHasNext());
+        assertEquals(new PageCursor(createdAt.minusDays(1), 2L), PageCursor.decode(result.getNextCursor()));
+        verify(storyRepository, never()).countByStatus(any());
+    }
+
+    @Test
+    void getAllStories_loadsProjectionsForPageIds() {
+        Pageable pageable = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "createdAt"));
+        PageImpl<Long> ids = new PageImpl<>(List.of(2L, 1L), pageable, 5);
+        PageImpl<StoryDTO> stories = new PageImpl<>(List.of(listed(2L, null), listed(1L, null)), pageable, 5);
+
+        when(storyRepository.findIdsByStatus(StoryStatus.PUBLISHED, pageable)).thenReturn(ids);
+        when(storyListingService.loadStories(ids)).thenReturn(stories);
+        when(authService.getAuthenticatedPrincipal()).thenReturn(Optional.empty());
+        when(storyMembershipService.findMembership(null, List.of(2L, 1L)))
+                .thenReturn(new StoryMembershipService.Membership(Set.of(1L), Set.of()));
+
+        org.springframework.data.domain.Page<StoryDTO> result = storyService.getAllStories(pageable);
+
+        assertEquals(5, result.getTotalElements());
+        assertEquals(List.of(false, true), result.getContent().stream().map(StoryDTO::getLiked).toList());
+        verify(storyRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void toggleLikeStory_tenthLike_notifiesAuthor() {
+        User author = new User();
+        author.setId(2L);
+        mockStory.setUser(author);
+
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(mockUser);
+        when(storyRepository.findById(1L)).thenReturn(Optional.of(mockStory));
+        when(storyCounterService.toggleLike(1L, 1L)).thenReturn(new StoryCounterService.Toggle(true, 1));
+        when(storyCounterService.currentLikes(mockStory)).thenReturn(9);
+
+        LikeResponse response = storyService.toggleLikeStory(1L);
+
+        assertTrue(response.isResult());
+        assertEquals(10, response.getLikes());
+        verify(notificationService).send(eq(author), anyString(), eq(NotificationType.ACHIEVED_VIEWS), eq(1L));
+        verify(storyMembershipService).evict(1L);
+        verify(storyRepository, never()).save(any());
+    }
+
+    @Test
+    void toggleFavoriteStory_storyMissing_throws() {
+        when(authService.getAuthenticatedUserOrThrow()).thenReturn(mockUser);
+        when(storyRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> storyService.toggleFavoriteStory(1L));
+        verifyNoInteractions(storyCounterService);
+    }
+
+    private StoryDTO listed(Long id, LocalDateTime createdAt) {
+        StoryDTO dto = new StoryDTO();
+        dto.setId(id);
+        dto.setCreatedAt(createdAt);
+        return dto;
+    }
+
+    private void stubStoryGraph() {
+        when(storyGraphService.analyzeFresh(eq(1L), any())).thenAnswer(invocation -> {
+            List<PageEdgeRow> rows = new ArrayList<>();
+            long pageId = 0;
+            for (Page page : mockStory.getPages()) {
+                pageId++;
+                if (page.getChoices().isEmpty()) {
+                    rows.add(new PageEdgeRow(pageId, page.getPageNumber(), null));
+                }
+                for (Choice choice : page.getChoices()) {
+                    rows.add(new PageEdgeRow(pageId, page.getPageNumber(), choice.getTargetPage()));
+                }
+            }
+            return StoryGraph.load(rows).analyze(invocation.getArgument(1));
+        });
+    }
+}
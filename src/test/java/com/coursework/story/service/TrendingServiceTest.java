@@ -0,0 +1,105 @@
+package com.coursework.story.service;
+
+import com.coursework.story.dto.StoryDTO;
+import com.coursework.story.repository.StoryRepository;
+import com.coursework.story.repository.TrendingCandidate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrendingServiceTest {
+
+    @Mock private StoryRepository storyRepository;
+    @Mock private StoryListingService storyListingService;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+    private TrendingService trendingService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        trendingService = new TrendingService(storyRepository, storyListingService,
+                new TransactionTemplate(transactionManager), meterRegistry, 100, 7);
+    }
+
+    @Test
+    void refresh_ranksByEngagementDecayedByAge() {
+        LocalDateTime now = LocalDateTime.now();
+        TrendingCandidate old = new TrendingCandidate(1L, 50, 0, 0, now.minusDays(6));
+        TrendingCandidate fresh = new TrendingCandidate(2L, 10, 0, 0, now.minusHours(1));
+
+        when(storyRepository.findTrendingCandidates(any())).thenReturn(List.of(old, fresh));
+        when(storyListingService.loadStories(List.of(2L, 1L))).thenReturn(List.of(story(2L), story(1L)));
+
+        trendingService.refresh();
+
+        TrendingService.Snapshot snapshot = trendingService.getSnapshot();
+        assertEquals(List.of(2L, 1L), snapshot.stories().stream().map(StoryDTO::getId).toList());
+        assertNotNull(snapshot.computedAt());
+        assertEquals(1, meterRegistry.get("story.trending.compute").timer().count());
+    }
+
+    @Test
+    void getSnapshot_servesCachedRankingWithoutRecomputing() {
+        when(storyRepository.findTrendingCandidates(any())).thenReturn(List.of());
+
+        trendingService.getSnapshot();
+        trendingService.getSnapshot();
+
+        verify(storyRepository, times(1)).findTrendingCandidates(any());
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void evict_dropsStoryFromSnapshotAfterCommit() {
+        LocalDateTime now = LocalDateTime.now();
+        when(storyRepository.findTrendingCandidates(any())).thenReturn(List.of(
+                new TrendingCandidate(1L, 10, 0, 0, now), new TrendingCandidate(2L, 1, 0, 0, now)));
+        when(storyListingService.loadStories(List.of(1L, 2L))).thenReturn(List.of(story(1L), story(2L)));
+        trendingService.refresh();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            trendingService.evict(1L);
+            assertEquals(2, trendingService.getSnapshot().stories().size());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCommit());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(2L), trendingService.getSnapshot().stories().stream().map(StoryDTO::getId).toList());
+    }
+
+    @Test
+    void score_favoursFavoritesOverLikes() {
+        LocalDateTime now = LocalDateTime.now();
+        TrendingCandidate liked = new TrendingCandidate(1L, 1, 0, 0, now);
+        TrendingCandidate favorited = new TrendingCandidate(2L, 0, 1, 0, now);
+
+        assertTrue(TrendingService.score(favorited, now) > TrendingService.score(liked, now));
+    }
+
+    private StoryDTO story(Long id) {
+        StoryDTO story = new StoryDTO();
+        story.setId(id);
+        story.setTitle("Story " + id);
+        return story;
+    }
+}
@@ -2,11 +2,13 @@ package com.coursework.story.service;
 
 import com.coursework.story.model.User;
 import com.coursework.story.repository.UserRepository;
+import com.coursework.story.security.AuthenticatedPrincipal;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,6 +31,23 @@ class UserDetailsServiceImplTest {
         assertEquals("pass", details.getPassword());
     }
 
+    @Test
+    void loadUserByUsername_returnsPrincipalWithUserId() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("test_user");
+        user.setPassword("pass");
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("test_user")).thenReturn(Optional.of(user));
+
+        UserDetailsServiceImpl service = new UserDetailsServiceImpl(userRepository);
+        AuthenticatedPrincipal principal = (AuthenticatedPrincipal) service.loadUserByUsername("test_user");
+
+        assertEquals(7L, principal.getId());
+        assertEquals(Set.of("USER"), principal.getRoles());
+    }
+
     @Test
     void loadUserByUsername_notFound() {
         UserRepository userRepository = mock(UserRepository.class);
@@ -5,7 +5,9 @@ import com.coursework.story.dto.UserDTO;
 import com.coursework.story.exception.BadRequestException;
 import com.coursework.story.exception.NotFoundException;
 import com.coursework.story.model.User;
+import com.coursework.story.repository.RefreshTokenRepository;
 import com.coursework.story.repository.UserRepository;
+import com.coursework.story.security.TokenRevocationCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
@@ -25,8 +27,10 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock private FirebaseStorageService firebaseStorageService;
-    @Mock private EmailService emailService;
+    @Mock private OutboxService outboxService;
     @Mock private AuthService authService;
+    @Mock private TokenRevocationCache tokenRevocationCache;
+    @Mock private RefreshTokenRepository refreshTokenRepository;
 
     @InjectMocks
     private UserService userService;
@@ -44,7 +48,7 @@ class UserServiceTest {
         verify(userRepository).save(userCaptor.capture());
         assertEquals("test_user", userCaptor.getValue().getUsername());
         assertFalse(userCaptor.getValue().isEmailVerified());
-        verify(emailService).sendVerificationEmail(eq("test@example.com"), any());
+        verify(outboxService).enqueueVerificationEmail(eq("test@example.com"), any());
     }
 
     @Test
@@ -64,12 +68,13 @@ class UserServiceTest {
         userService.forgottenPassword("test@example.com");
 
         assertNotNull(user.getResetToken());
-        verify(emailService).sendPasswordResetEmail(eq("test@example.com"), any());
+        verify(outboxService).enqueuePasswordResetEmail(eq("test@example.com"), any());
     }
 
     @Test
     void resetPassword_success() {
         User user = new User();
+        user.setId(3L);
         user.setResetToken("valid-token");
         when(userRepository.findByResetToken("valid-token")).thenReturn(Optional.of(user));
 
@@ -77,6 +82,8 @@ class UserServiceTest {
 
         verify(userRepository).save(user);
         assertNull(user.getResetToken());
+        verify(refreshTokenRepository).deleteByUser(user);
+        verify(tokenRevocationCache).revokeAll(3L);
     }
 
     @Test
@@ -98,6 +105,7 @@ class UserServiceTest {
     @Test
     void changePassword_success() {
         User user = new User();
+        user.setId(3L);
         user.setPassword(new BCryptPasswordEncoder().encode("oldPass"));
 
         when(authService.getAuthenticatedUserOrThrow()).thenReturn(user);
@@ -106,6 +114,8 @@ class UserServiceTest {
 
         verify(userRepository).save(user);
         assertTrue(new BCryptPasswordEncoder().matches("newPass", user.getPassword()));
+        verify(refreshTokenRepository).deleteByUser(user);
+        verify(tokenRevocationCache).revokeAll(3L);
     }
 
     @Test